@@ -0,0 +1,288 @@
+package bl.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import net.oujda_nlp_team.entity.Result;
+
+/**
+ * Bounded, thread-safe memo of AlKhalil analyses keyed by normalised word.
+ *
+ * The cache is split into segments, each an access-ordered LRU map with its
+ * own lock, so analysis threads rarely contend. Only the parts of a result the
+ * services use (root and resolved lemma) are kept, which keeps entries small
+ * and lets the cache be written to disk and reloaded on the next start.
+ */
+public class AnalysisCache {
+
+	public static final String SIZE_PROPERTY = "analysis.cache.size";
+	public static final String FILE_PROPERTY = "analysis.cache.file";
+	private static final int DEFAULT_MAX_SIZE = 100_000;
+	private static final int SEGMENTS = 16;
+	private static final String NULL_MARKER = "\\N";
+
+	/**
+	 * Analysis of one word. {@link #NONE} records that AlKhalil had no result,
+	 * so unknown words are not re-analysed either.
+	 */
+	public static final class Entry {
+		public static final Entry NONE = new Entry(null, null);
+
+		private final String root;
+		private final String lemma;
+
+		public Entry(String root, String lemma) {
+			this.root = root;
+			this.lemma = lemma;
+		}
+
+		static Entry of(Result r, String word) {
+			return r == null ? NONE : new Entry(r.getRoot(), Lemmatization.lemmaOf(r, word));
+		}
+
+		public String getRoot() { return root; }
+		public String getLemma() { return lemma; }
+		public boolean isEmpty() { return this == NONE; }
+	}
+
+	private static final class Segment extends LinkedHashMap<String, Entry> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+		private final LongAdder evictions;
+
+		Segment(int capacity, LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private final Segment[] segments;
+	private final Function<String, Entry> loader;
+	private final int maxSize;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public AnalysisCache(int maxSize) {
+		this(maxSize, word -> Entry.of(AnalysisEngine.firstResult(word), word));
+	}
+
+	public AnalysisCache(int maxSize, Function<String, Entry> loader) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache size must be at least 1");
+		}
+		this.maxSize = maxSize;
+		this.loader = loader;
+		int segmentCount = Math.min(SEGMENTS, maxSize);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(Math.max(1, maxSize / segmentCount), evictions);
+		}
+	}
+
+	private static class SharedHolder {
+		private static final AnalysisCache INSTANCE = createShared();
+
+		private static AnalysisCache createShared() {
+			int size = DEFAULT_MAX_SIZE;
+			String configured = System.getProperty(SIZE_PROPERTY);
+			if (configured != null) {
+				try {
+					size = Integer.parseInt(configured.trim());
+				} catch (NumberFormatException e) {
+					System.err.println("Invalid " + SIZE_PROPERTY + " '" + configured + "', using default");
+				}
+			}
+			AnalysisCache cache = new AnalysisCache(size);
+
+			String file = System.getProperty(FILE_PROPERTY);
+			if (file != null && !file.isBlank()) {
+				Path path = Paths.get(file);
+				if (Files.exists(path)) {
+					try {
+						System.out.println("Loaded " + cache.loadFrom(path) + " cached analyses from " + path);
+					} catch (IOException e) {
+						System.err.println("Could not load analysis cache from " + path + ": " + e.getMessage());
+					}
+				}
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+					try {
+						cache.saveTo(path);
+					} catch (IOException e) {
+						System.err.println("Could not save analysis cache to " + path + ": " + e.getMessage());
+					}
+				}, "analysis-cache-save"));
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Shared cache sized by {@code -Danalysis.cache.size}. When
+	 * {@code -Danalysis.cache.file} is set the cache is loaded from that file on
+	 * first use and written back on shutdown.
+	 */
+	public static AnalysisCache getShared() {
+		return SharedHolder.INSTANCE;
+	}
+
+	/**
+	 * Unicode NFC with tatweel removed; the tatweel is purely typographic and
+	 * does not change the analysis.
+	 */
+	static String normalize(String word) {
+		return Normalizer.normalize(word.trim(), Normalizer.Form.NFC).replace("ـ", "");
+	}
+
+	private Segment segmentFor(String key) {
+		return segments[(key.hashCode() & 0x7fffffff) % segments.length];
+	}
+
+	/**
+	 * Returns the cached analysis of a word, analysing its normalised form on a
+	 * miss. Never returns {@code null}; check {@link Entry#isEmpty()}.
+	 */
+	public Entry get(String word) {
+		String key = normalize(word);
+		Segment segment = segmentFor(key);
+		Entry entry;
+		synchronized (segment) {
+			entry = segment.get(key);
+		}
+		if (entry != null) {
+			hits.increment();
+			return entry;
+		}
+
+		misses.increment();
+		entry = loader.apply(key);
+		if (entry == null) {
+			entry = Entry.NONE;
+		}
+		synchronized (segment) {
+			segment.put(key, entry);
+		}
+		return entry;
+	}
+
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public int getMaxSize() { return maxSize; }
+	public long getHits() { return hits.sum(); }
+	public long getMisses() { return misses.sum(); }
+	public long getEvictions() { return evictions.sum(); }
+
+	public double getHitRate() {
+		long total = getHits() + getMisses();
+		return total == 0 ? 0.0 : (double) getHits() / total;
+	}
+
+	/**
+	 * Writes all entries as tab-separated lines (word, root, lemma). The file is
+	 * replaced atomically so a crash cannot leave it half written.
+	 */
+	public void saveTo(Path path) throws IOException {
+		List<String> lines = new ArrayList<>();
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				for (Map.Entry<String, Entry> e : segment.entrySet()) {
+					Entry entry = e.getValue();
+					lines.add(e.getKey() + "\t" + encode(entry.getRoot()) + "\t" + encode(entry.getLemma()));
+				}
+			}
+		}
+
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			for (String line : lines) {
+				writer.write(line);
+				writer.newLine();
+			}
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Loads entries written by {@link #saveTo(Path)} and returns how many were
+	 * read. Malformed lines are skipped.
+	 */
+	public int loadFrom(Path path) throws IOException {
+		int count = 0;
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] parts = line.split("\t", -1);
+				if (parts.length != 3 || parts[0].isEmpty()) {
+					continue;
+				}
+				String root = decode(parts[1]);
+				String lemma = decode(parts[2]);
+				Entry entry = root == null && lemma == null ? Entry.NONE : new Entry(root, lemma);
+				Segment segment = segmentFor(parts[0]);
+				synchronized (segment) {
+					segment.put(parts[0], entry);
+				}
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static String encode(String value) {
+		return value == null ? NULL_MARKER : value;
+	}
+
+	private static String decode(String value) {
+		return NULL_MARKER.equals(value) ? null : value;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AnalysisCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+				size(), maxSize, getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+	}
+}
@@ -0,0 +1,91 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AnalysisCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private AnalysisCache newCache(int maxSize) {
+        return new AnalysisCache(maxSize, word -> {
+            loads.incrementAndGet();
+            return word.startsWith("x") ? AnalysisCache.Entry.NONE : new AnalysisCache.Entry("root-" + word, "lemma-" + word);
+        });
+    }
+
+    @Test
+    public void testRepeatedWordIsAnalysedOnce() {
+        AnalysisCache cache = newCache(100);
+
+        cache.get("كتب");
+        AnalysisCache.Entry entry = cache.get("كتب");
+
+        assertEquals(1, loads.get());
+        assertEquals("root-كتب", entry.getRoot());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testTatweelIsIgnoredInKey() {
+        AnalysisCache cache = newCache(100);
+
+        AnalysisCache.Entry first = cache.get("كـتـب");
+        AnalysisCache.Entry second = cache.get("كتب");
+
+        assertEquals(1, loads.get());
+        // The word is analysed in its normalised form, whichever spelling came first.
+        assertEquals("root-كتب", first.getRoot());
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testMissingAnalysisIsCached() {
+        AnalysisCache cache = newCache(100);
+
+        assertTrue(cache.get("xyz").isEmpty());
+        assertTrue(cache.get("xyz").isEmpty());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        AnalysisCache cache = newCache(1);
+
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testSaveAndLoadRoundTrip(@TempDir Path dir) throws Exception {
+        AnalysisCache cache = newCache(100);
+        cache.get("قال");
+        cache.get("xyz");
+        Path file = dir.resolve("cache.tsv");
+        cache.saveTo(file);
+
+        AnalysisCache reloaded = newCache(100);
+        assertEquals(2, reloaded.loadFrom(file));
+        AnalysisCache.Entry entry = reloaded.get("قال");
+
+        assertEquals("lemma-قال", entry.getLemma());
+        assertSame(AnalysisCache.Entry.NONE, reloaded.get("xyz"));
+        assertNull(reloaded.get("xyz").getRoot());
+        assertEquals(2, loads.get());
+    }
+}
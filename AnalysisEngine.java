@@ -0,0 +1,236 @@
+package bl.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dto.VerseDTO;
+import net.oujda_nlp_team.AlKhalil2Analyzer;
+import net.oujda_nlp_team.entity.Result;
+import net.oujda_nlp_team.entity.ResultList;
+
+/**
+ * Runs per-word morphological analysis over many verses in parallel.
+ *
+ * Work is partitioned by verse on a work-stealing {@link ForkJoinPool}: each
+ * verse is analysed by a single worker, so words keep their
+ * {@code position_in_verse}, and the combined result keeps the order of the
+ * input verses. The parallelism defaults to the number of available
+ * processors and can be set with {@code -Danalysis.parallelism=N}.
+ *
+ * Word analyses go through an {@link AnalysisCache}, so a surface form that
+ * recurs across the corpus is only analysed once.
+ */
+public class AnalysisEngine {
+
+	public static final String PARALLELISM_PROPERTY = "analysis.parallelism";
+	public static final String CHUNK_SIZE_PROPERTY = "analysis.chunkSize";
+	public static final String BATCH_SIZE_PROPERTY = "analysis.batchSize";
+	private static final int DEFAULT_CHUNK_SIZE = 500;
+	private static final int DEFAULT_BATCH_SIZE = 5000;
+
+	/**
+	 * Analyses one word of a verse. Returning {@code null} means "no result";
+	 * the word still counts towards the position of the following words.
+	 */
+	@FunctionalInterface
+	public interface WordAnalyzer<T> {
+		T analyze(VerseDTO verse, String word, int position) throws Exception;
+	}
+
+	private final ForkJoinPool pool;
+	private final AnalysisCache cache;
+	private final int chunkSize = Math.max(1, Integer.getInteger(CHUNK_SIZE_PROPERTY, DEFAULT_CHUNK_SIZE));
+	private final int batchSize = Math.max(1, Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE));
+
+	public AnalysisEngine() {
+		this(defaultParallelism());
+	}
+
+	public AnalysisEngine(int parallelism) {
+		this(parallelism, AnalysisCache.getShared());
+	}
+
+	public AnalysisEngine(int parallelism, AnalysisCache cache) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1");
+		}
+		this.pool = new ForkJoinPool(parallelism);
+		this.cache = cache;
+	}
+
+	private static class SharedHolder {
+		private static final AnalysisEngine INSTANCE = new AnalysisEngine();
+	}
+
+	public static AnalysisEngine getShared() {
+		return SharedHolder.INSTANCE;
+	}
+
+	static int defaultParallelism() {
+		String configured = System.getProperty(PARALLELISM_PROPERTY);
+		if (configured != null) {
+			try {
+				int value = Integer.parseInt(configured.trim());
+				if (value > 0) {
+					return value;
+				}
+			} catch (NumberFormatException e) {
+				System.err.println("Invalid " + PARALLELISM_PROPERTY + " '" + configured + "', using default");
+			}
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/** Verses fetched and analysed per chunk when streaming ({@code -Danalysis.chunkSize}). */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/** Rows per insert batch and transaction when saving ({@code -Danalysis.batchSize}). */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public AnalysisCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Cached analysis of a word, or {@code null} when AlKhalil has none.
+	 */
+	public AnalysisCache.Entry lookup(String word) {
+		AnalysisCache.Entry entry = cache.get(word);
+		return entry.isEmpty() ? null : entry;
+	}
+
+	/**
+	 * Splits verse text into words the same way for every analysis service:
+	 * non-Arabic characters are dropped and empty words are removed.
+	 */
+	public static List<String> splitWords(String txt) {
+		List<String> words = new ArrayList<>();
+		if (txt == null || txt.trim().isEmpty()) {
+			return words;
+		}
+		for (String word : txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+")) {
+			if (!word.trim().isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * First AlKhalil analysis of a word, or {@code null} when there is none.
+	 */
+	public static Result firstResult(String word) {
+		ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
+		if (results == null || results.getAllResults() == null || results.getAllResults().isEmpty()) {
+			return null;
+		}
+		return results.getAllResults().get(0);
+	}
+
+	/**
+	 * Analyses every word of every verse and returns the non-null results in
+	 * verse order, then word order. Prints a throughput summary under the
+	 * given label when done.
+	 */
+	public <T> List<T> analyze(String label, List<VerseDTO> verses, WordAnalyzer<T> analyzer) {
+		Run run = startRun(label);
+		List<T> results = run.analyze(verses, analyzer);
+		run.finish();
+		return results;
+	}
+
+	/**
+	 * Starts a run that is fed verses chunk by chunk, e.g. from
+	 * {@code IVerseDAO.streamVerses}. Throughput is reported over the whole
+	 * run by {@link Run#finish()}.
+	 */
+	public Run startRun(String label) {
+		return new Run(label);
+	}
+
+	public class Run {
+		private final String label;
+		private final long start = System.nanoTime();
+		private final AtomicLong verseCount = new AtomicLong();
+		private final AtomicLong wordCount = new AtomicLong();
+		private final AtomicLong resultCount = new AtomicLong();
+
+		private Run(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Analyses one chunk of verses in parallel; results keep verse order,
+		 * then word order.
+		 */
+		public <T> List<T> analyze(List<VerseDTO> verses, WordAnalyzer<T> analyzer) {
+			List<T> results = new ArrayList<>();
+			for (List<T> verseResults : analyzeByVerse(verses, analyzer)) {
+				results.addAll(verseResults);
+			}
+			return results;
+		}
+
+		/**
+		 * Like {@link #analyze(List, WordAnalyzer)}, but keeps one list of
+		 * results per verse, in verse order, so a verse's rows can be stored
+		 * together.
+		 */
+		public <T> List<List<T>> analyzeByVerse(List<VerseDTO> verses, WordAnalyzer<T> analyzer) {
+			List<List<T>> perVerse;
+			try {
+				perVerse = pool.submit(() -> verses.parallelStream()
+						.map(verse -> analyzeVerse(verse, analyzer, wordCount))
+						.toList()).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(label + " interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(label + " failed: " + e.getCause().getMessage(), e.getCause());
+			}
+
+			verseCount.addAndGet(verses.size());
+			for (List<T> verseResults : perVerse) {
+				resultCount.addAndGet(verseResults.size());
+			}
+			return perVerse;
+		}
+
+		public void finish() {
+			long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+			System.out.printf("%s: %d verses, %d words, %d results in %d ms (%.1f words/s, parallelism %d)%n",
+					label, verseCount.get(), wordCount.get(), resultCount.get(), elapsedMs,
+					wordCount.get() * 1000.0 / elapsedMs, getParallelism());
+			System.out.println(cache);
+		}
+	}
+
+	private <T> List<T> analyzeVerse(VerseDTO verse, WordAnalyzer<T> analyzer, AtomicLong wordCount) {
+		List<T> results = new ArrayList<>();
+		int position = 1;
+		for (String word : splitWords(verse.getText())) {
+			try {
+				T result = analyzer.analyze(verse, word, position);
+				if (result != null) {
+					results.add(result);
+				}
+			} catch (Exception e) {
+				System.err.println("Error processing word '" + word + "': " + e.getMessage());
+			}
+			position++;
+		}
+		wordCount.addAndGet(position - 1);
+		return results;
+	}
+}
@@ -0,0 +1,66 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dto.VerseDTO;
+
+public class AnalysisEngineTest {
+
+    private final AnalysisEngine engine = new AnalysisEngine(4, new AnalysisCache(10, word -> AnalysisCache.Entry.NONE));
+
+    private static VerseDTO verse(int verseId, String text) {
+        VerseDTO verse = new VerseDTO();
+        verse.setVerseId(verseId);
+        verse.setText(text);
+        return verse;
+    }
+
+    @Test
+    public void testResultsKeepVerseThenWordOrder() {
+        List<VerseDTO> verses = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            verses.add(verse(i, "قال الشاعر قولا"));
+        }
+
+        List<String> results = engine.analyze("test", verses,
+                (verse, word, position) -> verse.getVerseId() + ":" + position + ":" + word);
+
+        assertEquals(150, results.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals((i + 1) + ":1:قال", results.get(i * 3));
+            assertEquals((i + 1) + ":2:الشاعر", results.get(i * 3 + 1));
+            assertEquals((i + 1) + ":3:قولا", results.get(i * 3 + 2));
+        }
+    }
+
+    @Test
+    public void testNullResultsAreDroppedButKeepTheirPosition() {
+        List<VerseDTO> verses = Arrays.asList(verse(1, "في البيت شعر"), verse(2, "abc"));
+
+        List<String> results = engine.analyze("test", verses,
+                (verse, word, position) -> word.equals("في") ? null : position + ":" + word);
+
+        assertEquals(Arrays.asList("2:البيت", "3:شعر"), results);
+    }
+
+    @Test
+    public void testFailingWordIsSkipped() {
+        List<String> results = engine.analyze("test", Arrays.asList(verse(1, "كتب قرأ")),
+                (verse, word, position) -> {
+                    if (position == 1) {
+                        throw new Exception("no analysis");
+                    }
+                    return word;
+                });
+
+        assertEquals(Arrays.asList("قرأ"), results);
+        assertTrue(AnalysisEngine.splitWords("  ").isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package dto;
+
+public class AnalysisResultDTO {
+    private int versesProcessed;
+    private int tokensSaved;
+    private int lemmasSaved;
+    private int rootsSaved;
+    private int segmentsSaved;
+    private long elapsedMillis;
+
+    public AnalysisResultDTO() {}
+
+    public AnalysisResultDTO(int versesProcessed, int tokensSaved, int lemmasSaved, int rootsSaved,
+            int segmentsSaved, long elapsedMillis) {
+        this.versesProcessed = versesProcessed;
+        this.tokensSaved = tokensSaved;
+        this.lemmasSaved = lemmasSaved;
+        this.rootsSaved = rootsSaved;
+        this.segmentsSaved = segmentsSaved;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getVersesProcessed() { return versesProcessed; }
+    public void setVersesProcessed(int versesProcessed) { this.versesProcessed = versesProcessed; }
+
+    public int getTokensSaved() { return tokensSaved; }
+    public void setTokensSaved(int tokensSaved) { this.tokensSaved = tokensSaved; }
+
+    public int getLemmasSaved() { return lemmasSaved; }
+    public void setLemmasSaved(int lemmasSaved) { this.lemmasSaved = lemmasSaved; }
+
+    public int getRootsSaved() { return rootsSaved; }
+    public void setRootsSaved(int rootsSaved) { this.rootsSaved = rootsSaved; }
+
+    public int getSegmentsSaved() { return segmentsSaved; }
+    public void setSegmentsSaved(int segmentsSaved) { this.segmentsSaved = segmentsSaved; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return "AnalysisResultDTO{" +
+                "versesProcessed=" + versesProcessed +
+                ", tokensSaved=" + tokensSaved +
+                ", lemmasSaved=" + lemmasSaved +
+                ", rootsSaved=" + rootsSaved +
+                ", segmentsSaved=" + segmentsSaved +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package dto;
+
+/**
+ * The per-word annotation tables produced by morphological analysis. Every
+ * one of them is keyed by {@code verse_id}.
+ */
+public enum AnnotationType {
+    TOKEN("token"),
+    LEMMA("lemma"),
+    ROOT("root"),
+    SEGMENT("segment");
+
+    private final String tableName;
+
+    AnnotationType(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -1,24 +1,36 @@
 package bl;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import bl.services.ILemmaBO;
+import bl.services.IMorphologyBO;
 import bl.services.INGram;
+import bl.services.INearDuplicateBO;
 import bl.services.IRootBO;
 import bl.services.ISegmentBO;
 import bl.services.ITokenBO;
 import bl.services.IFrequencyBO;
+import bl.services.MorphologyPipeline;
+import bl.services.NearDuplicateDetector;
 import bl.services.NGram.NGramResult;
 import dal.IDALFacade;
+import dto.AnalysisResultDTO;
+import dto.AnnotationType;
 import dto.BookDTO;
 import dto.BrowseResultDTO;
 import dto.ImportResultDTO;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 import dto.LemmaDTO;
+import dto.PageDTO;
 import dto.PoemDTO;
 import dto.PoetDTO;
 import dto.RootDTO;
+import dto.SimilarPairDTO;
 import dto.SegmentDTO;
 import dto.TokenDTO;
 import dto.VerseDTO;
@@ -39,6 +51,8 @@ public class BLFacade implements IBLFacade {
 	private IIndexBO indexer;
 	private IDALFacade dalfacade;
 	private IFrequencyBO frequencies;
+	private IMorphologyBO morphology;
+	private INearDuplicateBO nearDuplicates;
 
 	// New constructor: accept importer BO
 	public BLFacade(IBookBO books, IPoetBO poets, IPoemBO poems, IVerseBO verses, IImportBookBO importer,
@@ -58,10 +72,26 @@ public class BLFacade implements IBLFacade {
 		this.indexer = indexer;
 		this.frequencies = frequencies;
 		this.dalfacade = dalfacade;
+		this.morphology = createMorphology(dalfacade);
+		this.nearDuplicates = dalfacade == null ? null : new NearDuplicateDetector(dalfacade);
 	}
 
 	public BLFacade(IDALFacade dalFacade) {
 		this.dalfacade = dalFacade;
+		this.morphology = createMorphology(dalFacade);
+		this.nearDuplicates = dalFacade == null ? null : new NearDuplicateDetector(dalFacade);
+	}
+
+	private static IMorphologyBO createMorphology(IDALFacade dal) {
+		return dal == null ? null : new MorphologyPipeline(dal, dal, dal, dal, dal);
+	}
+
+	public void setMorphology(IMorphologyBO morphology) {
+		this.morphology = morphology;
+	}
+
+	public void setNearDuplicates(INearDuplicateBO nearDuplicates) {
+		this.nearDuplicates = nearDuplicates;
 	}
 
 	public IDALFacade getDalFacade() {
@@ -186,6 +216,16 @@ public class BLFacade implements IBLFacade {
 		return verses.searchRegexPattern(pattern);
 	}
 
+	@Override
+	public PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize) {
+		return verses.searchExactStringPage(text, cursor, pageSize);
+	}
+
+	@Override
+	public PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize) {
+		return verses.searchRegexPatternPage(pattern, cursor, pageSize);
+	}
+
 	// --- Import methods ---
 	@Override
 	public ImportResultDTO importBook(File file) {
@@ -195,6 +235,39 @@ public class BLFacade implements IBLFacade {
 		return importer.importBook(file);
 	}
 
+	@Override
+	public ImportResultDTO importBook(File file, boolean analyze) {
+		if (importer == null) {
+			throw new IllegalStateException("ImportBookBO (importer) not initialized in BLFacade");
+		}
+		return importer.importBook(file, analyze);
+	}
+
+	@Override
+	public ImportResultDTO importDirectory(File directory, boolean analyze, Consumer<ImportResultDTO> onFileDone) {
+		if (importer == null) {
+			throw new IllegalStateException("ImportBookBO (importer) not initialized in BLFacade");
+		}
+		return importer.importDirectory(directory, analyze, onFileDone);
+	}
+
+	// --- Morphology pipeline ---
+	@Override
+	public AnalysisResultDTO analyzeAndSaveAllVerses() {
+		if (morphology == null) {
+			throw new IllegalStateException("Morphology pipeline not initialized in BLFacade");
+		}
+		return morphology.analyzeAndSaveAllVerses();
+	}
+
+	@Override
+	public AnalysisResultDTO analyzeAndSaveVerses(Collection<Integer> verseIds) {
+		if (morphology == null) {
+			throw new IllegalStateException("Morphology pipeline not initialized in BLFacade");
+		}
+		return morphology.analyzeAndSaveVerses(verseIds);
+	}
+
 	// --- Browse methods ---
 	@Override
 	public List<BrowseResultDTO> browseByLemma(String lemma) {
@@ -236,6 +309,16 @@ public class BLFacade implements IBLFacade {
 		return browseBO.getDistinctToken();
 	}
 
+	@Override
+	public List<String> findTerms(AnnotationType type, String prefix, int limit) {
+		return browseBO.findTerms(type, prefix, limit);
+	}
+
+	@Override
+	public PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize) {
+		return browseBO.browsePage(type, value, cursor, pageSize);
+	}
+
 	@Override
 	public List<TokenDTO> tokenizeAllVerses() {
 		return tokens.tokenizeAllVerses();
@@ -406,18 +489,35 @@ public class BLFacade implements IBLFacade {
 		return ngrams.findSimilarVerses(targetText, n, minSimilarity);
 	}
 
+	// --- Near-duplicate detection ---
+	@Override
+	public List<SimilarPairDTO> findNearDuplicatePairs(int n, double minJaccard) {
+		if (nearDuplicates == null) {
+			throw new IllegalStateException("Near-duplicate detector not initialized in BLFacade");
+		}
+		return nearDuplicates.findNearDuplicatePairs(n, minJaccard);
+	}
+
 	@Override
-	public List<String> getBookTokens(int bookId) {
+	public int exportNearDuplicatePairs(int n, double minJaccard, File output) throws IOException {
+		if (nearDuplicates == null) {
+			throw new IllegalStateException("Near-duplicate detector not initialized in BLFacade");
+		}
+		return nearDuplicates.exportNearDuplicatePairs(n, minJaccard, output);
+	}
+
+	@Override
+	public List<IndexEntryDTO> getBookTokens(int bookId) {
 		return indexer.getBookTokens(bookId);
 	}
 
 	@Override
-	public List<String> getBookLemmas(int bookId) {
+	public List<IndexEntryDTO> getBookLemmas(int bookId) {
 		return indexer.getBookLemmas(bookId);
 	}
 
 	@Override
-	public List<String> getBookRoots(int bookId) {
+	public List<IndexEntryDTO> getBookRoots(int bookId) {
 		return indexer.getBookRoots(bookId);
 	}
 
@@ -437,12 +537,12 @@ public class BLFacade implements IBLFacade {
 	}
 
 	@Override
-	public List<String> getLemmasByRoot(int bookId, String root) {
+	public List<IndexEntryDTO> getLemmasByRoot(int bookId, String root) {
 		return indexer.getLemmasByRoot(bookId, root);
 	}
 
 	@Override
-	public List<String> getTokensByLemma(int bookId, String lemma) {
+	public List<IndexEntryDTO> getTokensByLemma(int bookId, String lemma) {
 		return indexer.getTokensByLemma(bookId, lemma);
 	}
 
@@ -473,4 +573,20 @@ public class BLFacade implements IBLFacade {
 	public List<dto.FrequencyDTO> getTokenFrequencies() {
 		return frequencies.getTokenFrequencies();
 	}
+
+	@Override
+	public List<dto.FrequencyDTO> getTopN(AnnotationType type, int n) {
+		return frequencies.getTopN(type, n);
+	}
+
+	@Override
+	public dto.FrequencyWindowDTO getFrequencyWindow(AnnotationType type, int offset, int limit) {
+		return frequencies.getFrequencyWindow(type, offset, limit);
+	}
+
+	@Override
+	public dto.FrequencyWindowDTO getFrequencyWindow(AnnotationType type, dto.FrequencyScope scope, int offset,
+			int limit) {
+		return frequencies.getFrequencyWindow(type, scope, offset, limit);
+	}
 }
\ No newline at end of file
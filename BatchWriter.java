@@ -0,0 +1,67 @@
+package bl.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Buffers the rows of whole verses and hands them to a batch insert once at
+ * least {@code batchSize} rows are waiting, so each flush is its own
+ * transaction and memory use stays bounded. A verse is never split across
+ * two flushes: a verse with some rows stored counts as processed and is not
+ * analysed again. Not thread-safe; use it from the thread that drives the
+ * stream.
+ */
+public class BatchWriter<T> implements AutoCloseable {
+
+	private final int batchSize;
+	private final ToIntFunction<List<T>> sink;
+	private List<T> buffer;
+	private int written;
+
+	/**
+	 * @param sink inserts one batch and returns how many rows it committed
+	 */
+	public BatchWriter(int batchSize, ToIntFunction<List<T>> sink) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be at least 1");
+		}
+		this.batchSize = batchSize;
+		this.sink = sink;
+		this.buffer = new ArrayList<>(batchSize);
+	}
+
+	/** Adds all rows of one verse; they are flushed together. */
+	public void addVerse(List<T> rows) {
+		buffer.addAll(rows);
+		if (buffer.size() >= batchSize) {
+			flush();
+		}
+	}
+
+	/** Adds the rows of several verses, one {@link #addVerse} per verse. */
+	public void addVerses(List<List<T>> verses) {
+		for (List<T> rows : verses) {
+			addVerse(rows);
+		}
+	}
+
+	public void flush() {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		List<T> batch = buffer;
+		buffer = new ArrayList<>(batchSize);
+		written += sink.applyAsInt(batch);
+	}
+
+	/** Rows the sink reported as committed so far. */
+	public int getWritten() {
+		return written;
+	}
+
+	@Override
+	public void close() {
+		flush();
+	}
+}
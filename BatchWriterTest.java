@@ -0,0 +1,45 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchWriterTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Test
+    public void testVerseIsNeverSplitAcrossBatches() {
+        BatchWriter<String> writer = new BatchWriter<>(3, batch -> {
+            batches.add(batch);
+            return batch.size();
+        });
+
+        writer.addVerse(Arrays.asList("1a", "1b"));
+        writer.addVerse(Arrays.asList("2a", "2b", "2c"));
+        writer.addVerse(Arrays.asList("3a"));
+        writer.addVerse(new ArrayList<>());
+        writer.close();
+
+        assertEquals(Arrays.asList(Arrays.asList("1a", "1b", "2a", "2b", "2c"), Arrays.asList("3a")), batches);
+        assertEquals(6, writer.getWritten());
+    }
+
+    @Test
+    public void testRolledBackBatchIsNotCounted() {
+        BatchWriter<String> writer = new BatchWriter<>(2, batch -> {
+            batches.add(batch);
+            return batch.contains("bad") ? 0 : batch.size();
+        });
+
+        writer.addVerses(Arrays.asList(Arrays.asList("1a", "1b"), Arrays.asList("bad", "2b"), Arrays.asList("3a")));
+        writer.close();
+
+        assertEquals(3, batches.size());
+        assertEquals(3, writer.getWritten());
+    }
+}
@@ -5,11 +5,14 @@ import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import dto.BookDTO;
 import dto.ImportResultDTO;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -17,12 +20,14 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import pl.Main;
@@ -47,6 +52,10 @@ public class BookController {
     @FXML
     private Button importBookBtn;
     @FXML
+    private Button importFolderBtn;
+    @FXML
+    private CheckBox analyzeOnImportCheck;
+    @FXML
     private Button refreshBtn;
 
     @FXML
@@ -258,7 +267,7 @@ public class BookController {
             File selectedFile = fileChooser.showOpenDialog(importBookBtn.getScene().getWindow());
 
             if (selectedFile != null) {
-                ImportResultDTO result = getFacade().importBook(selectedFile);
+                ImportResultDTO result = getFacade().importBook(selectedFile, analyzeOnImport());
 
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Import Result");
@@ -275,6 +284,50 @@ public class BookController {
         }
     }
 
+    @FXML
+    private void handleImportFolder() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Select Folder of Book Files to Import");
+        File directory = chooser.showDialog(importFolderBtn.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+
+        // Files are imported on worker threads; report each one as it finishes.
+        boolean analyze = analyzeOnImport();
+        AtomicInteger done = new AtomicInteger();
+        Task<ImportResultDTO> task = new Task<>() {
+            @Override
+            protected ImportResultDTO call() {
+                return getFacade().importDirectory(directory, analyze, file -> Platform.runLater(() -> showStatus(
+                        "Imported " + done.incrementAndGet() + " files, last: " + file.getFileName(),
+                        file.getStatus() != ImportResultDTO.Status.IMPORTED)));
+            }
+        };
+        task.setOnSucceeded(e -> {
+            ImportResultDTO result = task.getValue();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Import Result");
+            alert.setHeaderText("Folder Import Complete");
+            alert.setContentText(result.getMessage());
+            alert.showAndWait();
+            importFolderBtn.setDisable(false);
+            loadBooks();
+        });
+        task.setOnFailed(e -> {
+            showStatus("Error importing folder: " + task.getException().getMessage(), true);
+            importFolderBtn.setDisable(false);
+        });
+
+        importFolderBtn.setDisable(true);
+        showStatus("Importing " + directory.getName() + "...", false);
+        new Thread(task).start();
+    }
+
+    private boolean analyzeOnImport() {
+        return analyzeOnImportCheck != null && analyzeOnImportCheck.isSelected();
+    }
+
     @FXML
     private void handleRefresh() {
         clearFields();
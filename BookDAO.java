@@ -64,6 +64,7 @@ public class BookDAO implements IBookDAO {
             long executionTime = System.currentTimeMillis() - startTime;
 
             if (rowsAffected > 0) {
+                IdentityCache.removeBook(book.getTitle());
                 // Retrieve generated book_id
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
@@ -255,6 +256,8 @@ public class BookDAO implements IBookDAO {
             long executionTime = System.currentTimeMillis() - startTime;
 
             if (rowsAffected > 0) {
+                IdentityCache.removeBook(currentTitle);
+                IdentityCache.removeBook(book.getTitle());
                 logger.info("{} - Book '{}' updated successfully to '{}' ({} ms, {} rows affected)",
                         METHOD_NAME, currentTitle, book.getTitle(), executionTime, rowsAffected);
             } else {
@@ -299,6 +302,9 @@ public class BookDAO implements IBookDAO {
             long executionTime = System.currentTimeMillis() - startTime;
 
             if (rowsAffected > 0) {
+                IdentityCache.removeBook(title);
+                DataVersion.bump();
+                FrequencyStore.getShared().invalidateAll();
                 logger.info("{} - Book '{}' deleted successfully ({} ms, {} rows affected)",
                         METHOD_NAME, title, executionTime, rowsAffected);
             } else {
@@ -342,13 +348,19 @@ public class BookDAO implements IBookDAO {
             return 0;
         }
 
+        Integer cached = IdentityCache.bookId(book.getTitle());
+        if (cached != null) {
+            logger.debug("{} - Cached book ID {} for title '{}'", METHOD_NAME, cached, book.getTitle());
+            return cached;
+        }
+
         logger.info("{} - Getting book ID for title: '{}'", METHOD_NAME, book.getTitle());
 
         String query = "SELECT book_id FROM book WHERE title = ?";
 
         long startTime = System.currentTimeMillis();
 
-        try (Connection connection = DatabaseConfigure.getConnection();
+        try (Connection connection = dbConnection.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(query)) {
 
             logger.debug("{} - SQL Query: {}", METHOD_NAME, query);
@@ -360,6 +372,7 @@ public class BookDAO implements IBookDAO {
 
                 if (rs.next()) {
                     int bookId = rs.getInt("book_id");
+                    IdentityCache.putBook(book.getTitle(), bookId);
                     logger.info("{} - Found book ID {} for title '{}' ({} ms)",
                             METHOD_NAME, bookId, book.getTitle(), executionTime);
                     return bookId;
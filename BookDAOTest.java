@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +44,7 @@ public class BookDAOTest {
     @BeforeEach
     public void setUp() {
         bookDAO = new BookDAO(dbConnectionMock);
+        IdentityCache.clear();
     }
 
     @Test
@@ -136,4 +138,25 @@ public class BookDAOTest {
 
         verify(preparedStatementMock).executeUpdate();
     }
+
+    @Test
+    public void testGetBookID_CachedUntilDeleted() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true);
+        when(resultSetMock.getInt("book_id")).thenReturn(7);
+        when(preparedStatementMock.executeUpdate()).thenReturn(1);
+
+        BookDTO book = new BookDTO();
+        book.setTitle("Cached Book");
+
+        assertEquals(7, bookDAO.getBookID(book));
+        assertEquals(7, bookDAO.getBookID(book));
+        verify(preparedStatementMock, times(1)).executeQuery();
+
+        bookDAO.deleteBook("Cached Book");
+        assertEquals(7, bookDAO.getBookID(book));
+        verify(preparedStatementMock, times(2)).executeQuery();
+    }
 }
@@ -0,0 +1,146 @@
+package bl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import dto.ParsedPoemDTO;
+
+/**
+ * Streaming reader for the import format: a {@code الكتاب :} header line
+ * with the book title, then poems as {@code [title]} followed by their
+ * verses as {@code (verse)}. A poem runs until the next {@code [}.
+ *
+ * The file is read line by line and poems are returned one at a time, so
+ * memory is bounded by the largest poem rather than the file. The book title
+ * is read from the lines before the first poem when the parser is created.
+ * Read errors while iterating surface as {@link UncheckedIOException}.
+ */
+public class BookFileParser implements Iterator<ParsedPoemDTO>, Closeable {
+
+    private static final String TITLE_MARKER = "الكتاب :";
+    private static final Pattern VERSE_PATTERN = Pattern.compile("\\((.*?)\\)");
+
+    private final BufferedReader reader;
+    private final Matcher verseMatcher = VERSE_PATTERN.matcher("");
+    private final String bookTitle;
+
+    /** Rest of the current line not scanned yet, or null to read the next line. */
+    private String line;
+    private int pos;
+    private String poemTitle;
+    private List<String> verses;
+    private ParsedPoemDTO next;
+    private boolean eof;
+
+    public BookFileParser(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String title = "";
+        String header;
+        while ((header = reader.readLine()) != null) {
+            if (title.isEmpty()) {
+                int marker = header.indexOf(TITLE_MARKER);
+                if (marker != -1) {
+                    title = header.substring(marker + TITLE_MARKER.length()).trim();
+                }
+            }
+            if (header.indexOf('[') != -1) {
+                line = header;
+                break;
+            }
+        }
+        eof = header == null;
+        this.bookTitle = title;
+    }
+
+    /** Title from the header, or an empty string if there is none. */
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ParsedPoemDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ParsedPoemDTO poem = next;
+        next = null;
+        return poem;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /** Scans forward to the end of the next poem that has verses. */
+    private ParsedPoemDTO advance() throws IOException {
+        while (true) {
+            if (line == null) {
+                if (eof || (line = reader.readLine()) == null) {
+                    eof = true;
+                    return finishPoem();
+                }
+                pos = 0;
+            }
+            int open = line.indexOf('[', pos);
+            if (verses != null) {
+                collectVerses(open == -1 ? line.length() : open);
+            }
+            if (open == -1) {
+                line = null;
+                continue;
+            }
+
+            // A '[' always ends the current poem; it starts a new one only if
+            // the title is closed on the same line.
+            ParsedPoemDTO finished = finishPoem();
+            int close = line.indexOf(']', open + 1);
+            if (close == -1) {
+                pos = open + 1;
+            } else {
+                poemTitle = line.substring(open + 1, close).trim();
+                verses = new ArrayList<>();
+                pos = close + 1;
+            }
+            if (finished != null) {
+                return finished;
+            }
+        }
+    }
+
+    private void collectVerses(int end) {
+        verseMatcher.reset(line).region(pos, end);
+        while (verseMatcher.find()) {
+            verses.add(verseMatcher.group(1).trim());
+        }
+    }
+
+    private ParsedPoemDTO finishPoem() {
+        List<String> poemVerses = verses;
+        verses = null;
+        if (poemVerses == null || poemVerses.isEmpty()) {
+            return null;
+        }
+        return new ParsedPoemDTO(poemTitle, 0, poemVerses);
+    }
+}
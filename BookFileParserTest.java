@@ -0,0 +1,74 @@
+package bl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import dto.ParsedPoemDTO;
+
+public class BookFileParserTest {
+
+    private BookFileParser parse(String content) throws IOException {
+        return new BookFileParser(new BufferedReader(new StringReader(content)));
+    }
+
+    private List<ParsedPoemDTO> readAll(BookFileParser parser) {
+        List<ParsedPoemDTO> poems = new ArrayList<>();
+        parser.forEachRemaining(poems::add);
+        return poems;
+    }
+
+    @Test
+    public void testHeaderAndPoems() throws IOException {
+        BookFileParser parser = parse("Header line\n" +
+                "الكتاب : ديوان المتنبي \n" +
+                "[Poem 1]\n" +
+                "(Verse 1) (Verse 2)\n" +
+                "[Poem 2] ( Verse 3 )");
+
+        List<ParsedPoemDTO> poems = readAll(parser);
+
+        assertEquals("ديوان المتنبي", parser.getBookTitle());
+        assertEquals(2, poems.size());
+        assertEquals("Poem 1", poems.get(0).getTitle());
+        assertEquals(Arrays.asList("Verse 1", "Verse 2"), poems.get(0).getVerses());
+        assertEquals(Arrays.asList("Verse 3"), poems.get(1).getVerses());
+    }
+
+    @Test
+    public void testPoemsWithoutVersesAreSkipped() throws IOException {
+        List<ParsedPoemDTO> poems = readAll(parse("[Empty]\n[Full]\n(Verse)\n[Trailing]"));
+
+        assertEquals(1, poems.size());
+        assertEquals("Full", poems.get(0).getTitle());
+    }
+
+    @Test
+    public void testUnclosedBracketEndsPoem() throws IOException {
+        // Text after a '[' without ']' belongs to no poem until the next title.
+        List<ParsedPoemDTO> poems = readAll(parse("[A]\n(One) [note\n(Lost)\n[B](Two)"));
+
+        assertEquals(2, poems.size());
+        assertEquals(Arrays.asList("One"), poems.get(0).getVerses());
+        assertEquals(Arrays.asList("Two"), poems.get(1).getVerses());
+    }
+
+    @Test
+    public void testNoTitleAndExhaustedIterator() throws IOException {
+        BookFileParser parser = parse("no marker\n");
+
+        assertEquals("", parser.getBookTitle());
+        assertFalse(parser.hasNext());
+        assertThrows(NoSuchElementException.class, parser::next);
+    }
+}
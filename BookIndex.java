@@ -0,0 +1,241 @@
+package dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dto.AnnotationType;
+
+/**
+ * Materialized root → lemma → token tree of one book, so each level of the
+ * index view is a lookup instead of a join.
+ *
+ * The token, lemma and root rows of the book are read once. A lemma is a
+ * child of a root, and a token of a lemma, when both annotate the same word,
+ * i.e. share verse id and position in the verse. Every node keeps its
+ * occurrence count and the ascending, distinct ids of the verses it occurs
+ * in; children are stored as sorted arrays (most frequent first), so listing
+ * the children of a node costs O(children).
+ *
+ * The tree remembers the {@link FrequencyStore#changeCount()} and
+ * {@link FrequencyStore#scopeChangeCount()} it was built at and is stale once
+ * annotations change or verses may have moved in or out of the book.
+ */
+public class BookIndex {
+
+    private static final Comparator<Node> BY_COUNT = Comparator.comparingInt(Node::getCount).reversed()
+            .thenComparing(Node::getTerm);
+
+    /** One term with its count, verse postings and children. */
+    public static final class Node {
+        private final String term;
+        private final int count;
+        private final int[] verseIds;
+        private final Node[] children;
+
+        Node(String term, int count, int[] verseIds, Node[] children) {
+            this.term = term;
+            this.count = count;
+            this.verseIds = verseIds;
+            this.children = children;
+        }
+
+        public String getTerm() { return term; }
+        public int getCount() { return count; }
+        public int[] getVerseIds() { return verseIds.clone(); }
+
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(Arrays.asList(children));
+        }
+    }
+
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final int bookId;
+    private final long version;
+    private final long scopeVersion;
+    private final Map<AnnotationType, Node[]> levels = new HashMap<>();
+    private final Map<AnnotationType, Map<String, Node>> byTerm = new HashMap<>();
+
+    private BookIndex(int bookId, long version, long scopeVersion) {
+        this.bookId = bookId;
+        this.version = version;
+        this.scopeVersion = scopeVersion;
+    }
+
+    /** Reads the book's token, lemma and root rows and builds the tree. */
+    public static BookIndex build(IDatabaseConnection dbConnection, int bookId) throws SQLException {
+        FrequencyStore store = FrequencyStore.getShared();
+        BookIndex index = new BookIndex(bookId, store.changeCount(), store.scopeChangeCount());
+        Map<AnnotationType, List<Row>> rows = new HashMap<>();
+        try (Connection con = dbConnection.getConnection()) {
+            for (AnnotationType type : new AnnotationType[] { AnnotationType.TOKEN, AnnotationType.LEMMA,
+                    AnnotationType.ROOT }) {
+                rows.put(type, readRows(con, type, bookId));
+            }
+        }
+
+        Map<Long, List<String>> rootsAt = termsAt(rows.get(AnnotationType.ROOT));
+        Map<Long, List<String>> lemmasAt = termsAt(rows.get(AnnotationType.LEMMA));
+
+        Map<String, Builder> tokens = new HashMap<>();
+        Map<String, Builder> lemmas = new HashMap<>();
+        Map<String, Builder> roots = new HashMap<>();
+        for (Row row : rows.get(AnnotationType.ROOT)) {
+            node(roots, row.term).add(row.verseId);
+        }
+        for (Row row : rows.get(AnnotationType.LEMMA)) {
+            node(lemmas, row.term).add(row.verseId);
+            for (String root : rootsAt.getOrDefault(row.key, Collections.emptyList())) {
+                node(roots, root).child(row.term).add(row.verseId);
+            }
+        }
+        for (Row row : rows.get(AnnotationType.TOKEN)) {
+            node(tokens, row.term).add(row.verseId);
+            for (String lemma : lemmasAt.getOrDefault(row.key, Collections.emptyList())) {
+                node(lemmas, lemma).child(row.term).add(row.verseId);
+            }
+        }
+
+        index.install(AnnotationType.TOKEN, tokens);
+        index.install(AnnotationType.LEMMA, lemmas);
+        index.install(AnnotationType.ROOT, roots);
+        return index;
+    }
+
+    /** Terms of one level, most frequent first. */
+    public List<Node> getTerms(AnnotationType type) {
+        return Collections.unmodifiableList(Arrays.asList(levels.getOrDefault(type, NO_NODES)));
+    }
+
+    /** The node of a term at one level, or {@code null} if it does not occur in the book. */
+    public Node find(AnnotationType type, String term) {
+        Map<String, Node> nodes = byTerm.get(type);
+        return nodes == null ? null : nodes.get(term);
+    }
+
+    /** Lemmas annotating the same words as {@code root}, with counts under that root. */
+    public List<Node> getLemmasByRoot(String root) {
+        Node node = find(AnnotationType.ROOT, root);
+        return node == null ? Collections.emptyList() : node.getChildren();
+    }
+
+    /** Tokens annotated with {@code lemma}, with counts under that lemma. */
+    public List<Node> getTokensByLemma(String lemma) {
+        Node node = find(AnnotationType.LEMMA, lemma);
+        return node == null ? Collections.emptyList() : node.getChildren();
+    }
+
+    public int getBookId() { return bookId; }
+
+    /** Whether annotations or the verses of the book may have changed since the tree was built. */
+    public boolean isStale() {
+        FrequencyStore store = FrequencyStore.getShared();
+        return version != store.changeCount() || scopeVersion != store.scopeChangeCount();
+    }
+
+    private void install(AnnotationType type, Map<String, Builder> builders) {
+        Node[] nodes = freeze(builders);
+        Map<String, Node> terms = new HashMap<>(nodes.length * 2);
+        for (Node node : nodes) {
+            terms.put(node.term, node);
+        }
+        levels.put(type, nodes);
+        byTerm.put(type, terms);
+    }
+
+    private static Node[] freeze(Map<String, Builder> builders) {
+        if (builders == null || builders.isEmpty()) {
+            return NO_NODES;
+        }
+        Node[] nodes = new Node[builders.size()];
+        int i = 0;
+        for (Map.Entry<String, Builder> e : builders.entrySet()) {
+            Builder b = e.getValue();
+            nodes[i++] = new Node(e.getKey(), b.count, b.verseIds(), freeze(b.children));
+        }
+        Arrays.sort(nodes, BY_COUNT);
+        return nodes;
+    }
+
+    private static Builder node(Map<String, Builder> nodes, String term) {
+        return nodes.computeIfAbsent(term, t -> new Builder());
+    }
+
+    private static Map<Long, List<String>> termsAt(List<Row> rows) {
+        Map<Long, List<String>> terms = new HashMap<>(rows.size() * 2);
+        for (Row row : rows) {
+            terms.computeIfAbsent(row.key, k -> new ArrayList<>(1)).add(row.term);
+        }
+        return terms;
+    }
+
+    private static List<Row> readRows(Connection con, AnnotationType type, int bookId) throws SQLException {
+        String column = type == AnnotationType.TOKEN ? "word" : type.getTableName();
+        String sql = "SELECT a.verse_id, a.position_in_verse, a." + column + " AS term " +
+                "FROM " + type.getTableName() + " a " +
+                "JOIN verse v ON a.verse_id = v.verse_id " +
+                "JOIN poem p ON v.poem_id = p.poem_id " +
+                "WHERE p.book_id = ? AND a." + column + " IS NOT NULL AND a." + column + " != '' " +
+                "ORDER BY a.verse_id";
+        List<Row> rows = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, bookId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Row(rs.getInt("verse_id"), rs.getInt("position_in_verse"), rs.getString("term")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static final class Row {
+        private final int verseId;
+        private final long key;
+        private final String term;
+
+        Row(int verseId, int position, String term) {
+            this.verseId = verseId;
+            this.key = ((long) verseId << 32) | (position & 0xFFFFFFFFL);
+            this.term = term;
+        }
+    }
+
+    private static final class Builder {
+        private int count;
+        private int[] verses = new int[2];
+        private int verseCount;
+        private Map<String, Builder> children;
+
+        void add(int verseId) {
+            count++;
+            // Rows arrive ordered by verse id, so a repeat is always the last one added.
+            if (verseCount == 0 || verses[verseCount - 1] != verseId) {
+                if (verseCount == verses.length) {
+                    verses = Arrays.copyOf(verses, verseCount * 2);
+                }
+                verses[verseCount++] = verseId;
+            }
+        }
+
+        Builder child(String term) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            return node(children, term);
+        }
+
+        int[] verseIds() {
+            return Arrays.copyOf(verses, verseCount);
+        }
+    }
+}
@@ -2,9 +2,14 @@ package bl;
 
 import java.util.List;
 import dal.IBrowseDAO;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 public class BrowseBO implements IBrowseBO {
+    /** Largest page a caller may ask for. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private IBrowseDAO browseDAO;
 
     public BrowseBO(IBrowseDAO browseDAO) {
@@ -62,4 +67,29 @@ public class BrowseBO implements IBrowseBO {
     public List<String> getDistinctToken() {
         return browseDAO.getDistinctToken();
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<String> findTerms(AnnotationType type, String prefix, int limit) {
+        if (type == null) {
+            throw new IllegalArgumentException("Annotation type cannot be null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return browseDAO.findTerms(type, prefix == null ? "" : prefix.trim(), limit);
+    }
+
+    @Override
+    public PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize) {
+        if (type == null) {
+            throw new IllegalArgumentException("Annotation type cannot be null");
+        }
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Browse value cannot be null or empty");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return browseDAO.browsePage(type, value.trim(), cursor, pageSize);
+    }
+}
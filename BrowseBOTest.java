@@ -17,7 +17,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import dal.IBrowseDAO;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 public class BrowseBOTest {
 
@@ -152,4 +154,29 @@ public class BrowseBOTest {
         assertEquals(expected, result);
         verify(browseDAOMock, times(1)).getDistinctToken();
     }
+
+    @Test
+    public void testBrowsePage_TrimsValueAndValidates() {
+        PageDTO<BrowseResultDTO> expected = new PageDTO<>(Arrays.asList(new BrowseResultDTO()), "c", 5);
+        when(browseDAOMock.browsePage(AnnotationType.ROOT, "كتب", null, 50)).thenReturn(expected);
+
+        assertEquals(expected, browseBO.browsePage(AnnotationType.ROOT, " كتب ", null, 50));
+
+        assertThrows(IllegalArgumentException.class, () -> browseBO.browsePage(null, "كتب", null, 50));
+        assertThrows(IllegalArgumentException.class, () -> browseBO.browsePage(AnnotationType.ROOT, " ", null, 50));
+        assertThrows(IllegalArgumentException.class, () -> browseBO.browsePage(AnnotationType.ROOT, "كتب", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> browseBO.browsePage(AnnotationType.ROOT, "كتب", null, BrowseBO.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void testFindTerms() {
+        List<String> expected = Arrays.asList("كتب", "كتم");
+        when(browseDAOMock.findTerms(AnnotationType.ROOT, "كت", 20)).thenReturn(expected);
+
+        List<String> result = browseBO.findTerms(AnnotationType.ROOT, " كت ", 20);
+
+        assertEquals(expected, result);
+        verify(browseDAOMock, times(1)).findTerms(AnnotationType.ROOT, "كت", 20);
+    }
 }
@@ -7,10 +7,11 @@ import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
 import bl.IBLFacade;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
@@ -49,8 +50,18 @@ public class BrowseController implements Initializable {
     @FXML
     private TableColumn<BrowseResultDTO, String> bookTitleCol;
 
+    private static final int PAGE_SIZE = 200;
+    private static final int TYPE_AHEAD_LIMIT = 500;
+
     private ObservableList<String> allItems = FXCollections.observableArrayList();
-    private FilteredList<String> filteredItems;
+    private List<String> categoryItems = Collections.emptyList();
+    private final ObservableList<BrowseResultDTO> results = FXCollections.observableArrayList();
+
+    // Paging state of the selected item; nextCursor is null once all pages are loaded.
+    private AnnotationType currentType;
+    private String currentItem;
+    private String nextCursor;
+    private long totalEstimate = -1;
 
     public void setFacade(IBLFacade facade) {
         this.facade = facade;
@@ -65,6 +76,8 @@ public class BrowseController implements Initializable {
         poemTitleCol.setCellValueFactory(new PropertyValueFactory<>("poemTitle"));
         poetNameCol.setCellValueFactory(new PropertyValueFactory<>("poetName"));
         bookTitleCol.setCellValueFactory(new PropertyValueFactory<>("bookName"));
+        resultsTable.setItems(results);
+        TablePaging.onScrolledNearEnd(resultsTable, this::loadNextPage);
 
         // Initialize Category ComboBox
         categoryCombo.setItems(FXCollections.observableArrayList("Token", "Root", "Lemma", "Segment"));
@@ -74,18 +87,10 @@ public class BrowseController implements Initializable {
             }
         });
 
-        // Initialize Filtering for Item List
-        filteredItems = new FilteredList<>(allItems, p -> true);
-        itemList.setItems(filteredItems);
-
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredItems.setPredicate(item -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                return item.toLowerCase().contains(newValue.toLowerCase());
-            });
-        });
+        // Type-ahead: the list shows the terms starting with the search text
+        itemList.setItems(allItems);
+
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> filterItems(newValue));
 
         // Handle Item Selection
         itemList.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
@@ -115,15 +120,31 @@ public class BrowseController implements Initializable {
                     items = facade.getDistinctSegment();
                     break;
             }
-            allItems.setAll(items);
+            categoryItems = items;
+            filterItems(searchField.getText());
             statusLabel.setText("Loaded " + items.size() + " " + category.toLowerCase() + "s.");
-            resultsTable.getItems().clear(); // Clear previous results
+            results.clear(); // Clear previous results
+            nextCursor = null;
         } catch (Exception e) {
             statusLabel.setText("Error loading items: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    private void filterItems(String prefix) {
+        String category = categoryCombo.getSelectionModel().getSelectedItem();
+        if (prefix == null || prefix.trim().isEmpty() || category == null || facade == null) {
+            allItems.setAll(categoryItems);
+            return;
+        }
+        try {
+            allItems.setAll(facade.findTerms(annotationType(category), prefix, TYPE_AHEAD_LIMIT));
+        } catch (Exception e) {
+            statusLabel.setText("Error filtering items: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private void loadVersesForItem(String item) {
         if (facade == null)
             return;
@@ -132,27 +153,59 @@ public class BrowseController implements Initializable {
         if (category == null)
             return;
 
-        List<BrowseResultDTO> results = Collections.emptyList();
         try {
-            switch (category) {
-                case "Token":
-                    results = facade.browseByToken(item);
-                    break;
-                case "Root":
-                    results = facade.browseByRoot(item);
-                    break;
-                case "Lemma":
-                    results = facade.browseByLemma(item);
-                    break;
-                case "Segment":
-                    results = facade.browseBySegment(item);
-                    break;
-            }
-            resultsTable.setItems(FXCollections.observableArrayList(results));
-            statusLabel.setText("Found " + results.size() + " verses for '" + item + "'.");
+            currentType = annotationType(category);
+            currentItem = item;
+            results.clear();
+            PageDTO<BrowseResultDTO> page = facade.browsePage(currentType, item, null, PAGE_SIZE);
+            totalEstimate = page.getTotalEstimate();
+            addPage(page);
         } catch (Exception e) {
             statusLabel.setText("Error loading verses: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private void addPage(PageDTO<BrowseResultDTO> page) {
+        results.addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        if (nextCursor == null) {
+            statusLabel.setText("Found " + results.size() + " verses for '" + currentItem + "'.");
+        } else {
+            String total = totalEstimate >= 0 ? " of about " + totalEstimate : "";
+            statusLabel.setText("Showing " + results.size() + total + " verses for '" + currentItem
+                    + "' (scroll for more).");
+        }
+    }
+
+    /** Appends the next page for the selected item, if there is one. */
+    private void loadNextPage() {
+        if (facade == null || nextCursor == null) {
+            return;
+        }
+        String cursor = nextCursor;
+        nextCursor = null; // guards against re-entry while scrolling
+        try {
+            addPage(facade.browsePage(currentType, currentItem, cursor, PAGE_SIZE));
+        } catch (Exception e) {
+            nextCursor = cursor;
+            statusLabel.setText("Error loading more verses: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static AnnotationType annotationType(String category) {
+        switch (category) {
+            case "Token":
+                return AnnotationType.TOKEN;
+            case "Root":
+                return AnnotationType.ROOT;
+            case "Lemma":
+                return AnnotationType.LEMMA;
+            case "Segment":
+                return AnnotationType.SEGMENT;
+            default:
+                throw new IllegalArgumentException("Unknown category: " + category);
+        }
+    }
 }
\ No newline at end of file
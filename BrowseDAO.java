@@ -5,205 +5,239 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 public class BrowseDAO implements IBrowseDAO {
     private static final Logger logger = LogManager.getLogger(BrowseDAO.class);
 
+    /** Verse ids bound per metadata query, well below the driver's placeholder limit. */
+    private static final int METADATA_BATCH_SIZE = 1000;
+
+    private static final Comparator<BrowseResultDTO> BROWSE_ORDER = Comparator
+            .comparing(BrowseResultDTO::getBookName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(BrowseResultDTO::getPoemTitle, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(BrowseResultDTO::getVerseNo)
+            .thenComparingInt(BrowseResultDTO::getVerseId);
+
     private final IDatabaseConnection dbConnection;
+    private final Map<AnnotationType, TermDictionary> dictionaries = new ConcurrentHashMap<>();
+    private final PostingStore postings;
 
     public BrowseDAO() {
-        this.dbConnection = new DatabaseConnection();
+        this(new DatabaseConnection());
     }
 
     public BrowseDAO(IDatabaseConnection dbConnection) {
         this.dbConnection = dbConnection;
+        this.postings = new PostingStore(dbConnection);
     }
 
     @Override
     public List<BrowseResultDTO> browseByLemma(String lemma) {
-        List<BrowseResultDTO> results = new ArrayList<>();
-        String sql = "SELECT DISTINCT v.verse_id, v.txt, v.verse_no, p.title as poem_title, " +
-                "poet.poet_name, b.title as book_name " +
-                "FROM verse v " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "JOIN poet poet ON p.poet_id = poet.poet_id " +
-                "JOIN book b ON p.book_id = b.book_id " +
-                "JOIN lemma l ON v.verse_id = l.verse_id " +
-                "WHERE l.lemma = ? " +
-                "ORDER BY b.title, p.title, v.verse_no";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, lemma);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                results.add(mapResultSetToBrowseResult(rs));
-            }
-        } catch (SQLException e) {
-            logger.error("Error browsing by lemma: {}", e.getMessage(), e);
-        }
-        return results;
+        return browse(AnnotationType.LEMMA, lemma);
     }
 
     @Override
     public List<BrowseResultDTO> browseByRoot(String root) {
-        List<BrowseResultDTO> results = new ArrayList<>();
-        String sql = "SELECT DISTINCT v.verse_id, v.txt, v.verse_no, p.title as poem_title, " +
-                "poet.poet_name, b.title as book_name " +
-                "FROM verse v " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "JOIN poet poet ON p.poet_id = poet.poet_id " +
-                "JOIN book b ON p.book_id = b.book_id " +
-                "JOIN root r ON v.verse_id = r.verse_id " +
-                "WHERE r.root = ? " +
-                "ORDER BY b.title, p.title, v.verse_no";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, root);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                results.add(mapResultSetToBrowseResult(rs));
-            }
-        } catch (SQLException e) {
-            logger.error("Error browsing by root: {}", e.getMessage(), e);
-        }
-        return results;
+        return browse(AnnotationType.ROOT, root);
     }
 
     @Override
     public List<BrowseResultDTO> browseBySegment(String segment) {
-        List<BrowseResultDTO> results = new ArrayList<>();
-        String sql = "SELECT DISTINCT v.verse_id, v.txt, v.verse_no, p.title as poem_title, " +
-                "poet.poet_name, b.title as book_name " +
-                "FROM verse v " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "JOIN poet poet ON p.poet_id = poet.poet_id " +
-                "JOIN book b ON p.book_id = b.book_id " +
-                "JOIN segment s ON v.verse_id = s.verse_id " +
-                "WHERE s.stem = ? OR s.prefix = ? OR s.suffix = ? " +
-                "ORDER BY b.title, p.title, v.verse_no";
+        return browse(AnnotationType.SEGMENT, segment);
+    }
 
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, segment);
-            ps.setString(2, segment);
-            ps.setString(3, segment);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                results.add(mapResultSetToBrowseResult(rs));
+    @Override
+    public List<BrowseResultDTO> browseByToken(String token) {
+        return browse(AnnotationType.TOKEN, token);
+    }
+
+    /**
+     * Verses annotated with {@code value}, ordered by book, poem and verse
+     * number. The verse ids come from the posting lists; their metadata is
+     * then read with {@code verse_id IN (...)} batches instead of a
+     * {@code SELECT DISTINCT} over the annotation join, and sorted here once,
+     * so the order does not depend on the number of batches or the collation.
+     */
+    private List<BrowseResultDTO> browse(AnnotationType type, String value) {
+        List<BrowseResultDTO> results = new ArrayList<>();
+        try {
+            int[] verseIds = postings.verseIds(type, value);
+            if (verseIds.length == 0) {
+                return results;
             }
+            try (Connection con = dbConnection.getConnection()) {
+                for (int from = 0; from < verseIds.length; from += METADATA_BATCH_SIZE) {
+                    int to = Math.min(from + METADATA_BATCH_SIZE, verseIds.length);
+                    readVerses(con, verseIds, from, to, results);
+                }
+            }
+            results.sort(BROWSE_ORDER);
         } catch (SQLException e) {
-            logger.error("Error browsing by segment: {}", e.getMessage(), e);
+            logger.error("Error browsing by {}: {}", type.getTableName(), e.getMessage(), e);
+            results.clear();
         }
         return results;
     }
 
-    @Override
-    public List<BrowseResultDTO> browseByToken(String token) {
-        List<BrowseResultDTO> results = new ArrayList<>();
-        String sql = "SELECT DISTINCT v.verse_id, v.txt, v.verse_no, p.title as poem_title, " +
+    private void readVerses(Connection con, int[] verseIds, int from, int to, List<BrowseResultDTO> results)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT v.verse_id, v.txt, v.verse_no, p.title as poem_title, " +
                 "poet.poet_name, b.title as book_name " +
                 "FROM verse v " +
                 "JOIN poem p ON v.poem_id = p.poem_id " +
                 "JOIN poet poet ON p.poet_id = poet.poet_id " +
                 "JOIN book b ON p.book_id = b.book_id " +
-                "JOIN token t ON v.verse_id = t.verse_id " +
-                "WHERE t.word = ? " +
-                "ORDER BY b.title, p.title, v.verse_no";
+                "WHERE v.verse_id IN (");
+        for (int i = from; i < to; i++) {
+            sql.append(i == from ? "?" : ", ?");
+        }
+        sql.append(")");
 
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, token);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                results.add(mapResultSetToBrowseResult(rs));
+        try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+            for (int i = from; i < to; i++) {
+                ps.setInt(i - from + 1, verseIds[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapResultSetToBrowseResult(rs));
+                }
             }
-        } catch (SQLException e) {
-            logger.error("Error browsing by token: {}", e.getMessage(), e);
         }
-        return results;
     }
 
     @Override
     public List<String> getDistinctLemma() {
-        List<String> lemmas = new ArrayList<>();
-        String sql = "SELECT DISTINCT lemma FROM lemma WHERE lemma IS NOT NULL AND lemma != '' ORDER BY lemma";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql);
-                ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                lemmas.add(rs.getString("lemma"));
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting lemmas: {}", e.getMessage(), e);
-        }
-        return lemmas;
+        return getDictionary(AnnotationType.LEMMA).all();
     }
 
     @Override
     public List<String> getDistinctRoot() {
-        List<String> roots = new ArrayList<>();
-        String sql = "SELECT DISTINCT root FROM root WHERE root IS NOT NULL AND root != '' ORDER BY root";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql);
-                ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                roots.add(rs.getString("root"));
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting roots: {}", e.getMessage(), e);
-        }
-        return roots;
+        return getDictionary(AnnotationType.ROOT).all();
     }
 
     @Override
     public List<String> getDistinctSegment() {
-        List<String> segments = new ArrayList<>();
-        String sql = "SELECT DISTINCT stem FROM segment WHERE stem IS NOT NULL AND stem != '' " +
-                "UNION " +
-                "SELECT DISTINCT prefix FROM segment WHERE prefix IS NOT NULL AND prefix != '' " +
-                "UNION " +
-                "SELECT DISTINCT suffix FROM segment WHERE suffix IS NOT NULL AND suffix != '' " +
-                "ORDER BY stem";
+        return getDictionary(AnnotationType.SEGMENT).all();
+    }
+
+    @Override
+    public List<String> getDistinctToken() {
+        return getDictionary(AnnotationType.TOKEN).all();
+    }
+
+    @Override
+    public List<String> findTerms(AnnotationType type, String prefix, int limit) {
+        return getDictionary(type).withPrefix(prefix, limit);
+    }
 
+    /**
+     * The cached dictionary of a term type, rebuilt once annotations have
+     * changed. If the terms cannot be read an empty dictionary is returned and
+     * nothing is cached.
+     */
+    private TermDictionary getDictionary(AnnotationType type) {
+        TermDictionary dictionary = dictionaries.get(type);
+        if (dictionary != null && !dictionary.isStale()) {
+            return dictionary;
+        }
+        long version = FrequencyStore.getShared().changeCount();
+        List<String> terms = new ArrayList<>();
         try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql);
+                PreparedStatement ps = con.prepareStatement(distinctSql(type));
                 ResultSet rs = ps.executeQuery()) {
+            String column = distinctColumn(type);
             while (rs.next()) {
-                String segment = rs.getString("stem");
-                if (segment != null && !segment.trim().isEmpty()) {
-                    segments.add(segment);
-                }
+                terms.add(rs.getString(column));
             }
         } catch (SQLException e) {
-            logger.error("Error getting segments: {}", e.getMessage(), e);
+            logger.error("Error getting {} terms: {}", type.getTableName(), e.getMessage(), e);
+            return new TermDictionary(terms, -1);
         }
-        return segments;
+        dictionary = new TermDictionary(terms, version);
+        dictionaries.put(type, dictionary);
+        return dictionary;
     }
 
-    @Override
-    public List<String> getDistinctToken() {
-        List<String> tokens = new ArrayList<>();
-        String sql = "SELECT DISTINCT word FROM token WHERE word IS NOT NULL AND word != '' ORDER BY word";
+    private static String distinctSql(AnnotationType type) {
+        switch (type) {
+            case TOKEN:
+                return "SELECT DISTINCT word FROM token WHERE word IS NOT NULL AND word != ''";
+            case LEMMA:
+                return "SELECT DISTINCT lemma FROM lemma WHERE lemma IS NOT NULL AND lemma != ''";
+            case ROOT:
+                return "SELECT DISTINCT root FROM root WHERE root IS NOT NULL AND root != ''";
+            case SEGMENT:
+                // Stems, prefixes and suffixes share one list, read under the first column's name.
+                return "SELECT DISTINCT stem FROM segment WHERE stem IS NOT NULL AND stem != '' " +
+                        "UNION " +
+                        "SELECT DISTINCT prefix FROM segment WHERE prefix IS NOT NULL AND prefix != '' " +
+                        "UNION " +
+                        "SELECT DISTINCT suffix FROM segment WHERE suffix IS NOT NULL AND suffix != ''";
+            default:
+                throw new IllegalArgumentException("Unsupported annotation type: " + type);
+        }
+    }
 
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql);
-                ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                tokens.add(rs.getString("word"));
+    private static String distinctColumn(AnnotationType type) {
+        switch (type) {
+            case TOKEN:
+                return "word";
+            case SEGMENT:
+                return "stem";
+            default:
+                return type.getTableName();
+        }
+    }
+
+    /**
+     * One page of the verses annotated with {@code value}, in verse id order.
+     * The page's ids are sliced from the posting list after the cursor's id,
+     * so each page costs one batched metadata query however deep it is, and
+     * the first page's total is the length of the list.
+     */
+    @Override
+    public PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int after = PageCursor.decodeInt(cursor);
+
+        List<BrowseResultDTO> items = new ArrayList<>();
+        try {
+            int[] verseIds = postings.verseIds(type, value);
+            int from = firstAfter(verseIds, after);
+            int to = Math.min(verseIds.length, from + pageSize);
+            if (from < to) {
+                try (Connection con = dbConnection.getConnection()) {
+                    for (int batch = from; batch < to; batch += METADATA_BATCH_SIZE) {
+                        readVerses(con, verseIds, batch, Math.min(batch + METADATA_BATCH_SIZE, to), items);
+                    }
+                }
+                items.sort(Comparator.comparingInt(BrowseResultDTO::getVerseId));
             }
+            String next = to < verseIds.length ? PageCursor.encode(verseIds[to - 1]) : null;
+            return new PageDTO<>(items, next, cursor == null ? verseIds.length : -1);
         } catch (SQLException e) {
-            logger.error("Error getting tokens: {}", e.getMessage(), e);
+            logger.error("Error browsing {} page: {}", type.getTableName(), e.getMessage(), e);
+            return new PageDTO<>(new ArrayList<>(), null, -1);
         }
-        return tokens;
+    }
+
+    /** Index of the first id above {@code after} in an ascending id array. */
+    private static int firstAfter(int[] verseIds, int after) {
+        int index = Arrays.binarySearch(verseIds, after);
+        return index >= 0 ? index + 1 : -index - 1;
     }
 
     private BrowseResultDTO mapResultSetToBrowseResult(ResultSet rs) throws SQLException {
@@ -1,8 +1,11 @@
 package dal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,6 +14,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,7 +23,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 @ExtendWith(MockitoExtension.class)
 public class BrowseDAOTest {
@@ -45,8 +51,15 @@ public class BrowseDAOTest {
 
     @Test
     public void testBrowseByLemma() throws SQLException {
+        PreparedStatement scanMock = org.mockito.Mockito.mock(PreparedStatement.class);
+        ResultSet scanResultMock = org.mockito.Mockito.mock(ResultSet.class);
         when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
-        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(connectionMock.prepareStatement(contains("FROM lemma"))).thenReturn(scanMock);
+        when(scanMock.executeQuery()).thenReturn(scanResultMock);
+        when(scanResultMock.next()).thenReturn(true, true, true, false);
+        when(scanResultMock.getString("term")).thenReturn("testLemma", "testLemma", "otherLemma");
+        when(scanResultMock.getInt("verse_id")).thenReturn(4, 1, 2);
+        when(connectionMock.prepareStatement(contains("v.verse_id IN (?, ?)"))).thenReturn(preparedStatementMock);
         when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
 
         // Mock result set
@@ -65,10 +78,56 @@ public class BrowseDAOTest {
         assertEquals("Verse Text", results.get(0).getText());
 
         // Optional: verify correct method calls
+        verify(preparedStatementMock).setInt(1, 1);
+        verify(preparedStatementMock).setInt(2, 4);
         verify(preparedStatementMock).executeQuery();
         verify(resultSetMock, times(2)).next();
     }
 
+    @Test
+    public void testBrowseReusesPostingsAndSkipsUnknownTerms() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("FROM token"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, false);
+        when(resultSetMock.getString("term")).thenReturn("قمر");
+        when(resultSetMock.getInt("verse_id")).thenReturn(3);
+
+        assertTrue(browseDAO.browseByToken("شمس").isEmpty());
+        assertTrue(browseDAO.browseByToken("نجم").isEmpty());
+
+        verify(preparedStatementMock, times(1)).executeQuery();
+        verify(connectionMock, times(1)).prepareStatement(anyString());
+    }
+
+    @Test
+    public void testBrowseSortsSingleBatchInJava() throws SQLException {
+        PreparedStatement scanMock = org.mockito.Mockito.mock(PreparedStatement.class);
+        ResultSet scanResultMock = org.mockito.Mockito.mock(ResultSet.class);
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("FROM root"))).thenReturn(scanMock);
+        when(scanMock.executeQuery()).thenReturn(scanResultMock);
+        when(scanResultMock.next()).thenReturn(true, true, false);
+        when(scanResultMock.getString("term")).thenReturn("كتب");
+        when(scanResultMock.getInt("verse_id")).thenReturn(1, 2);
+        when(connectionMock.prepareStatement(contains("v.verse_id IN (?, ?)"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        // The database hands the rows back in its own order.
+        when(resultSetMock.next()).thenReturn(true, true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(1, 2);
+        when(resultSetMock.getString("txt")).thenReturn("Verse Text");
+        when(resultSetMock.getString("poet_name")).thenReturn("Poet");
+        when(resultSetMock.getString("book_name")).thenReturn("ديوان", "أغاني");
+        when(resultSetMock.getString("poem_title")).thenReturn("Poem");
+        when(resultSetMock.getInt("verse_no")).thenReturn(1);
+
+        List<BrowseResultDTO> results = browseDAO.browseByRoot("كتب");
+
+        assertEquals(2, results.size());
+        assertEquals("أغاني", results.get(0).getBookName());
+        assertEquals("ديوان", results.get(1).getBookName());
+    }
+
     @Test
     public void testGetDistinctLemma() throws SQLException {
         when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
@@ -88,4 +147,85 @@ public class BrowseDAOTest {
         verify(preparedStatementMock).executeQuery();
         verify(resultSetMock, times(2)).next();
     }
+
+    @Test
+    public void testFindTermsServedFromCachedDictionary() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, true, false);
+        when(resultSetMock.getString("root")).thenReturn("كتب", "قلم", "كتم");
+
+        assertEquals(Arrays.asList("كتب", "كتم"), browseDAO.findTerms(AnnotationType.ROOT, "كت", 10));
+        assertEquals(Arrays.asList("قلم", "كتب", "كتم"), browseDAO.getDistinctRoot());
+
+        verify(preparedStatementMock, times(1)).executeQuery();
+    }
+
+    private void stubRootPostings(Integer... verseIds) throws SQLException {
+        PreparedStatement scanMock = org.mockito.Mockito.mock(PreparedStatement.class);
+        ResultSet scanResultMock = org.mockito.Mockito.mock(ResultSet.class);
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("FROM root"))).thenReturn(scanMock);
+        when(scanMock.executeQuery()).thenReturn(scanResultMock);
+        // One row per id, then the end.
+        Boolean[] rest = new Boolean[verseIds.length];
+        Arrays.fill(rest, true);
+        rest[verseIds.length - 1] = false;
+        when(scanResultMock.next()).thenReturn(true, rest);
+        when(scanResultMock.getString("term")).thenReturn("كتب");
+        when(scanResultMock.getInt("verse_id")).thenReturn(verseIds[0], Arrays.copyOfRange(verseIds, 1, verseIds.length));
+    }
+
+    @Test
+    public void testBrowsePageSlicesPostingsWithOneMetadataQuery() throws SQLException {
+        stubRootPostings(3, 5, 8, 13, 21);
+        when(connectionMock.prepareStatement(contains("v.verse_id IN (?, ?)"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(5, 3);
+        when(resultSetMock.getInt("verse_no")).thenReturn(2, 1);
+        when(resultSetMock.getString("txt")).thenReturn("Verse Text");
+        when(resultSetMock.getString("poem_title")).thenReturn("Poem");
+        when(resultSetMock.getString("poet_name")).thenReturn("Poet");
+        when(resultSetMock.getString("book_name")).thenReturn("Book");
+
+        PageDTO<BrowseResultDTO> page = browseDAO.browsePage(AnnotationType.ROOT, "كتب", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(3, page.getItems().get(0).getVerseId());
+        assertEquals(5, page.getItems().get(1).getVerseId());
+        assertEquals(5L, page.getTotalEstimate());
+        assertEquals(5, PageCursor.decodeInt(page.getNextCursor()));
+        verify(preparedStatementMock).setInt(1, 3);
+        verify(preparedStatementMock).setInt(2, 5);
+    }
+
+    @Test
+    public void testBrowsePageContinuesAfterCursor() throws SQLException {
+        stubRootPostings(3, 5, 8, 13, 21);
+        when(connectionMock.prepareStatement(contains("v.verse_id IN (?, ?)"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(false);
+
+        PageDTO<BrowseResultDTO> page = browseDAO.browsePage(AnnotationType.ROOT, "كتب", PageCursor.encode(8), 3);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasNext());
+        assertEquals(-1, page.getTotalEstimate());
+        verify(preparedStatementMock).setInt(1, 13);
+        verify(preparedStatementMock).setInt(2, 21);
+    }
+
+    @Test
+    public void testBrowsePageOfUnknownTermQueriesNoMetadata() throws SQLException {
+        stubRootPostings(3);
+
+        PageDTO<BrowseResultDTO> page = browseDAO.browsePage(AnnotationType.ROOT, "قرأ", null, 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.hasNext());
+        assertEquals(0, page.getTotalEstimate());
+        verify(connectionMock, times(1)).prepareStatement(anyString());
+    }
 }
@@ -0,0 +1,393 @@
+package dal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Callers keep using the usual try-with-resources pattern: closing a borrowed
+ * connection hands the physical connection back to the pool instead of tearing
+ * it down. Idle connections are validated before they are handed out, evicted
+ * after {@code idleTimeoutMillis}, and connections held longer than
+ * {@code leakDetectionThresholdMillis} are reported with the stack trace of the
+ * borrower.
+ */
+public class ConnectionPool implements IDatabaseConnection, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final int DEFAULT_MIN_IDLE = 2;
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 30_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600_000;
+    private static final long DEFAULT_LEAK_THRESHOLD_MILLIS = 60_000;
+    private static final long DEFAULT_VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Opens a new physical connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionThresholdMillis;
+    private final long validationBypassMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory) {
+        this(factory, DEFAULT_MAX_SIZE, DEFAULT_MIN_IDLE, DEFAULT_MAX_WAIT_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS,
+                DEFAULT_LEAK_THRESHOLD_MILLIS, DEFAULT_VALIDATION_BYPASS_MILLIS);
+    }
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle, long maxWaitMillis,
+            long idleTimeoutMillis, long leakDetectionThresholdMillis, long validationBypassMillis) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Connection factory cannot be null");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.validationBypassMillis = validationBypassMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(30_000, idleTimeoutMillis / 2));
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping, period, period, TimeUnit.MILLISECONDS);
+
+        logger.info("Connection pool started (maxSize={}, minIdle={}, maxWait={} ms, idleTimeout={} ms, "
+                + "leakThreshold={} ms)", maxSize, this.minIdle, maxWaitMillis, idleTimeoutMillis,
+                leakDetectionThresholdMillis);
+    }
+
+    /**
+     * Returns the process-wide pool used by {@link DatabaseConnection}.
+     */
+    public static ConnectionPool getShared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    private static final class SharedHolder {
+        private static final ConnectionPool INSTANCE = createShared();
+
+        private static ConnectionPool createShared() {
+            DatabaseSettings s = DatabaseConfigure.getSettings();
+            ConnectionPool pool = new ConnectionPool(DatabaseConfigure::getConnection, s.getPoolMaxSize(),
+                    s.getPoolMinIdle(), s.getPoolMaxWaitMillis(), s.getPoolIdleTimeoutMillis(),
+                    s.getPoolLeakThresholdMillis(), s.getPoolValidationBypassMillis());
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "connection-pool-shutdown"));
+            return pool;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for a database connection ("
+                        + inUse.size() + " of " + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(factory.create());
+                created.incrementAndGet();
+                logger.debug("Opened new physical connection ({} total)", totalConnections());
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = leakDetectionThresholdMillis > 0 ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            inUse.add(pooled);
+            borrowed.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < validationBypassMillis) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            logger.debug("Connection validation failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!inUse.remove(pooled)) {
+            return;
+        }
+        try {
+            boolean healthy = resetState(pooled.physical);
+            if (healthy && !closed) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Discarding connection that could not be reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing physical connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts connections idle for longer than the idle timeout (keeping
+     * {@code minIdle} around) and reports connections that look leaked.
+     */
+    void runHousekeeping() {
+        long now = System.currentTimeMillis();
+
+        if (idleTimeoutMillis > 0) {
+            for (PooledConnection pooled : idle) {
+                if (idle.size() <= minIdle) {
+                    break;
+                }
+                if (now - pooled.lastReturnedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                    destroy(pooled);
+                    logger.debug("Evicted idle connection ({} idle left)", idle.size());
+                }
+            }
+        }
+
+        if (leakDetectionThresholdMillis > 0) {
+            for (PooledConnection pooled : inUse) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMillis) {
+                    pooled.leakReported = true;
+                    leaks.incrementAndGet();
+                    logger.warn("Possible connection leak: connection held for {} ms", now - pooled.borrowedAt,
+                            pooled.borrowSite);
+                }
+            }
+        }
+    }
+
+    private int totalConnections() {
+        return idle.size() + inUse.size();
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(totalConnections(), inUse.size(), idle.size(), permits.getQueueLength(), created.get(),
+                destroyed.get(), borrowed.get(), timeouts.get(), leaks.get(), validationFailures.get());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        logger.info("Connection pool closed: {}", getStats());
+    }
+
+    /**
+     * One physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Handle(this));
+        }
+    }
+
+    /**
+     * Logical connection given to callers. Each borrow gets its own handle so a
+     * stale reference cannot touch a connection after it went back to the pool.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool statistics.
+     */
+    public static class PoolStats {
+        private final int total;
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final long created;
+        private final long destroyed;
+        private final long borrowed;
+        private final long timeouts;
+        private final long leaks;
+        private final long validationFailures;
+
+        public PoolStats(int total, int active, int idle, int waiting, long created, long destroyed, long borrowed,
+                long timeouts, long leaks, long validationFailures) {
+            this.total = total;
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrowed = borrowed;
+            this.timeouts = timeouts;
+            this.leaks = leaks;
+            this.validationFailures = validationFailures;
+        }
+
+        public int getTotal() { return total; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiting() { return waiting; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getBorrowed() { return borrowed; }
+        public long getTimeouts() { return timeouts; }
+        public long getLeaks() { return leaks; }
+        public long getValidationFailures() { return validationFailures; }
+
+        @Override
+        public String toString() {
+            return "PoolStats{total=" + total + ", active=" + active + ", idle=" + idle + ", waiting=" + waiting
+                    + ", created=" + created + ", destroyed=" + destroyed + ", borrowed=" + borrowed
+                    + ", timeouts=" + timeouts + ", leaks=" + leaks + ", validationFailures=" + validationFailures
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionPoolTest {
+
+    @Mock
+    private Connection firstPhysical;
+
+    @Mock
+    private Connection secondPhysical;
+
+    private final Deque<Connection> physicalConnections = new ArrayDeque<>();
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        physicalConnections.add(firstPhysical);
+        physicalConnections.add(secondPhysical);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool newPool(int maxSize, long maxWait, long idleTimeout, long leakThreshold, long bypass) {
+        return new ConnectionPool(physicalConnections::poll, maxSize, 0, maxWait, idleTimeout, leakThreshold, bypass);
+    }
+
+    @Test
+    public void testConnectionIsReusedAfterClose() throws SQLException {
+        when(firstPhysical.getAutoCommit()).thenReturn(true);
+        pool = newPool(2, 100, 60_000, 0, 60_000);
+
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals(1, pool.getStats().getCreated());
+        assertEquals(2, pool.getStats().getBorrowed());
+        assertEquals(1, pool.getStats().getIdle());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolExhausted() throws SQLException {
+        pool = newPool(1, 50, 60_000, 0, 60_000);
+
+        Connection held = pool.getConnection();
+
+        assertThrows(SQLException.class, () -> pool.getConnection());
+        assertEquals(1, pool.getStats().getTimeouts());
+        assertEquals(1, pool.getStats().getActive());
+        held.close();
+    }
+
+    @Test
+    public void testInvalidIdleConnectionIsReplaced() throws SQLException {
+        when(firstPhysical.getAutoCommit()).thenReturn(true);
+        when(firstPhysical.isValid(anyInt())).thenReturn(false);
+        pool = newPool(2, 100, 60_000, 0, 0);
+
+        pool.getConnection().close();
+        pool.getConnection().close();
+
+        verify(firstPhysical).close();
+        assertEquals(2, pool.getStats().getCreated());
+        assertEquals(1, pool.getStats().getValidationFailures());
+    }
+
+    @Test
+    public void testReturnedConnectionIsRolledBackAndResetToAutoCommit() throws SQLException {
+        when(firstPhysical.getAutoCommit()).thenReturn(false);
+        pool = newPool(1, 100, 60_000, 0, 60_000);
+
+        Connection con = pool.getConnection();
+        con.setAutoCommit(false);
+        con.close();
+
+        verify(firstPhysical).rollback();
+        verify(firstPhysical).setAutoCommit(true);
+    }
+
+    @Test
+    public void testClosedHandleRejectsFurtherUse() throws SQLException {
+        when(firstPhysical.getAutoCommit()).thenReturn(true);
+        pool = newPool(1, 100, 60_000, 0, 60_000);
+
+        Connection con = pool.getConnection();
+        con.close();
+
+        assertTrue(con.isClosed());
+        assertThrows(SQLException.class, () -> con.prepareStatement("SELECT 1"));
+    }
+
+    @Test
+    public void testLeakIsReportedByHousekeeping() throws Exception {
+        pool = newPool(1, 100, 60_000, 1, 60_000);
+
+        Connection held = pool.getConnection();
+        Thread.sleep(10);
+        pool.runHousekeeping();
+        pool.runHousekeeping();
+
+        assertEquals(1, pool.getStats().getLeaks());
+        held.close();
+    }
+
+    @Test
+    public void testIdleConnectionIsEvicted() throws Exception {
+        when(firstPhysical.getAutoCommit()).thenReturn(true);
+        pool = newPool(1, 100, 1, 0, 60_000);
+
+        pool.getConnection().close();
+        Thread.sleep(10);
+        pool.runHousekeeping();
+
+        verify(firstPhysical).close();
+        assertEquals(0, pool.getStats().getIdle());
+        assertEquals(1, pool.getStats().getDestroyed());
+    }
+}
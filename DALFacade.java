@@ -1,14 +1,22 @@
 package dal;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import dto.AnnotationType;
 import dto.BookDTO;
 import dto.BrowseResultDTO;
+import dto.ImportResultDTO;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 import dto.LemmaDTO;
+import dto.PageDTO;
+import dto.ParsedPoemDTO;
 import dto.PoemDTO;
 import dto.PoetDTO;
 import dto.RootDTO;
@@ -177,11 +185,40 @@ public class DALFacade implements IDALFacade {
 		importer.savePoem(poem, verseTexts, book);
 	}
 
+	@Override
+	public ImportResultDTO importBookBulk(BookDTO book, Iterable<ParsedPoemDTO> poems) {
+		if (importer == null) {
+			logger.error("IImportBookDAO (importer) not initialized in DALFacade");
+			throw new IllegalStateException("IImportBookDAO (importer) not initialized in DALFacade");
+		}
+		return importer.importBookBulk(book, poems);
+	}
+
 	@Override
 	public List<VerseDTO> getAllVerses() {
 		return verses.getAllVerses();
 	}
 
+	@Override
+	public int streamVerses(int chunkSize, Consumer<List<VerseDTO>> consumer) {
+		return verses.streamVerses(chunkSize, consumer);
+	}
+
+	@Override
+	public int streamUnprocessedVerses(Set<AnnotationType> types, int chunkSize, Consumer<List<VerseDTO>> consumer) {
+		return verses.streamUnprocessedVerses(types, chunkSize, consumer);
+	}
+
+	@Override
+	public List<VerseDTO> getVersesByIds(Collection<Integer> verseIds) {
+		return verses.getVersesByIds(verseIds);
+	}
+
+	@Override
+	public Set<Integer> findAnnotatedVerseIds(AnnotationType type, Collection<Integer> verseIds) {
+		return verses.findAnnotatedVerseIds(type, verseIds);
+	}
+
 	// --- Browse methods ---
 	@Override
 	public List<BrowseResultDTO> browseByLemma(String lemma) {
@@ -223,6 +260,16 @@ public class DALFacade implements IDALFacade {
 		return browseDAO.getDistinctToken();
 	}
 
+	@Override
+	public List<String> findTerms(AnnotationType type, String prefix, int limit) {
+		return browseDAO.findTerms(type, prefix, limit);
+	}
+
+	@Override
+	public PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize) {
+		return browseDAO.browsePage(type, value, cursor, pageSize);
+	}
+
 	/*-----------------------------------------------------------------------------------------*/
 	/***
 	 * @author shahn
@@ -237,6 +284,16 @@ public class DALFacade implements IDALFacade {
 		return verses.searchRegexPattern(pattern);
 	}
 
+	@Override
+	public PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize) {
+		return verses.searchExactStringPage(text, cursor, pageSize);
+	}
+
+	@Override
+	public PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize) {
+		return verses.searchRegexPatternPage(pattern, cursor, pageSize);
+	}
+
 	@Override
 	public void createToken(TokenDTO token) {
 		tokens.createToken(token);
@@ -244,8 +301,8 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public void createTokenBatch(List<TokenDTO> tokens) {
-		this.tokens.createTokenBatch(tokens);
+	public int createTokenBatch(List<TokenDTO> tokens) {
+		return this.tokens.createTokenBatch(tokens);
 	}
 
 	@Override
@@ -299,8 +356,8 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public void createSegmentBatch(List<SegmentDTO> segments) {
-		this.segments.createSegmentBatch(segments);
+	public int createSegmentBatch(List<SegmentDTO> segments) {
+		return this.segments.createSegmentBatch(segments);
 	}
 
 	@Override
@@ -354,8 +411,8 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public void createLemmaBatch(List<LemmaDTO> lemmas) {
-		this.lemmas.createLemmaBatch(lemmas);
+	public int createLemmaBatch(List<LemmaDTO> lemmas) {
+		return this.lemmas.createLemmaBatch(lemmas);
 	}
 
 	@Override
@@ -409,8 +466,8 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public void createRootBatch(List<RootDTO> roots) {
-		this.roots.createRootBatch(roots);
+	public int createRootBatch(List<RootDTO> roots) {
+		return this.roots.createRootBatch(roots);
 	}
 
 	@Override
@@ -479,17 +536,17 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public List<String> getBookTokens(int bookId) {
+	public List<IndexEntryDTO> getBookTokens(int bookId) {
 		return indexer.getBookTokens(bookId);
 	}
 
 	@Override
-	public List<String> getBookLemmas(int bookId) {
+	public List<IndexEntryDTO> getBookLemmas(int bookId) {
 		return indexer.getBookLemmas(bookId);
 	}
 
 	@Override
-	public List<String> getBookRoots(int bookId) {
+	public List<IndexEntryDTO> getBookRoots(int bookId) {
 		return indexer.getBookRoots(bookId);
 	}
 
@@ -509,12 +566,12 @@ public class DALFacade implements IDALFacade {
 	}
 
 	@Override
-	public List<String> getLemmasByRoot(int bookId, String root) {
+	public List<IndexEntryDTO> getLemmasByRoot(int bookId, String root) {
 		return indexer.getLemmasByRoot(bookId, root);
 	}
 
 	@Override
-	public List<String> getTokensByLemma(int bookId, String lemma) {
+	public List<IndexEntryDTO> getTokensByLemma(int bookId, String lemma) {
 		return indexer.getTokensByLemma(bookId, lemma);
 	}
 }
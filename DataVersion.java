@@ -0,0 +1,25 @@
+package dal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide counter that DAOs bump whenever verses are added, changed or
+ * removed (directly or through a cascading delete). In-memory structures
+ * derived from the verse table remember the version they were built at and
+ * rebuild when it moves on.
+ */
+public final class DataVersion {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /** Moves to the next version and returns it. */
+    public static long bump() {
+        return VERSION.incrementAndGet();
+    }
+}
@@ -5,20 +5,32 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 public class DatabaseConfigure {
-    private static final String URL = "jdbc:mysql://localhost:3306/testdatabase";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
-    
+    private static final Logger logger = LogManager.getLogger(DatabaseConfigure.class);
+
+    private static final DatabaseSettings SETTINGS = DatabaseSettings.load();
+
     static {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(SETTINGS.getDriver());
         } catch (ClassNotFoundException e) {
-            throw new RuntimeException("MySQL JDBC Driver not found", e);
+            throw new RuntimeException("JDBC Driver not found: " + SETTINGS.getDriver(), e);
         }
+        logger.info("Database configuration: {}", SETTINGS.summary());
     }
-    
+
+    public static DatabaseSettings getSettings() {
+        return SETTINGS;
+    }
+
+    /**
+     * Opens a new physical connection. Application code should go through
+     * {@link DatabaseConnection}, which hands out pooled connections.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return DriverManager.getConnection(SETTINGS.getUrl(), SETTINGS.toDriverProperties());
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,6 @@ import java.sql.SQLException;
 public class DatabaseConnection implements IDatabaseConnection {
     @Override
     public Connection getConnection() throws SQLException {
-        return DatabaseConfigure.getConnection();
+        return ConnectionPool.getShared().getConnection();
     }
 }
@@ -0,0 +1,196 @@
+package dal;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Database and connection-pool configuration.
+ *
+ * Values are resolved in this order, later sources winning:
+ * <ol>
+ * <li>built-in defaults</li>
+ * <li>{@code database.properties} on the classpath</li>
+ * <li>the file named by the {@code db.config} system property or the
+ * {@code DB_CONFIG} environment variable</li>
+ * <li>environment variables for any key known at this point
+ * ({@code db.pool.maxSize} becomes {@code DB_POOL_MAXSIZE})</li>
+ * <li>JVM system properties ({@code -Ddb.url=...})</li>
+ * </ol>
+ * Every {@code db.jdbc.*} entry is passed to the driver as a connection
+ * property, which is how Connector/J statement caching and batch rewriting
+ * are switched on.
+ */
+public class DatabaseSettings {
+    private static final Logger logger = LogManager.getLogger(DatabaseSettings.class);
+
+    public static final String RESOURCE_NAME = "database.properties";
+    private static final String CONFIG_PATH_KEY = "db.config";
+    private static final String JDBC_PREFIX = "db.jdbc.";
+
+    private final String driver;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int poolMaxSize;
+    private final int poolMinIdle;
+    private final long poolMaxWaitMillis;
+    private final long poolIdleTimeoutMillis;
+    private final long poolLeakThresholdMillis;
+    private final long poolValidationBypassMillis;
+    private final Properties jdbcProperties;
+
+    private DatabaseSettings(Properties values) {
+        this.driver = values.getProperty("db.driver");
+        this.url = values.getProperty("db.url");
+        this.user = values.getProperty("db.user");
+        this.password = values.getProperty("db.password", "");
+        this.poolMaxSize = (int) parseLong(values, "db.pool.maxSize");
+        this.poolMinIdle = (int) parseLong(values, "db.pool.minIdle");
+        this.poolMaxWaitMillis = parseLong(values, "db.pool.maxWaitMillis");
+        this.poolIdleTimeoutMillis = parseLong(values, "db.pool.idleTimeoutMillis");
+        this.poolLeakThresholdMillis = parseLong(values, "db.pool.leakDetectionThresholdMillis");
+        this.poolValidationBypassMillis = parseLong(values, "db.pool.validationBypassMillis");
+
+        this.jdbcProperties = new Properties();
+        for (String key : values.stringPropertyNames()) {
+            if (key.startsWith(JDBC_PREFIX)) {
+                jdbcProperties.setProperty(key.substring(JDBC_PREFIX.length()), values.getProperty(key));
+            }
+        }
+    }
+
+    private static Properties defaults() {
+        Properties d = new Properties();
+        d.setProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+        d.setProperty("db.url", "jdbc:mysql://localhost:3306/testdatabase");
+        d.setProperty("db.user", "root");
+        d.setProperty("db.password", "");
+        d.setProperty("db.pool.maxSize", "10");
+        d.setProperty("db.pool.minIdle", "2");
+        d.setProperty("db.pool.maxWaitMillis", "30000");
+        d.setProperty("db.pool.idleTimeoutMillis", "600000");
+        d.setProperty("db.pool.leakDetectionThresholdMillis", "60000");
+        d.setProperty("db.pool.validationBypassMillis", "500");
+        d.setProperty("db.jdbc.cachePrepStmts", "true");
+        d.setProperty("db.jdbc.prepStmtCacheSize", "250");
+        d.setProperty("db.jdbc.prepStmtCacheSqlLimit", "2048");
+        d.setProperty("db.jdbc.useServerPrepStmts", "true");
+        d.setProperty("db.jdbc.rewriteBatchedStatements", "true");
+        d.setProperty("db.jdbc.useCursorFetch", "true");
+        d.setProperty("db.jdbc.cacheResultSetMetadata", "true");
+        d.setProperty("db.jdbc.cacheServerConfiguration", "true");
+        d.setProperty("db.jdbc.useLocalSessionState", "true");
+        return d;
+    }
+
+    /**
+     * Loads the settings from the classpath, the optional external file, the
+     * process environment and system properties.
+     */
+    public static DatabaseSettings load() {
+        Properties file = new Properties();
+        try (InputStream in = DatabaseSettings.class.getClassLoader().getResourceAsStream(RESOURCE_NAME)) {
+            if (in != null) {
+                file.load(in);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read {} from classpath: {}", RESOURCE_NAME, e.getMessage());
+        }
+
+        String external = System.getProperty(CONFIG_PATH_KEY, System.getenv("DB_CONFIG"));
+        if (external != null && !external.isBlank()) {
+            try (InputStream in = new FileInputStream(external)) {
+                file.load(in);
+            } catch (IOException e) {
+                logger.warn("Could not read database config file '{}': {}", external, e.getMessage());
+            }
+        }
+
+        return load(file, System.getenv(), System.getProperties());
+    }
+
+    /**
+     * Resolves settings from explicit sources; used by {@link #load()} and by
+     * tests.
+     */
+    public static DatabaseSettings load(Properties file, Map<String, String> env, Properties system) {
+        Properties merged = defaults();
+        merged.putAll(file);
+
+        for (String key : merged.stringPropertyNames()) {
+            String envValue = env.get(toEnvName(key));
+            if (envValue != null) {
+                merged.setProperty(key, envValue);
+            }
+        }
+        for (String key : system.stringPropertyNames()) {
+            if (key.startsWith("db.") && !CONFIG_PATH_KEY.equals(key)) {
+                merged.setProperty(key, system.getProperty(key));
+            }
+        }
+        return new DatabaseSettings(merged);
+    }
+
+    static String toEnvName(String key) {
+        return key.replace('.', '_').toUpperCase();
+    }
+
+    private static long parseLong(Properties values, String key) {
+        String raw = values.getProperty(key);
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            long fallback = Long.parseLong(defaults().getProperty(key));
+            logger.warn("Invalid value '{}' for {}, using {}", raw, key, fallback);
+            return fallback;
+        }
+    }
+
+    /**
+     * Driver properties including the credentials, ready for
+     * {@code DriverManager.getConnection(url, props)}.
+     */
+    public Properties toDriverProperties() {
+        Properties props = new Properties();
+        props.putAll(jdbcProperties);
+        if (user != null) {
+            props.setProperty("user", user);
+        }
+        props.setProperty("password", password == null ? "" : password);
+        return props;
+    }
+
+    /**
+     * One-line description safe for logs (the password is never included).
+     */
+    public String summary() {
+        return "url=" + url + ", user=" + user + ", password=" + (password == null || password.isEmpty() ? "<empty>" : "****")
+                + ", pool[maxSize=" + poolMaxSize + ", minIdle=" + poolMinIdle + ", maxWait=" + poolMaxWaitMillis
+                + " ms, idleTimeout=" + poolIdleTimeoutMillis + " ms, leakThreshold=" + poolLeakThresholdMillis
+                + " ms], jdbc=" + new TreeMap<>(jdbcProperties);
+    }
+
+    public String getDriver() { return driver; }
+    public String getUrl() { return url; }
+    public String getUser() { return user; }
+    public String getPassword() { return password; }
+    public int getPoolMaxSize() { return poolMaxSize; }
+    public int getPoolMinIdle() { return poolMinIdle; }
+    public long getPoolMaxWaitMillis() { return poolMaxWaitMillis; }
+    public long getPoolIdleTimeoutMillis() { return poolIdleTimeoutMillis; }
+    public long getPoolLeakThresholdMillis() { return poolLeakThresholdMillis; }
+    public long getPoolValidationBypassMillis() { return poolValidationBypassMillis; }
+
+    public Properties getJdbcProperties() {
+        Properties copy = new Properties();
+        copy.putAll(jdbcProperties);
+        return copy;
+    }
+}
@@ -0,0 +1,77 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+public class DatabaseSettingsTest {
+
+    @Test
+    public void testDefaultsAreUsedWhenNothingIsConfigured() {
+        DatabaseSettings settings = DatabaseSettings.load(new Properties(), Map.of(), new Properties());
+
+        assertEquals("jdbc:mysql://localhost:3306/testdatabase", settings.getUrl());
+        assertEquals(10, settings.getPoolMaxSize());
+        assertEquals("true", settings.getJdbcProperties().getProperty("rewriteBatchedStatements"));
+    }
+
+    @Test
+    public void testEnvironmentOverridesFileAndSystemPropertyOverridesEnvironment() {
+        Properties file = new Properties();
+        file.setProperty("db.url", "jdbc:mysql://filehost/db");
+        file.setProperty("db.pool.maxSize", "4");
+        Map<String, String> env = new HashMap<>();
+        env.put("DB_URL", "jdbc:mysql://envhost/db");
+        env.put("DB_POOL_MAXSIZE", "6");
+        Properties system = new Properties();
+        system.setProperty("db.pool.maxSize", "8");
+
+        DatabaseSettings settings = DatabaseSettings.load(file, env, system);
+
+        assertEquals("jdbc:mysql://envhost/db", settings.getUrl());
+        assertEquals(8, settings.getPoolMaxSize());
+    }
+
+    @Test
+    public void testJdbcPropertiesArePassedToDriverWithCredentials() {
+        Properties file = new Properties();
+        file.setProperty("db.user", "poet");
+        file.setProperty("db.password", "secret");
+        file.setProperty("db.jdbc.prepStmtCacheSize", "500");
+
+        Properties props = DatabaseSettings.load(file, Map.of(), new Properties()).toDriverProperties();
+
+        assertEquals("poet", props.getProperty("user"));
+        assertEquals("secret", props.getProperty("password"));
+        assertEquals("500", props.getProperty("prepStmtCacheSize"));
+        assertEquals("true", props.getProperty("cachePrepStmts"));
+        assertFalse(props.containsKey("db.jdbc.prepStmtCacheSize"));
+    }
+
+    @Test
+    public void testInvalidNumberFallsBackToDefault() {
+        Properties file = new Properties();
+        file.setProperty("db.pool.maxWaitMillis", "soon");
+
+        DatabaseSettings settings = DatabaseSettings.load(file, Map.of(), new Properties());
+
+        assertEquals(30000, settings.getPoolMaxWaitMillis());
+    }
+
+    @Test
+    public void testSummaryMasksPassword() {
+        Properties file = new Properties();
+        file.setProperty("db.password", "secret");
+
+        String summary = DatabaseSettings.load(file, Map.of(), new Properties()).summary();
+
+        assertFalse(summary.contains("secret"));
+        assertTrue(summary.contains("password=****"));
+    }
+}
@@ -0,0 +1,301 @@
+package bl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import bl.services.IMorphologyBO;
+import dal.IDALFacade;
+import dto.BookDTO;
+import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
+
+/**
+ * Imports many book files at once as a producer–consumer pipeline.
+ *
+ * Parser threads read files with {@link BookFileParser}. Each file becomes a
+ * job on a bounded queue as soon as its header is read; its poems follow
+ * through a small per-file buffer. A few writer threads take jobs and stream
+ * their poems into {@link IDALFacade#importBookBulk}, one connection each.
+ * Both queues block when full: parsers wait for writers, so memory is
+ * bounded by the buffers, not the files, and the number of writers bounds
+ * the connections used.
+ */
+class DirectoryImporter {
+
+    private static final String PARSERS_PROPERTY = "import.parsers";
+    private static final String WRITERS_PROPERTY = "import.writers";
+    private static final int DEFAULT_WRITERS = 4;
+    /** Poems buffered between the parser and the writer of one file. */
+    static final int POEMS_PER_FILE_BUFFER = 256;
+
+    private static final ParsedPoemDTO END = new ParsedPoemDTO();
+
+    private final IDALFacade dal;
+    private final IMorphologyBO morphology;
+    private final int parsers;
+    private final int writers;
+
+    /** With a {@code morphology} each writer also annotates the verses of the book it wrote. */
+    DirectoryImporter(IDALFacade dal, IMorphologyBO morphology, int parsers, int writers) {
+        if (parsers < 1 || writers < 1) {
+            throw new IllegalArgumentException("At least one parser and one writer are required");
+        }
+        this.dal = dal;
+        this.morphology = morphology;
+        this.parsers = parsers;
+        this.writers = writers;
+    }
+
+    /** Parser threads ({@code -Dimport.parsers}), by default one per core. */
+    static int defaultParsers() {
+        return Math.max(1, Integer.getInteger(PARSERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Writer threads ({@code -Dimport.writers}); each holds a pooled
+     * connection for the book it writes, so keep it below the pool size.
+     */
+    static int defaultWriters() {
+        return Math.max(1, Integer.getInteger(WRITERS_PROPERTY, DEFAULT_WRITERS));
+    }
+
+    ImportResultDTO run(String name, List<File> files, Consumer<ImportResultDTO> onFileDone) {
+        long start = System.nanoTime();
+        ImportResultDTO[] results = new ImportResultDTO[files.size()];
+        int parserCount = Math.max(1, Math.min(parsers, files.size()));
+        int writerCount = Math.max(1, Math.min(writers, files.size()));
+        BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(writerCount);
+        AtomicInteger remaining = new AtomicInteger(files.size());
+
+        ExecutorService parserPool = Executors.newFixedThreadPool(parserCount, daemon("import-parser"));
+        ExecutorService writerPool = Executors.newFixedThreadPool(writerCount, daemon("import-writer"));
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                parserPool.execute(() -> parse(index, files.get(index), jobs));
+            }
+            List<Future<?>> writing = new ArrayList<>();
+            for (int i = 0; i < writerCount; i++) {
+                writing.add(writerPool.submit(() -> {
+                    // Every file yields exactly one job, so together the
+                    // writers take as many jobs as there are files.
+                    while (remaining.getAndDecrement() > 0) {
+                        Job job = jobs.take();
+                        results[job.index] = write(job);
+                        if (onFileDone != null) {
+                            onFileDone.accept(results[job.index]);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writing) {
+                writer.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(name, "Import interrupted", start);
+        } catch (ExecutionException e) {
+            return failed(name, "Import failed: " + e.getCause().getMessage(), start);
+        } finally {
+            parserPool.shutdownNow();
+            writerPool.shutdownNow();
+        }
+        return aggregate(name, results, start);
+    }
+
+    /** Producer: reads one file and feeds its poems to the writer that took its job. */
+    private void parse(int index, File file, BlockingQueue<Job> jobs) {
+        Job job = new Job(index, file);
+        try (BookFileParser parser = new BookFileParser(new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))) {
+            job.book = ImportBookBO.newBook(parser.getBookTitle());
+            jobs.put(job);
+            while (parser.hasNext()) {
+                if (!job.offer(parser.next())) {
+                    return; // the writer has given up on this file
+                }
+            }
+        } catch (UncheckedIOException e) {
+            job.error = e.getCause();
+        } catch (IOException | RuntimeException | Error e) {
+            // Whatever stops the parser, e.g. running out of memory on a
+            // huge line, must reach the writer: it waits for every file.
+            job.error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (job.book == null) {
+            // Not enqueued yet: hand the writer a job that only reports the error.
+            putQuietly(jobs, job);
+        } else {
+            job.offer(END);
+        }
+    }
+
+    /** Consumer: writes one book over one connection while its poems are still being parsed. */
+    private ImportResultDTO write(Job job) {
+        ImportResultDTO result;
+        try {
+            if (job.book == null) {
+                result = new ImportResultDTO();
+                result.setStatus(ImportResultDTO.Status.FAILED);
+                result.setMessage("❌ Error reading file: " + job.error.getMessage());
+            } else {
+                ImportResultDTO saved = dal.importBookBulk(job.book, () -> job.poems());
+                result = ImportBookBO.summarize(job.book.getTitle(), saved);
+                if (morphology != null) {
+                    ImportBookBO.analyzeImported(morphology, result, saved.getVerseIds());
+                }
+            }
+        } catch (RuntimeException e) {
+            result = new ImportResultDTO();
+            result.setBookTitle(job.book.getTitle());
+            result.setStatus(ImportResultDTO.Status.FAILED);
+            result.setMessage("❌ Error saving book: " + e.getMessage());
+        } finally {
+            job.abandoned = true;
+        }
+        result.setFileName(job.file.getName());
+        return result;
+    }
+
+    private ImportResultDTO aggregate(String name, ImportResultDTO[] results, long start) {
+        ImportResultDTO summary = new ImportResultDTO();
+        summary.setBookTitle(name);
+        int imported = 0;
+        StringBuilder problems = new StringBuilder();
+        for (ImportResultDTO result : results) {
+            summary.getFileResults().add(result);
+            summary.setPoemsImported(summary.getPoemsImported() + result.getPoemsImported());
+            summary.setVersesImported(summary.getVersesImported() + result.getVersesImported());
+            if (result.getStatus() == ImportResultDTO.Status.IMPORTED) {
+                imported++;
+            } else {
+                problems.append("\n").append(result.getFileName()).append(": ").append(result.getMessage());
+            }
+        }
+        summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        summary.setStatus(imported == results.length ? ImportResultDTO.Status.IMPORTED
+                : summary.getPoemsImported() > 0 ? ImportResultDTO.Status.PARTIAL : ImportResultDTO.Status.FAILED);
+        summary.setMessage((imported == results.length ? "✅" : "⚠") + " Imported " + imported + " of "
+                + results.length + " files: " + summary.getPoemsImported() + " poems, "
+                + summary.getVersesImported() + " verses (" + summary.getRowsPerSecond() + " rows/sec)."
+                + problems);
+        return summary;
+    }
+
+    private static ImportResultDTO failed(String name, String message, long start) {
+        ImportResultDTO summary = new ImportResultDTO();
+        summary.setBookTitle(name);
+        summary.setStatus(ImportResultDTO.Status.FAILED);
+        summary.setMessage("❌ " + message);
+        summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return summary;
+    }
+
+    private static void putQuietly(BlockingQueue<Job> jobs, Job job) {
+        try {
+            jobs.put(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** One file on its way from a parser to a writer. */
+    private static final class Job {
+        private final int index;
+        private final File file;
+        private final BlockingQueue<ParsedPoemDTO> buffer = new ArrayBlockingQueue<>(POEMS_PER_FILE_BUFFER);
+        private volatile BookDTO book;
+        private volatile Throwable error;
+        private volatile boolean abandoned;
+
+        Job(int index, File file) {
+            this.index = index;
+            this.file = file;
+        }
+
+        /** Blocks while the buffer is full; false once the writer has stopped reading. */
+        boolean offer(ParsedPoemDTO poem) {
+            try {
+                while (!abandoned) {
+                    if (buffer.offer(poem, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        /** The poems as the parser delivers them; a read error ends the stream with an exception. */
+        Iterator<ParsedPoemDTO> poems() {
+            return new Iterator<>() {
+                private ParsedPoemDTO next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        try {
+                            next = buffer.take();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Import interrupted", e);
+                        }
+                    }
+                    if (next == END) {
+                        if (error instanceof IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (error != null) {
+                            throw new IllegalStateException("Error reading file: " + error.getMessage(), error);
+                        }
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public ParsedPoemDTO next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    ParsedPoemDTO poem = next;
+                    next = null;
+                    return poem;
+                }
+            };
+        }
+    }
+}
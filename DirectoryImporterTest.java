@@ -0,0 +1,137 @@
+package bl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import dal.IDALFacade;
+import dto.BookDTO;
+import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
+
+public class DirectoryImporterTest {
+
+    @Mock
+    private IDALFacade dalFacadeMock;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Saves every streamed poem, except that the book "Broken" fails before any commit. */
+    private void stubBulkImport() {
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenAnswer(invocation -> {
+            BookDTO book = invocation.getArgument(0);
+            Iterable<ParsedPoemDTO> poems = invocation.getArgument(1);
+            ImportResultDTO saved = new ImportResultDTO(book.getTitle(), 0, null);
+            if (book.getTitle().equals("Broken")) {
+                saved.setMessage("Deadlock");
+                return saved;
+            }
+            for (ParsedPoemDTO poem : poems) {
+                saved.setPoemsImported(saved.getPoemsImported() + 1);
+                saved.setVersesImported(saved.getVersesImported() + poem.getVerses().size());
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    public void testImportDirectory_AggregatesPerFileResults() throws IOException {
+        write("b.txt", "الكتاب : Second\n[P1]\n(V1)");
+        write("a.txt", "الكتاب : First\n[P1]\n(V1)\n(V2)\n[P2]\n(V3)");
+        write("c.txt", "الكتاب : Broken\n[P1]\n(V1)");
+        write("notes.md", "[Ignored]\n(Not a book)");
+        stubBulkImport();
+        List<ImportResultDTO> reported = new CopyOnWriteArrayList<>();
+
+        ImportResultDTO summary = new ImportBookBO(dalFacadeMock).importDirectory(directory.toFile(), false, reported::add);
+
+        assertEquals(3, summary.getFileResults().size());
+        assertEquals(3, reported.size());
+        assertEquals(ImportResultDTO.Status.PARTIAL, summary.getStatus());
+        assertEquals(3, summary.getPoemsImported());
+        assertEquals(4, summary.getVersesImported());
+        assertTrue(summary.getMessage().contains("Imported 2 of 3 files"));
+        assertTrue(summary.getMessage().contains("c.txt"));
+
+        ImportResultDTO first = summary.getFileResults().get(0);
+        assertEquals("a.txt", first.getFileName());
+        assertEquals("First", first.getBookTitle());
+        assertEquals(ImportResultDTO.Status.IMPORTED, first.getStatus());
+        assertEquals(2, first.getPoemsImported());
+        assertEquals(ImportResultDTO.Status.FAILED, summary.getFileResults().get(2).getStatus());
+    }
+
+    @Test
+    public void testWriterStoppingEarlyReleasesParser() throws IOException {
+        // More poems than the per-file buffer holds, and a writer that reads none of them.
+        StringBuilder content = new StringBuilder("الكتاب : Broken\n");
+        for (int i = 0; i < DirectoryImporter.POEMS_PER_FILE_BUFFER * 2; i++) {
+            content.append("[P").append(i).append("]\n(V)\n");
+        }
+        write("big.txt", content.toString());
+        stubBulkImport();
+        List<File> files = Collections.singletonList(directory.resolve("big.txt").toFile());
+
+        ImportResultDTO summary = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> new DirectoryImporter(dalFacadeMock, null, 1, 1).run("dir", files, null));
+
+        assertEquals(ImportResultDTO.Status.FAILED, summary.getStatus());
+        assertEquals("big.txt", summary.getFileResults().get(0).getFileName());
+    }
+
+    @Test
+    public void testMissingFileReportedAsFailed() {
+        List<File> files = Collections.singletonList(directory.resolve("missing.txt").toFile());
+
+        ImportResultDTO summary = new DirectoryImporter(dalFacadeMock, null, 2, 2).run("dir", files, null);
+
+        assertEquals(ImportResultDTO.Status.FAILED, summary.getFileResults().get(0).getStatus());
+        assertTrue(summary.getFileResults().get(0).getMessage().contains("Error reading file"));
+    }
+
+    @Test
+    public void testParserFailureBeforeHeaderReportedAsFailed() {
+        // Fails with a runtime exception rather than an IOException when opened.
+        File broken = new File(directory.toFile(), "broken.txt") {
+            @Override
+            public String getPath() {
+                throw new IllegalStateException("Parser crashed");
+            }
+        };
+        List<File> files = Collections.singletonList(broken);
+
+        ImportResultDTO summary = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> new DirectoryImporter(dalFacadeMock, null, 1, 1).run("dir", files, null));
+
+        assertEquals(ImportResultDTO.Status.FAILED, summary.getFileResults().get(0).getStatus());
+        assertTrue(summary.getFileResults().get(0).getMessage().contains("Parser crashed"));
+    }
+}
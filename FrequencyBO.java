@@ -1,5 +1,6 @@
 package bl;
 
+import dal.FrequencyStore;
 import dal.ILemmaFrequencyDAO;
 import dal.IRootFrequencyDAO;
 import dal.ISegmentFrequencyDAO;
@@ -8,7 +9,10 @@ import dal.LemmaFrequencyDAO;
 import dal.RootFrequencyDAO;
 import dal.SegmentFrequencyDAO;
 import dal.TokenFrequencyDAO;
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
 
 import java.util.List;
 
@@ -21,20 +25,28 @@ public class FrequencyBO implements bl.services.IFrequencyBO {
     private final IRootFrequencyDAO rootDAO;
     private final ISegmentFrequencyDAO segmentDAO;
     private final ITokenFrequencyDAO tokenDAO;
+    private final FrequencyStore store;
 
     public FrequencyBO() {
         this.lemmaDAO = new LemmaFrequencyDAO();
         this.rootDAO = new RootFrequencyDAO();
         this.segmentDAO = new SegmentFrequencyDAO();
         this.tokenDAO = new TokenFrequencyDAO();
+        this.store = FrequencyStore.getShared();
     }
 
     public FrequencyBO(ILemmaFrequencyDAO lemmaDAO, IRootFrequencyDAO rootDAO, ISegmentFrequencyDAO segmentDAO,
             ITokenFrequencyDAO tokenDAO) {
+        this(lemmaDAO, rootDAO, segmentDAO, tokenDAO, FrequencyStore.getShared());
+    }
+
+    public FrequencyBO(ILemmaFrequencyDAO lemmaDAO, IRootFrequencyDAO rootDAO, ISegmentFrequencyDAO segmentDAO,
+            ITokenFrequencyDAO tokenDAO, FrequencyStore store) {
         this.lemmaDAO = lemmaDAO;
         this.rootDAO = rootDAO;
         this.segmentDAO = segmentDAO;
         this.tokenDAO = tokenDAO;
+        this.store = store;
     }
 
     /**
@@ -64,4 +76,62 @@ public class FrequencyBO implements bl.services.IFrequencyBO {
     public List<FrequencyDTO> getTokenFrequencies() {
         return tokenDAO.getTokenFrequency();
     }
+
+    /**
+     * Top-N list from the frequency store
+     */
+    public List<FrequencyDTO> getTopN(AnnotationType type, int n) {
+        if (type == null) {
+            throw new IllegalArgumentException("Annotation type cannot be null");
+        }
+        if (n < 1) {
+            throw new IllegalArgumentException("N must be at least 1");
+        }
+        return store.getTopN(type, n);
+    }
+
+    /**
+     * Window of the frequency ranking from the store, which loads the counts
+     * on first use; the DAO's windowed query only if they cannot be loaded
+     */
+    public FrequencyWindowDTO getFrequencyWindow(AnnotationType type, int offset, int limit) {
+        if (type == null) {
+            throw new IllegalArgumentException("Annotation type cannot be null");
+        }
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        FrequencyWindowDTO window = store.getWindow(type, offset, limit);
+        if (window != null) {
+            return window;
+        }
+        switch (type) {
+            case TOKEN:
+                return tokenDAO.getTokenFrequencyWindow(offset, limit);
+            case LEMMA:
+                return lemmaDAO.getLemmaFrequencyWindow(offset, limit);
+            case ROOT:
+                return rootDAO.getRootFrequencyWindow(offset, limit);
+            case SEGMENT:
+                return segmentDAO.getSegmentFrequencyWindow(offset, limit);
+            default:
+                throw new IllegalArgumentException("Unsupported annotation type: " + type);
+        }
+    }
+
+    /**
+     * Window of the frequency ranking within a book, poet or poem
+     */
+    public FrequencyWindowDTO getFrequencyWindow(AnnotationType type, FrequencyScope scope, int offset, int limit) {
+        if (scope == null || scope.isCorpus()) {
+            return getFrequencyWindow(type, offset, limit);
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Annotation type cannot be null");
+        }
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        return store.getWindow(type, scope, offset, limit);
+    }
 }
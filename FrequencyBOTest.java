@@ -1,6 +1,8 @@
 package bl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,11 +15,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import dal.FrequencyStore;
 import dal.ILemmaFrequencyDAO;
 import dal.IRootFrequencyDAO;
 import dal.ISegmentFrequencyDAO;
 import dal.ITokenFrequencyDAO;	
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
 
 public class FrequencyBOTest {
 
@@ -29,13 +35,15 @@ public class FrequencyBOTest {
     private ISegmentFrequencyDAO segmentDAOMock;
     @Mock
     private ITokenFrequencyDAO tokenDAOMock;
+    @Mock
+    private FrequencyStore storeMock;
 
     private FrequencyBO frequencyBO;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        frequencyBO = new FrequencyBO(lemmaDAOMock, rootDAOMock, segmentDAOMock, tokenDAOMock);
+        frequencyBO = new FrequencyBO(lemmaDAOMock, rootDAOMock, segmentDAOMock, tokenDAOMock, storeMock);
     }
 
     @Test
@@ -81,4 +89,55 @@ public class FrequencyBOTest {
         assertEquals(expected, result);
         verify(tokenDAOMock, times(1)).getTokenFrequency();
     }
+
+    @Test
+    public void testGetTopN() {
+        List<FrequencyDTO> expected = Arrays.asList(new FrequencyDTO("قلب", 4));
+        when(storeMock.getTopN(AnnotationType.LEMMA, 15)).thenReturn(expected);
+
+        List<FrequencyDTO> result = frequencyBO.getTopN(AnnotationType.LEMMA, 15);
+
+        assertEquals(expected, result);
+        verify(storeMock, times(1)).getTopN(AnnotationType.LEMMA, 15);
+    }
+
+    @Test
+    public void testGetTopN_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> frequencyBO.getTopN(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> frequencyBO.getTopN(AnnotationType.TOKEN, 0));
+    }
+
+    @Test
+    public void testGetFrequencyWindow_FromStore() {
+        FrequencyWindowDTO expected = new FrequencyWindowDTO(Arrays.asList(new FrequencyDTO("قلب", 4)), 0, 40, 12, 0);
+        when(storeMock.getWindow(AnnotationType.ROOT, 0, 10)).thenReturn(expected);
+
+        FrequencyWindowDTO result = frequencyBO.getFrequencyWindow(AnnotationType.ROOT, 0, 10);
+
+        assertEquals(expected, result);
+        verify(rootDAOMock, never()).getRootFrequencyWindow(0, 10);
+    }
+
+    @Test
+    public void testGetFrequencyWindow_FallsBackToDAOWhenStoreCannotLoad() {
+        FrequencyWindowDTO expected = new FrequencyWindowDTO(Arrays.asList(new FrequencyDTO("ليل", 9)), 20, 500, 80, 300);
+        when(storeMock.getWindow(AnnotationType.SEGMENT, 20, 10)).thenReturn(null);
+        when(segmentDAOMock.getSegmentFrequencyWindow(20, 10)).thenReturn(expected);
+
+        FrequencyWindowDTO result = frequencyBO.getFrequencyWindow(AnnotationType.SEGMENT, 20, 10);
+
+        assertEquals(expected, result);
+        verify(segmentDAOMock, times(1)).getSegmentFrequencyWindow(20, 10);
+    }
+
+    @Test
+    public void testGetFrequencyWindow_Scoped() {
+        FrequencyWindowDTO expected = new FrequencyWindowDTO(Arrays.asList(new FrequencyDTO("قلب", 4)), 0, 4, 1, 0);
+        when(storeMock.getWindow(AnnotationType.TOKEN, FrequencyScope.poet(7), 0, 50)).thenReturn(expected);
+
+        FrequencyWindowDTO result = frequencyBO.getFrequencyWindow(AnnotationType.TOKEN, FrequencyScope.poet(7), 0, 50);
+
+        assertEquals(expected, result);
+        verify(tokenDAOMock, never()).getTokenFrequencyWindow(0, 50);
+    }
 }
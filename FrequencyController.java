@@ -8,7 +8,13 @@ import dal.LemmaFrequencyDAO;
 import dal.RootFrequencyDAO;
 import dal.SegmentFrequencyDAO;
 import dal.TokenFrequencyDAO;
+import dto.AnnotationType;
+import dto.BookDTO;
 import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
+import dto.PoemDTO;
+import dto.PoetDTO;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -38,6 +44,10 @@ public class FrequencyController {
     @FXML
     private ComboBox<String> analysisTypeCombo;
     @FXML
+    private ComboBox<String> scopeCombo;
+    @FXML
+    private ComboBox<Object> scopeItemCombo;
+    @FXML
     private Spinner<Integer> topNSpinner;
     @FXML
     private Button refreshBtn;
@@ -67,6 +77,7 @@ public class FrequencyController {
     private ObservableList<FrequencyData> data = FXCollections.observableArrayList();
     private ChartType currentChartType = ChartType.BAR;
     private List<FrequencyDTO> currentFrequencies;
+    private FrequencyWindowDTO currentWindow;
     private String currentAnalysisType;
 
     private enum ChartType {
@@ -119,6 +130,57 @@ public class FrequencyController {
         // Combo box listener
         analysisTypeCombo.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> refreshData());
+
+        // Scope selection: the whole corpus, or one book, poet or poem
+        scopeCombo.getItems().addAll("Corpus", "Book", "Poet", "Poem");
+        scopeCombo.getSelectionModel().selectFirst();
+        scopeItemCombo.setDisable(true);
+        scopeCombo.getSelectionModel().selectedItemProperty().addListener(
+                (observable, oldValue, newValue) -> loadScopeItems(newValue));
+        scopeItemCombo.getSelectionModel().selectedItemProperty().addListener(
+                (observable, oldValue, newValue) -> {
+                    if (newValue != null) {
+                        refreshData();
+                    }
+                });
+    }
+
+    private void loadScopeItems(String scope) {
+        scopeItemCombo.getItems().clear();
+        scopeItemCombo.setDisable(!"Book".equals(scope) && !"Poet".equals(scope) && !"Poem".equals(scope));
+        if (getFacade() == null || scopeItemCombo.isDisable()) {
+            refreshData();
+            return;
+        }
+        switch (scope) {
+            case "Book":
+                scopeItemCombo.getItems().addAll(getFacade().getAllBooks());
+                break;
+            case "Poet":
+                scopeItemCombo.getItems().addAll(getFacade().getAllPoets());
+                break;
+            case "Poem":
+                scopeItemCombo.getItems().addAll(getFacade().getAllPoems());
+                break;
+            default:
+                break;
+        }
+        // Data is refreshed once an item is picked.
+        scopeItemCombo.getSelectionModel().selectFirst();
+    }
+
+    private FrequencyScope getSelectedScope() {
+        Object item = scopeItemCombo.getSelectionModel().getSelectedItem();
+        if (item instanceof BookDTO) {
+            return FrequencyScope.book(((BookDTO) item).getBookId());
+        }
+        if (item instanceof PoetDTO) {
+            return FrequencyScope.poet(((PoetDTO) item).getPoetId());
+        }
+        if (item instanceof PoemDTO) {
+            return FrequencyScope.poem(((PoemDTO) item).getPoemId());
+        }
+        return FrequencyScope.corpus();
     }
 
     private void loadFrequencyTypes() {
@@ -137,41 +199,32 @@ public class FrequencyController {
         String selectedType = analysisTypeCombo.getSelectionModel().getSelectedItem();
         int topN = topNSpinner.getValue();
 
-        currentFrequencies = getFrequencies(selectedType, topN);
+        currentWindow = getFrequencies(selectedType, topN);
+        currentFrequencies = currentWindow.getItems();
         currentAnalysisType = selectedType;
 
-        if (currentFrequencies != null) {
-            updateChart(currentFrequencies, selectedType);
-            updateTable(currentFrequencies);
-            updateStats(currentFrequencies);
-        }
+        updateChart(currentFrequencies, selectedType);
+        updateTable(currentWindow);
+        updateStats(currentWindow);
     }
 
-    private List<FrequencyDTO> getFrequencies(String type, int limit) {
+    private FrequencyWindowDTO getFrequencies(String type, int limit) {
         if (getFacade() == null)
-            return java.util.Collections.emptyList();
+            return new FrequencyWindowDTO();
 
-        List<FrequencyDTO> allFreqs;
+        FrequencyScope scope = getSelectedScope();
         switch (type) {
             case "Tokens":
-                allFreqs = getFacade().getTokenFrequencies();
-                break;
+                return getFacade().getFrequencyWindow(AnnotationType.TOKEN, scope, 0, limit);
             case "Lemmas":
-                allFreqs = getFacade().getLemmaFrequencies();
-                break;
+                return getFacade().getFrequencyWindow(AnnotationType.LEMMA, scope, 0, limit);
             case "Segments":
-                allFreqs = getFacade().getSegmentFrequencies();
-                break;
+                return getFacade().getFrequencyWindow(AnnotationType.SEGMENT, scope, 0, limit);
             case "Roots":
-                allFreqs = getFacade().getRootFrequencies();
-                break;
+                return getFacade().getFrequencyWindow(AnnotationType.ROOT, scope, 0, limit);
             default:
-                return java.util.Collections.emptyList();
+                return new FrequencyWindowDTO();
         }
-
-        return allFreqs.stream()
-                .limit(limit)
-                .toList();
     }
 
     private void updateChart(List<FrequencyDTO> frequencies, String type) {
@@ -304,13 +357,14 @@ public class FrequencyController {
         chartTitle.setText(type + " Frequency Distribution - Pie Chart (Top 10)");
     }
 
-    private void updateTable(List<FrequencyDTO> frequencies) {
+    private void updateTable(FrequencyWindowDTO window) {
         data.clear();
 
-        int total = frequencies.stream().mapToInt(FrequencyDTO::getFrequency).sum();
-        int cumulative = 0;
+        // Percentages are of all occurrences, not just the ones shown.
+        long total = window.getTotalOccurrences();
+        long cumulative = window.getOccurrencesBefore();
 
-        for (FrequencyDTO dto : frequencies) {
+        for (FrequencyDTO dto : window.getItems()) {
             cumulative += dto.getFrequency();
             double percentage = total > 0 ? (double) dto.getFrequency() / total * 100 : 0;
             double cumulativePercentage = total > 0 ? (double) cumulative / total * 100 : 0;
@@ -325,9 +379,9 @@ public class FrequencyController {
         frequencyTable.setItems(data);
     }
 
-    private void updateStats(List<FrequencyDTO> frequencies) {
-        int total = frequencies.stream().mapToInt(FrequencyDTO::getFrequency).sum();
-        int unique = frequencies.size();
+    private void updateStats(FrequencyWindowDTO window) {
+        long total = window.getTotalOccurrences();
+        long unique = window.getUniqueItems();
 
         statsLabel.setText(String.format(
                 "Total: %d occurrences | Unique: %d items",
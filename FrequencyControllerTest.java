@@ -2,6 +2,8 @@ package pl.controller;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.testfx.assertions.api.Assertions.assertThat;
 
@@ -13,7 +15,10 @@ import org.testfx.api.FxRobot;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
@@ -40,10 +45,8 @@ public class FrequencyControllerTest extends BaseControllerTest {
 
         // Mock frequency data with Arabic words
         FrequencyDTO arabicFreq = new FrequencyDTO(ARABIC_TOKEN, 10);
-        when(mockFacade.getTokenFrequencies()).thenReturn(Arrays.asList(arabicFreq));
-        when(mockFacade.getLemmaFrequencies()).thenReturn(Arrays.asList(arabicFreq));
-        when(mockFacade.getRootFrequencies()).thenReturn(Arrays.asList(arabicFreq));
-        when(mockFacade.getSegmentFrequencies()).thenReturn(Arrays.asList(arabicFreq));
+        when(mockFacade.getFrequencyWindow(any(AnnotationType.class), any(FrequencyScope.class), anyInt(), anyInt()))
+                .thenReturn(new FrequencyWindowDTO(Arrays.asList(arabicFreq), 0, 10, 1, 0));
 
         controller = loadView("FrequencyView.fxml", "Frequency Analysis Test", 1200, 800);
         injectMockFacade(controller);
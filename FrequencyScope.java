@@ -0,0 +1,56 @@
+package dto;
+
+import java.util.Objects;
+
+/**
+ * The part of the corpus a frequency distribution is counted over: the whole
+ * corpus, or the verses of one book, one poet or one poem.
+ */
+public final class FrequencyScope {
+
+    public enum Kind {
+        CORPUS, BOOK, POET, POEM
+    }
+
+    private static final FrequencyScope CORPUS = new FrequencyScope(Kind.CORPUS, 0);
+
+    private final Kind kind;
+    private final int id;
+
+    private FrequencyScope(Kind kind, int id) {
+        this.kind = kind;
+        this.id = id;
+    }
+
+    public static FrequencyScope corpus() { return CORPUS; }
+    public static FrequencyScope book(int bookId) { return new FrequencyScope(Kind.BOOK, bookId); }
+    public static FrequencyScope poet(int poetId) { return new FrequencyScope(Kind.POET, poetId); }
+    public static FrequencyScope poem(int poemId) { return new FrequencyScope(Kind.POEM, poemId); }
+
+    public Kind getKind() { return kind; }
+    public int getId() { return id; }
+
+    public boolean isCorpus() { return kind == Kind.CORPUS; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FrequencyScope)) {
+            return false;
+        }
+        FrequencyScope other = (FrequencyScope) o;
+        return kind == other.kind && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, id);
+    }
+
+    @Override
+    public String toString() {
+        return isCorpus() ? "corpus" : kind.name().toLowerCase() + " " + id;
+    }
+}
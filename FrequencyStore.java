@@ -0,0 +1,484 @@
+package dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import dto.AnnotationType;
+import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
+
+/**
+ * In-memory frequency counters for the four annotation tables, so the
+ * Frequency screen does not re-run a {@code GROUP BY} over a whole table on
+ * every refresh.
+ *
+ * Each table's counts are loaded with one {@code GROUP BY} the first time
+ * they are asked for. After that the annotation DAOs add the keys of every
+ * row they insert. A change whose rows are not known here (an update, a
+ * delete, a cascading delete of a verse, poem, book or poet) invalidates the
+ * affected counts, and they are reloaded on the next read. The sorted list is
+ * cached too, so repeated reads without changes only copy the first N
+ * entries; while it is not, a small top N is picked with a bounded heap
+ * rather than by sorting every key.
+ *
+ * Counts for one book, poet or poem are rolled up on demand with a join
+ * through verse and poem and kept per (scope, type), least recently used
+ * first out. They are not updated in place: any change to a table's counts
+ * drops its rollups, and imports or edits that move verses or poems drop
+ * them all.
+ *
+ * The counting key matches the frequency DAOs: word for tokens, lemma for
+ * lemmas, root for roots and {@code CONCAT(prefix, stem, suffix)} for
+ * segments ({@code null} if any part is {@code null}).
+ */
+public class FrequencyStore {
+    private static final Logger logger = LogManager.getLogger(FrequencyStore.class);
+
+    /**
+     * Most frequent first; ties by key in code point order with {@code null}
+     * first, which is how {@link FrequencyWindowQuery} orders them in SQL, so
+     * a ranking paged through both gives the same windows.
+     */
+    private static final Comparator<FrequencyDTO> BY_FREQUENCY = Comparator
+            .comparingInt(FrequencyDTO::getFrequency).reversed()
+            .thenComparing(FrequencyDTO::getWord, Comparator.nullsFirst(FrequencyStore::compareKeys));
+
+    private static final int MAX_ROLLUPS_PER_TYPE = 64;
+
+    private final IDatabaseConnection dbConnection;
+    private final Map<AnnotationType, Counts> counts = new EnumMap<>(AnnotationType.class);
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong scopeChanges = new AtomicLong();
+
+    /** Counts of one table; {@code values} is {@code null} until loaded. */
+    private static final class Counts {
+        private Map<String, Integer> values;
+        private long total;
+        private FrequencyDTO[] sorted;
+        private long modifications;
+        private final Map<FrequencyScope, Rollup> rollups = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FrequencyScope, Rollup> eldest) {
+                return size() > MAX_ROLLUPS_PER_TYPE;
+            }
+        };
+    }
+
+    /** Sorted counts of one table within one scope. */
+    private static final class Rollup {
+        private final FrequencyDTO[] sorted;
+        private final long total;
+
+        Rollup(FrequencyDTO[] sorted, long total) {
+            this.sorted = sorted;
+            this.total = total;
+        }
+    }
+
+    public FrequencyStore(IDatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+        for (AnnotationType type : AnnotationType.values()) {
+            counts.put(type, new Counts());
+        }
+    }
+
+    private static class SharedHolder {
+        private static final FrequencyStore INSTANCE = new FrequencyStore(new DatabaseConnection());
+    }
+
+    /** Store kept up to date by the annotation and delete DAOs. */
+    public static FrequencyStore getShared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * The {@code n} most frequent keys, most frequent first; ties are ordered
+     * by key. Loads the counts if needed; returns an empty list if they cannot
+     * be loaded.
+     */
+    public List<FrequencyDTO> getTopN(AnnotationType type, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("N cannot be negative");
+        }
+        Counts c = counts.get(type);
+        synchronized (c) {
+            if (c.values != null) {
+                return new ArrayList<>(Arrays.asList(top(c, n)));
+            }
+        }
+        FrequencyDTO[] sorted = sorted(type);
+        if (sorted == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(sorted).subList(0, Math.min(n, sorted.length)));
+    }
+
+    /**
+     * The keys ranked {@code offset} to {@code offset + limit - 1} with totals.
+     * Loads the counts if needed; returns {@code null} if they cannot be
+     * loaded, so the caller can fall back to a windowed query.
+     */
+    public FrequencyWindowDTO getWindow(AnnotationType type, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        Counts c = counts.get(type);
+        synchronized (c) {
+            if (c.values != null) {
+                int end = (int) Math.min((long) offset + limit, c.values.size());
+                return window(top(c, end), offset, end, c.total, c.values.size());
+            }
+        }
+        FrequencyDTO[] sorted = sorted(type);
+        if (sorted == null) {
+            return null;
+        }
+        long total = 0;
+        for (FrequencyDTO entry : sorted) {
+            total += entry.getFrequency();
+        }
+        int end = (int) Math.min((long) offset + limit, sorted.length);
+        return window(sorted, offset, end, total, sorted.length);
+    }
+
+    /** Entries {@code offset} to {@code end - 1} of a ranking that holds at least {@code end}. */
+    private static FrequencyWindowDTO window(FrequencyDTO[] ranked, int offset, int end, long total, long unique) {
+        long before = 0;
+        for (int i = 0; i < Math.min(offset, end); i++) {
+            before += ranked[i].getFrequency();
+        }
+        List<FrequencyDTO> items = offset < end
+                ? new ArrayList<>(Arrays.asList(ranked).subList(offset, end))
+                : new ArrayList<>();
+        return new FrequencyWindowDTO(items, offset, total, unique, before);
+    }
+
+    /**
+     * The keys ranked {@code offset} to {@code offset + limit - 1} within a
+     * book, poet or poem, with totals over that scope. The scope's counts are
+     * rolled up on first use and cached; for the whole corpus this is
+     * {@link #getWindow(AnnotationType, int, int)}.
+     */
+    public FrequencyWindowDTO getWindow(AnnotationType type, FrequencyScope scope, int offset, int limit) {
+        if (scope.isCorpus()) {
+            return getWindow(type, offset, limit);
+        }
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        Counts c = counts.get(type);
+        Rollup rollup;
+        long modifications;
+        synchronized (c) {
+            rollup = c.rollups.get(scope);
+            modifications = c.modifications;
+        }
+        if (rollup == null) {
+            Map<String, Integer> loaded = load(type, scope);
+            if (loaded == null) {
+                return new FrequencyWindowDTO(new ArrayList<>(), offset, 0, 0, 0);
+            }
+            long total = 0;
+            for (int count : loaded.values()) {
+                total += count;
+            }
+            rollup = new Rollup(sort(loaded), total);
+            synchronized (c) {
+                if (c.modifications == modifications) {
+                    c.rollups.put(scope, rollup);
+                }
+            }
+        }
+
+        FrequencyDTO[] sorted = rollup.sorted;
+        int from = Math.min(offset, sorted.length);
+        int to = (int) Math.min((long) offset + limit, sorted.length);
+        long before = 0;
+        for (int i = 0; i < from; i++) {
+            before += sorted[i].getFrequency();
+        }
+        return new FrequencyWindowDTO(new ArrayList<>(Arrays.asList(sorted).subList(from, to)), offset,
+                rollup.total, sorted.length, before);
+    }
+
+    /** All keys with their counts, most frequent first. */
+    public List<FrequencyDTO> getAll(AnnotationType type) {
+        return getTopN(type, Integer.MAX_VALUE);
+    }
+
+    /** Records rows inserted into the table of {@code type}, one key per row. */
+    public void add(AnnotationType type, Collection<String> keys) {
+        changes.incrementAndGet();
+        Counts c = counts.get(type);
+        synchronized (c) {
+            c.modifications++;
+            c.rollups.clear();
+            if (c.values != null && !keys.isEmpty()) {
+                for (String key : keys) {
+                    c.values.merge(key, 1, Integer::sum);
+                }
+                c.total += keys.size();
+                c.sorted = null;
+            }
+        }
+    }
+
+    /** Drops the counts of one table; they are reloaded on the next read. */
+    public void invalidate(AnnotationType type) {
+        changes.incrementAndGet();
+        Counts c = counts.get(type);
+        synchronized (c) {
+            c.modifications++;
+            c.values = null;
+            c.sorted = null;
+            c.rollups.clear();
+        }
+    }
+
+    /**
+     * Drops the per-scope rollups of every table, e.g. after an import. The
+     * annotation counts are untouched, so {@link #changeCount()} stays put.
+     */
+    public void invalidateRollups() {
+        for (AnnotationType type : AnnotationType.values()) {
+            Counts c = counts.get(type);
+            synchronized (c) {
+                c.modifications++;
+                c.rollups.clear();
+            }
+        }
+    }
+
+    /**
+     * Drops the rollups after an edit that may move annotated verses to
+     * another poem, book or poet, and moves {@link #scopeChangeCount()} on.
+     */
+    public void invalidateScopes() {
+        scopeChanges.incrementAndGet();
+        invalidateRollups();
+    }
+
+    /** Drops all counts, e.g. after a delete that cascades to every table. */
+    public void invalidateAll() {
+        for (AnnotationType type : AnnotationType.values()) {
+            invalidate(type);
+        }
+    }
+
+    /**
+     * Number of changes recorded so far. Other structures derived from the
+     * annotation tables remember it and rebuild once it moves on.
+     */
+    public long changeCount() {
+        return changes.get();
+    }
+
+    /**
+     * Number of edits so far that may have moved annotated verses between
+     * scopes. Structures built per book remember it as well.
+     */
+    public long scopeChangeCount() {
+        return scopeChanges.get();
+    }
+
+    /**
+     * Compares keys by code point, the order of their UTF-8 bytes; unlike
+     * {@link String#compareTo} this does not put supplementary characters
+     * before the end of the BMP.
+     */
+    static int compareKeys(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    public static String segmentKey(String prefix, String stem, String suffix) {
+        return prefix == null || stem == null || suffix == null ? null : prefix + stem + suffix;
+    }
+
+    /** The full ranking, loading the counts if needed; {@code null} if they cannot be loaded. */
+    private FrequencyDTO[] sorted(AnnotationType type) {
+        Counts c = counts.get(type);
+        long modifications;
+        synchronized (c) {
+            if (c.values != null) {
+                if (c.sorted == null) {
+                    c.sorted = sort(c.values);
+                }
+                return c.sorted;
+            }
+            modifications = c.modifications;
+        }
+
+        // Loaded without holding the lock so inserts are not blocked by the query.
+        Map<String, Integer> loaded = load(type);
+        if (loaded == null) {
+            return null;
+        }
+        FrequencyDTO[] sorted = sort(loaded);
+        synchronized (c) {
+            // A change made while the query ran may or may not be in its result,
+            // so the result is only kept if nothing changed in the meantime.
+            if (c.modifications == modifications && c.values == null) {
+                c.values = loaded;
+                c.total = 0;
+                for (int count : loaded.values()) {
+                    c.total += count;
+                }
+                c.sorted = sorted;
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * The first {@code k} entries of the ranking of loaded counts. Uses the
+     * cached sort if there is one; a small {@code k} is picked with a min-heap
+     * of size {@code k} instead of sorting everything, and is not cached.
+     */
+    private static FrequencyDTO[] top(Counts c, int k) {
+        k = Math.min(k, c.values.size());
+        if (c.sorted == null && k > c.values.size() / 8) {
+            c.sorted = sort(c.values);
+        }
+        if (c.sorted != null) {
+            return Arrays.copyOf(c.sorted, k);
+        }
+        if (k == 0) {
+            return new FrequencyDTO[0];
+        }
+        PriorityQueue<FrequencyDTO> heap = new PriorityQueue<>(k + 1, BY_FREQUENCY.reversed());
+        for (Map.Entry<String, Integer> e : c.values.entrySet()) {
+            if (heap.size() < k) {
+                heap.add(new FrequencyDTO(e.getKey(), e.getValue()));
+            } else if (e.getValue() >= heap.peek().getFrequency()) {
+                FrequencyDTO candidate = new FrequencyDTO(e.getKey(), e.getValue());
+                if (BY_FREQUENCY.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+        }
+        FrequencyDTO[] result = heap.toArray(new FrequencyDTO[0]);
+        Arrays.sort(result, BY_FREQUENCY);
+        return result;
+    }
+
+    private static FrequencyDTO[] sort(Map<String, Integer> values) {
+        FrequencyDTO[] sorted = new FrequencyDTO[values.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : values.entrySet()) {
+            sorted[i++] = new FrequencyDTO(e.getKey(), e.getValue());
+        }
+        Arrays.sort(sorted, BY_FREQUENCY);
+        return sorted;
+    }
+
+    private Map<String, Integer> load(AnnotationType type) {
+        String key = keyExpression(type);
+        // Grouped by the expression, not an alias: every table also has a word column.
+        String sql = "SELECT " + key + " AS freq_key, COUNT(*) AS freq FROM " + type.getTableName()
+                + " GROUP BY " + key;
+        long start = System.currentTimeMillis();
+        Map<String, Integer> values = new HashMap<>();
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                values.put(rs.getString("freq_key"), rs.getInt("freq"));
+            }
+        } catch (SQLException e) {
+            logger.error("Error loading {} frequencies: {}", type.getTableName(), e.getMessage(), e);
+            return null;
+        }
+        logger.info("Loaded {} {} frequencies in {} ms", values.size(), type.getTableName(),
+                System.currentTimeMillis() - start);
+        return values;
+    }
+
+    private Map<String, Integer> load(AnnotationType type, FrequencyScope scope) {
+        String key = keyExpression(type, "a.");
+        String sql = "SELECT " + key + " AS freq_key, COUNT(*) AS freq FROM " + type.getTableName() + " a"
+                + " JOIN verse v ON v.verse_id = a.verse_id";
+        switch (scope.getKind()) {
+            case BOOK:
+                sql += " JOIN poem p ON p.poem_id = v.poem_id WHERE p.book_id = ?";
+                break;
+            case POET:
+                sql += " JOIN poem p ON p.poem_id = v.poem_id WHERE p.poet_id = ?";
+                break;
+            case POEM:
+                sql += " WHERE v.poem_id = ?";
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported scope: " + scope);
+        }
+        sql += " GROUP BY " + key;
+        long start = System.currentTimeMillis();
+        Map<String, Integer> values = new HashMap<>();
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, scope.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    values.put(rs.getString("freq_key"), rs.getInt("freq"));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error loading {} frequencies for {}: {}", type.getTableName(), scope, e.getMessage(), e);
+            return null;
+        }
+        logger.info("Rolled up {} {} frequencies for {} in {} ms", values.size(), type.getTableName(), scope,
+                System.currentTimeMillis() - start);
+        return values;
+    }
+
+    static String keyExpression(AnnotationType type) {
+        return keyExpression(type, "");
+    }
+
+    private static String keyExpression(AnnotationType type, String alias) {
+        switch (type) {
+            case TOKEN:
+                return alias + "word";
+            case LEMMA:
+                return alias + "lemma";
+            case ROOT:
+                return alias + "root";
+            case SEGMENT:
+                return "CONCAT(" + alias + "prefix, " + alias + "stem, " + alias + "suffix)";
+            default:
+                throw new IllegalArgumentException("Unsupported annotation type: " + type);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dto.AnnotationType;
+import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class FrequencyStoreTest {
+
+    private FrequencyStore store;
+
+    @Mock
+    private IDatabaseConnection dbConnectionMock;
+
+    @Mock
+    private Connection connectionMock;
+
+    @Mock
+    private PreparedStatement preparedStatementMock;
+
+    @Mock
+    private ResultSet resultSetMock;
+
+    @BeforeEach
+    public void setUp() {
+        store = new FrequencyStore(dbConnectionMock);
+    }
+
+    private void stubLoad() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, true, false);
+        when(resultSetMock.getString("freq_key")).thenReturn("قلب", "ليل", "نجم");
+        when(resultSetMock.getInt("freq")).thenReturn(3, 7, 3);
+    }
+
+    @Test
+    public void testGetTopN_LoadsOnceAndSorts() throws SQLException {
+        stubLoad();
+
+        List<FrequencyDTO> top = store.getTopN(AnnotationType.TOKEN, 2);
+        List<FrequencyDTO> again = store.getTopN(AnnotationType.TOKEN, 3);
+
+        assertEquals(2, top.size());
+        assertEquals("ليل", top.get(0).getWord());
+        assertEquals(7, top.get(0).getFrequency());
+        assertEquals("قلب", top.get(1).getWord());
+        assertEquals(3, again.size());
+        assertEquals("نجم", again.get(2).getWord());
+        verify(preparedStatementMock, times(1)).executeQuery();
+    }
+
+    @Test
+    public void testAdd_UpdatesLoadedCounts() throws SQLException {
+        stubLoad();
+        store.getAll(AnnotationType.ROOT);
+
+        store.add(AnnotationType.ROOT, Arrays.asList("نجم", "نجم", "نجم", "نجم", "نجم", "صبح"));
+        List<FrequencyDTO> all = store.getAll(AnnotationType.ROOT);
+
+        assertEquals("نجم", all.get(0).getWord());
+        assertEquals(8, all.get(0).getFrequency());
+        assertEquals("صبح", all.get(all.size() - 1).getWord());
+        assertEquals(1, all.get(all.size() - 1).getFrequency());
+        verify(preparedStatementMock, times(1)).executeQuery();
+    }
+
+    @Test
+    public void testInvalidate_ReloadsOnNextRead() throws SQLException {
+        stubLoad();
+        store.getAll(AnnotationType.LEMMA);
+
+        store.invalidate(AnnotationType.LEMMA);
+        when(resultSetMock.next()).thenReturn(false);
+        List<FrequencyDTO> all = store.getAll(AnnotationType.LEMMA);
+
+        assertTrue(all.isEmpty());
+        verify(preparedStatementMock, times(2)).executeQuery();
+    }
+
+    @Test
+    public void testGetTopN_DatabaseError() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenThrow(new SQLException("Database error"));
+
+        assertTrue(store.getTopN(AnnotationType.SEGMENT, 10).isEmpty());
+    }
+
+    @Test
+    public void testGetTopN_NegativeN() {
+        assertThrows(IllegalArgumentException.class, () -> store.getTopN(AnnotationType.TOKEN, -1));
+    }
+
+    @Test
+    public void testSegmentKey() {
+        assertEquals("والقلب", FrequencyStore.segmentKey("وال", "قلب", ""));
+        assertNull(FrequencyStore.segmentKey(null, "قلب", ""));
+    }
+
+    @Test
+    public void testGetWindow_LoadsOnFirstUse() throws SQLException {
+        stubLoad();
+
+        FrequencyWindowDTO first = store.getWindow(AnnotationType.TOKEN, 0, 2);
+        FrequencyWindowDTO second = store.getWindow(AnnotationType.TOKEN, 2, 2);
+
+        assertEquals(13, first.getTotalOccurrences());
+        assertEquals(3, first.getUniqueItems());
+        assertEquals("ليل", first.getItems().get(0).getWord());
+        assertEquals("قلب", first.getItems().get(1).getWord());
+        assertEquals(1, second.getItems().size());
+        assertEquals("نجم", second.getItems().get(0).getWord());
+        assertEquals(10, second.getOccurrencesBefore());
+        verify(preparedStatementMock, times(1)).executeQuery();
+    }
+
+    @Test
+    public void testGetWindow_NullWhenLoadFails() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenThrow(new SQLException("Database error"));
+
+        assertNull(store.getWindow(AnnotationType.TOKEN, 0, 10));
+    }
+
+    @Test
+    public void testCompareKeys_CodePointOrder() {
+        assertTrue(FrequencyStore.compareKeys("قلب", "ليل") < 0);
+        assertTrue(FrequencyStore.compareKeys("قل", "قلب") < 0);
+        // String.compareTo would put the surrogate pair before U+FFFD.
+        assertTrue(FrequencyStore.compareKeys("\uFFFD", "\uD83D\uDE00") < 0);
+        assertEquals(0, FrequencyStore.compareKeys("نجم", "نجم"));
+    }
+
+    @Test
+    public void testGetWindow_TotalsAndOccurrencesBefore() throws SQLException {
+        stubLoad();
+        store.getTopN(AnnotationType.TOKEN, 1);
+        store.add(AnnotationType.TOKEN, Arrays.asList("صبح"));
+
+        FrequencyWindowDTO window = store.getWindow(AnnotationType.TOKEN, 1, 2);
+
+        assertEquals(14, window.getTotalOccurrences());
+        assertEquals(4, window.getUniqueItems());
+        assertEquals(7, window.getOccurrencesBefore());
+        assertEquals(2, window.getItems().size());
+        assertEquals("قلب", window.getItems().get(0).getWord());
+        assertEquals("نجم", window.getItems().get(1).getWord());
+    }
+
+    @Test
+    public void testScopedWindow_RolledUpOnceUntilInvalidated() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("WHERE p.book_id = ?"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, false, false);
+        when(resultSetMock.getString("freq_key")).thenReturn("قلب", "ليل");
+        when(resultSetMock.getInt("freq")).thenReturn(2, 5);
+
+        FrequencyWindowDTO first = store.getWindow(AnnotationType.LEMMA, FrequencyScope.book(3), 0, 1);
+        FrequencyWindowDTO second = store.getWindow(AnnotationType.LEMMA, FrequencyScope.book(3), 1, 1);
+
+        assertEquals("ليل", first.getItems().get(0).getWord());
+        assertEquals(7, first.getTotalOccurrences());
+        assertEquals(2, first.getUniqueItems());
+        assertEquals("قلب", second.getItems().get(0).getWord());
+        assertEquals(5, second.getOccurrencesBefore());
+        verify(preparedStatementMock, times(1)).executeQuery();
+        verify(preparedStatementMock).setInt(1, 3);
+
+        long changes = store.changeCount();
+        store.invalidateRollups();
+        FrequencyWindowDTO reloaded = store.getWindow(AnnotationType.LEMMA, FrequencyScope.book(3), 0, 10);
+
+        assertTrue(reloaded.getItems().isEmpty());
+        verify(preparedStatementMock, times(2)).executeQuery();
+        // Only the rollups were dropped; structures built from annotations are still current.
+        assertEquals(changes, store.changeCount());
+    }
+
+    @Test
+    public void testInvalidateScopes_MovesScopeCountOnly() {
+        long changes = store.changeCount();
+        long scopeChanges = store.scopeChangeCount();
+
+        store.invalidateScopes();
+
+        assertEquals(changes, store.changeCount());
+        assertEquals(scopeChanges + 1, store.scopeChangeCount());
+        store.add(AnnotationType.TOKEN, Arrays.asList("قلب"));
+        assertEquals(changes + 1, store.changeCount());
+    }
+}
@@ -0,0 +1,51 @@
+package dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A window of a frequency distribution: the entries ranked
+ * {@code offset .. offset + items.size() - 1}, most frequent first, together
+ * with totals over the whole distribution. {@code occurrencesBefore} is the
+ * sum of the frequencies ranked above the window, so percentages and
+ * cumulative percentages can be computed without the other entries.
+ */
+public class FrequencyWindowDTO {
+    private List<FrequencyDTO> items = new ArrayList<>();
+    private int offset;
+    private long totalOccurrences;
+    private long uniqueItems;
+    private long occurrencesBefore;
+
+    public FrequencyWindowDTO() {}
+
+    public FrequencyWindowDTO(List<FrequencyDTO> items, int offset, long totalOccurrences, long uniqueItems,
+            long occurrencesBefore) {
+        this.items = items;
+        this.offset = offset;
+        this.totalOccurrences = totalOccurrences;
+        this.uniqueItems = uniqueItems;
+        this.occurrencesBefore = occurrencesBefore;
+    }
+
+    public List<FrequencyDTO> getItems() { return items; }
+    public void setItems(List<FrequencyDTO> items) { this.items = items; }
+
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+
+    public long getTotalOccurrences() { return totalOccurrences; }
+    public void setTotalOccurrences(long totalOccurrences) { this.totalOccurrences = totalOccurrences; }
+
+    public long getUniqueItems() { return uniqueItems; }
+    public void setUniqueItems(long uniqueItems) { this.uniqueItems = uniqueItems; }
+
+    public long getOccurrencesBefore() { return occurrencesBefore; }
+    public void setOccurrencesBefore(long occurrencesBefore) { this.occurrencesBefore = occurrencesBefore; }
+
+    @Override
+    public String toString() {
+        return "FrequencyWindowDTO{offset=" + offset + ", items=" + items.size() + ", totalOccurrences="
+                + totalOccurrences + ", uniqueItems=" + uniqueItems + "}";
+    }
+}
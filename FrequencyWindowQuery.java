@@ -0,0 +1,90 @@
+package dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import dto.AnnotationType;
+import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
+
+/**
+ * Reads one window of a frequency distribution with {@code LIMIT}/{@code OFFSET}
+ * instead of fetching every distinct key, plus the totals needed for
+ * percentages. Shared by the four frequency DAOs; the ranking (frequency
+ * descending, then key) matches {@link FrequencyStore}. Ties are ordered by
+ * the key's bytes rather than the column collation, so they come out in the
+ * store's code point order.
+ */
+final class FrequencyWindowQuery {
+    private static final Logger logger = LogManager.getLogger(FrequencyWindowQuery.class);
+
+    private FrequencyWindowQuery() {
+    }
+
+    static FrequencyWindowDTO fetch(IDatabaseConnection dbConnection, AnnotationType type, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        String key = FrequencyStore.keyExpression(type);
+        String table = type.getTableName();
+        // GROUP BY on a NULL key yields one group that COUNT(DISTINCT) leaves out.
+        String totalsSql = "SELECT COUNT(*) AS total, COUNT(DISTINCT " + key + ") + COALESCE(MAX(" + key
+                + " IS NULL), 0) AS uniq FROM " + table;
+        String rankedSql = "SELECT " + key + " AS freq_key, COUNT(*) AS freq FROM " + table + " GROUP BY " + key
+                + " ORDER BY freq DESC, CAST(" + key + " AS BINARY)";
+        String windowSql = rankedSql + " LIMIT ? OFFSET ?";
+        String beforeSql = "SELECT COALESCE(SUM(freq), 0) AS before_total FROM (" + rankedSql + " LIMIT ?) ranked";
+
+        long start = System.currentTimeMillis();
+        try (Connection con = dbConnection.getConnection()) {
+            long total = 0;
+            long unique = 0;
+            try (PreparedStatement ps = con.prepareStatement(totalsSql);
+                    ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    total = rs.getLong("total");
+                    unique = rs.getLong("uniq");
+                }
+            }
+
+            List<FrequencyDTO> items = new ArrayList<>();
+            if (limit > 0 && offset < unique) {
+                try (PreparedStatement ps = con.prepareStatement(windowSql)) {
+                    ps.setInt(1, limit);
+                    ps.setInt(2, offset);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            items.add(new FrequencyDTO(rs.getString("freq_key"), rs.getInt("freq")));
+                        }
+                    }
+                }
+            }
+
+            long before = 0;
+            if (offset > 0) {
+                try (PreparedStatement ps = con.prepareStatement(beforeSql)) {
+                    ps.setInt(1, offset);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            before = rs.getLong("before_total");
+                        }
+                    }
+                }
+            }
+
+            logger.info("Fetched {} {} frequencies at offset {} ({} unique, {} total) in {} ms", items.size(),
+                    table, offset, unique, total, System.currentTimeMillis() - start);
+            return new FrequencyWindowDTO(items, offset, total, unique, before);
+        } catch (SQLException e) {
+            logger.error("Error fetching {} frequency window: {}", table, e.getMessage(), e);
+            return new FrequencyWindowDTO(new ArrayList<>(), offset, 0, 0, 0);
+        }
+    }
+}
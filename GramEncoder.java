@@ -0,0 +1,102 @@
+package bl.services;
+
+import java.util.List;
+
+/**
+ * Encodes character n-grams and words as {@code long} codes so they can be
+ * counted and intersected without allocating a {@code String} per gram.
+ *
+ * Strings of up to three characters are packed exactly (length in bits 48-49,
+ * UTF-16 units below). Longer strings are hashed to 63 bits with the top bit
+ * set, so the two ranges never overlap; a hash collision between two distinct
+ * grams is possible in principle but vanishingly unlikely at corpus sizes.
+ */
+public final class GramEncoder {
+
+	private static final long[] EMPTY = new long[0];
+
+	private GramEncoder() {
+	}
+
+	public static long encode(CharSequence text, int from, int length) {
+		if (length <= 3) {
+			long code = (long) length << 48;
+			for (int i = 0; i < length; i++) {
+				code |= (long) text.charAt(from + i) << (16 * i);
+			}
+			return code;
+		}
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < length; i++) {
+			h ^= text.charAt(from + i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h | Long.MIN_VALUE;
+	}
+
+	public static long encode(String text) {
+		return encode(text, 0, text.length());
+	}
+
+	/**
+	 * Codes of the character n-grams of a text, produced exactly as
+	 * {@link NGram#generateNGrams} produces the gram strings: too-short input
+	 * gives no grams, otherwise whitespace is trimmed and collapsed first.
+	 */
+	public static long[] encodeNGrams(String text, int n) {
+		if (text == null || text.length() < n) {
+			return EMPTY;
+		}
+		String normalized = text.trim().replaceAll("\\s+", " ");
+		int count = normalized.length() - n + 1;
+		if (count <= 0) {
+			return EMPTY;
+		}
+		long[] codes = new long[count];
+		for (int i = 0; i < count; i++) {
+			codes[i] = encode(normalized, i, n);
+		}
+		return codes;
+	}
+
+	public static long[] encodeAll(List<String> values) {
+		long[] codes = new long[values.size()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = encode(values.get(i));
+		}
+		return codes;
+	}
+
+	public static LongIntHashMap count(long[] codes) {
+		LongIntHashMap counts = new LongIntHashMap(codes.length);
+		for (long code : codes) {
+			counts.addTo(code, 1);
+		}
+		return counts;
+	}
+
+	/**
+	 * Size of the multiset intersection: every element of {@code a} matches
+	 * at most one not-yet-matched equal element of {@code b}. Linear in the
+	 * combined length.
+	 */
+	public static int intersection(long[] a, long[] b) {
+		if (a.length == 0 || b.length == 0) {
+			return 0;
+		}
+		LongIntHashMap remaining = count(b);
+		int matches = 0;
+		for (long code : a) {
+			if (remaining.get(code, 0) > 0) {
+				remaining.addTo(code, -1);
+				matches++;
+			}
+		}
+		return matches;
+	}
+}
@@ -1,7 +1,9 @@
 package bl;
 
 import bl.services.ILemmaBO;
+import bl.services.IMorphologyBO;
 import bl.services.INGram;
+import bl.services.INearDuplicateBO;
 import bl.services.IRootBO;
 import bl.services.ISegmentBO;
 import bl.services.ITokenBO;
@@ -9,6 +11,7 @@ import bl.services.IFrequencyBO;
 import dto.BookDTO;
 
 public interface IBLFacade extends IBookBO, IPoetBO, IPoemBO, IVerseBO, IImportBookBO, IBrowseBO, ITokenBO, ILemmaBO,
-        IRootBO, ISegmentBO, INGram, IIndexBO, IFrequencyBO {
+        IRootBO, ISegmentBO, INGram, IIndexBO, IFrequencyBO, IMorphologyBO,
+        INearDuplicateBO {
     int getBookID(BookDTO book);
 }
\ No newline at end of file
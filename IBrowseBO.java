@@ -1,7 +1,9 @@
 package bl;
 
 import java.util.List;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 public interface IBrowseBO {
     List<BrowseResultDTO> browseByLemma(String lemma);
@@ -12,4 +14,6 @@ public interface IBrowseBO {
     List<String> getDistinctRoot();
     List<String> getDistinctSegment();
     List<String> getDistinctToken();
+    List<String> findTerms(AnnotationType type, String prefix, int limit);
+    PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize);
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package dal;
 
 import java.util.List;
+import dto.AnnotationType;
 import dto.BrowseResultDTO;
+import dto.PageDTO;
 
 public interface IBrowseDAO {
     List<BrowseResultDTO> browseByLemma(String lemma);
@@ -12,4 +14,16 @@ public interface IBrowseDAO {
     List<String> getDistinctRoot();
     List<String> getDistinctSegment();
     List<String> getDistinctToken();
+    /**
+     * Up to {@code limit} distinct terms of the type starting with
+     * {@code prefix}, in ascending order, served from a cached dictionary.
+     */
+    List<String> findTerms(AnnotationType type, String prefix, int limit);
+    /**
+     * One page of the verses the matching browseBy* method returns, in verse
+     * id order, i.e. import order, so an imported poem's verses stay together.
+     * Pass {@code null} as cursor for the first page and then the page's
+     * {@link PageDTO#getNextCursor()}.
+     */
+    PageDTO<BrowseResultDTO> browsePage(AnnotationType type, String value, String cursor, int pageSize);
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package bl.services;
 
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyScope;
+import dto.FrequencyWindowDTO;
 import java.util.List;
 
 public interface IFrequencyBO {
@@ -11,4 +14,24 @@ public interface IFrequencyBO {
     List<FrequencyDTO> getSegmentFrequencies();
 
     List<FrequencyDTO> getTokenFrequencies();
+
+    /**
+     * The {@code n} most frequent tokens, lemmas, roots or segments, most
+     * frequent first, served from the incrementally maintained counts.
+     */
+    List<FrequencyDTO> getTopN(AnnotationType type, int n);
+
+    /**
+     * The entries ranked {@code offset} to {@code offset + limit - 1}, with
+     * total and unique counts over the whole distribution. Served from the
+     * in-memory counts when they are loaded, otherwise limited in the query.
+     */
+    FrequencyWindowDTO getFrequencyWindow(AnnotationType type, int offset, int limit);
+
+    /**
+     * Like {@link #getFrequencyWindow(AnnotationType, int, int)}, counted only
+     * over the verses of one book, poet or poem. Scoped counts are cached
+     * until the next import, edit or delete that can affect them.
+     */
+    FrequencyWindowDTO getFrequencyWindow(AnnotationType type, FrequencyScope scope, int offset, int limit);
 }
@@ -2,6 +2,7 @@ package bl;
 
 import dto.ImportResultDTO;
 import java.io.File;
+import java.util.function.Consumer;
 
 
 /***
@@ -9,4 +10,20 @@ import java.io.File;
  */
 public interface IImportBookBO {
     ImportResultDTO importBook(File file);
+
+    /**
+     * Imports one file; with {@code analyze} the inserted verses are then
+     * annotated (tokens, lemmas, roots, segments) in the same call.
+     */
+    ImportResultDTO importBook(File file, boolean analyze);
+
+    /**
+     * Imports every {@code .txt} file of a directory, parsing and writing
+     * several files at once, and with {@code analyze} annotates each book's
+     * new verses right after it is written. {@code onFileDone} (may be null)
+     * is called from a worker thread with each file's result as it finishes;
+     * the returned summary totals all files and lists them in
+     * {@link ImportResultDTO#getFileResults()}.
+     */
+    ImportResultDTO importDirectory(File directory, boolean analyze, Consumer<ImportResultDTO> onFileDone);
 }
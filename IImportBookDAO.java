@@ -2,6 +2,8 @@ package dal;
 
 import java.util.List;
 import dto.BookDTO;
+import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
 import dto.PoemDTO;
 import dto.VerseDTO;
 
@@ -12,4 +14,12 @@ import dto.VerseDTO;
 public interface IImportBookDAO {
     void saveImportedBook(BookDTO book, List<PoemDTO> poems, List<VerseDTO> verses);
     void savePoem(PoemDTO poem, List<String> verses, BookDTO book);
+    /**
+     * Imports the poems of one book over a single connection, with batched
+     * inserts and periodic commits; the book is created unless one with the
+     * same title exists. Poems without verses are skipped. The result counts
+     * only committed rows, lists the ids of the committed verses and carries
+     * an error message if the import stopped early.
+     */
+    ImportResultDTO importBookBulk(BookDTO book, Iterable<ParsedPoemDTO> poems);
 }
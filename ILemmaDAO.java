@@ -5,7 +5,8 @@ import dto.LemmaDTO;
 
 public interface ILemmaDAO {
     void createLemma(LemmaDTO lemma);
-    void createLemmaBatch(List<LemmaDTO> lemmas);
+    /** Inserts the rows in one transaction; returns how many were committed, 0 if it rolled back. */
+    int createLemmaBatch(List<LemmaDTO> lemmas);
     LemmaDTO getLemmaById(int lemmaId);
     List<LemmaDTO> getLemmasByVerseId(int verseId);
     List<LemmaDTO> getAllLemmas();
@@ -2,7 +2,14 @@ package dal;
 
 import java.util.List;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 
 public interface ILemmaFrequencyDAO {
     List<FrequencyDTO> getLemmaFrequency();
+
+    /**
+     * The lemmas ranked {@code offset} to {@code offset + limit - 1} by
+     * frequency, with totals over all lemmas; offset 0 gives the top N.
+     */
+    FrequencyWindowDTO getLemmaFrequencyWindow(int offset, int limit);
 }
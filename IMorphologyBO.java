@@ -0,0 +1,17 @@
+package bl.services;
+
+import java.util.Collection;
+
+import dto.AnalysisResultDTO;
+
+public interface IMorphologyBO {
+
+	AnalysisResultDTO analyzeAndSaveAllVerses();
+
+	/**
+	 * Annotates only the given verses, e.g. those a book import just inserted,
+	 * skipping tables that already hold rows for a verse.
+	 */
+	AnalysisResultDTO analyzeAndSaveVerses(Collection<Integer> verseIds);
+
+}
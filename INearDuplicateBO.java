@@ -0,0 +1,15 @@
+package bl.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import dto.SimilarPairDTO;
+
+public interface INearDuplicateBO {
+
+	List<SimilarPairDTO> findNearDuplicatePairs(int n, double minJaccard);
+
+	int exportNearDuplicatePairs(int n, double minJaccard, File output) throws IOException;
+
+}
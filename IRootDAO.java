@@ -5,7 +5,8 @@ import dto.RootDTO;
 
 public interface IRootDAO {
     void createRoot(RootDTO root);
-    void createRootBatch(List<RootDTO> roots);
+    /** Inserts the rows in one transaction; returns how many were committed, 0 if it rolled back. */
+    int createRootBatch(List<RootDTO> roots);
     RootDTO getRootById(int rootId);
     List<RootDTO> getRootsByVerseId(int verseId);
     List<RootDTO> getAllRoots();
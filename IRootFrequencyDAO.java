@@ -2,7 +2,14 @@ package dal;
 
 import java.util.List;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 
 public interface IRootFrequencyDAO {
     List<FrequencyDTO> getRootFrequency();
+
+    /**
+     * The roots ranked {@code offset} to {@code offset + limit - 1} by
+     * frequency, with totals over all roots; offset 0 gives the top N.
+     */
+    FrequencyWindowDTO getRootFrequencyWindow(int offset, int limit);
 }
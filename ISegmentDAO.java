@@ -5,7 +5,8 @@ import dto.SegmentDTO;
 
 public interface ISegmentDAO {
     void createSegment(SegmentDTO segment);
-    void createSegmentBatch(List<SegmentDTO> segments);
+    /** Inserts the rows in one transaction; returns how many were committed, 0 if it rolled back. */
+    int createSegmentBatch(List<SegmentDTO> segments);
     SegmentDTO getSegmentById(int segmentId);
     List<SegmentDTO> getSegmentsByVerseId(int verseId);
     List<SegmentDTO> getAllSegments();
@@ -2,7 +2,14 @@ package dal;
 
 import java.util.List;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 
 public interface ISegmentFrequencyDAO {
     List<FrequencyDTO> getSegmentFrequency();
+
+    /**
+     * The segments ranked {@code offset} to {@code offset + limit - 1} by
+     * frequency, with totals over all segments; offset 0 gives the top N.
+     */
+    FrequencyWindowDTO getSegmentFrequencyWindow(int offset, int limit);
 }
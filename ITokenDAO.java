@@ -5,7 +5,8 @@ import dto.TokenDTO;
 
 public interface ITokenDAO {
     void createToken(TokenDTO token);
-    void createTokenBatch(List<TokenDTO> tokens);
+    /** Inserts the rows in one transaction; returns how many were committed, 0 if it rolled back. */
+    int createTokenBatch(List<TokenDTO> tokens);
     TokenDTO getTokenById(int tokenId);
     List<TokenDTO> getTokensByVerseId(int verseId);
     List<TokenDTO> getAllTokens();
@@ -2,7 +2,14 @@ package dal;
 
 import java.util.List;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 
 public interface ITokenFrequencyDAO {
     List<FrequencyDTO> getTokenFrequency();
+
+    /**
+     * The tokens ranked {@code offset} to {@code offset + limit - 1} by
+     * frequency, with totals over all tokens; offset 0 gives the top N.
+     */
+    FrequencyWindowDTO getTokenFrequencyWindow(int offset, int limit);
 }
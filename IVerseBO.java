@@ -1,6 +1,7 @@
 package bl;
 
 import java.util.List;
+import dto.PageDTO;
 import dto.VerseDTO;
 
 public interface IVerseBO {
@@ -15,4 +16,8 @@ public interface IVerseBO {
     List<VerseDTO> searchExactString(String text);
 
     List<VerseDTO> searchRegexPattern(String pattern);
+
+    PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize);
+
+    PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize);
 }
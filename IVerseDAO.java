@@ -1,7 +1,12 @@
 package dal;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import dto.AnnotationType;
+import dto.PageDTO;
 import dto.VerseDTO;
 
 public interface IVerseDAO {
@@ -10,6 +15,30 @@ public interface IVerseDAO {
     void updateVerse(VerseDTO verse);
     void deleteVerse(int verseId);
     public List<VerseDTO> getAllVerses();
+    /**
+     * Reads all verses in the same order as {@link #getAllVerses()} but hands
+     * them to the consumer in chunks of at most {@code chunkSize}, so callers
+     * never hold the whole table in memory. Returns the number of verses read;
+     * throws {@link IllegalStateException} if the read fails part-way.
+     */
+    int streamVerses(int chunkSize, Consumer<List<VerseDTO>> consumer);
+    /**
+     * Streams, like {@link #streamVerses}, only the verses that have no rows
+     * yet in at least one of the given annotation tables. One set-based query
+     * replaces a per-verse existence check.
+     */
+    int streamUnprocessedVerses(Set<AnnotationType> types, int chunkSize, Consumer<List<VerseDTO>> consumer);
+    /**
+     * The given verses, ordered by poem and verse number; ids that do not
+     * exist are left out. Throws {@link IllegalStateException} if they cannot
+     * be read, rather than returning fewer verses.
+     */
+    List<VerseDTO> getVersesByIds(Collection<Integer> verseIds);
+    /**
+     * Returns which of the given verses already have rows in the annotation
+     * table. Throws {@link IllegalStateException} if that cannot be checked.
+     */
+    Set<Integer> findAnnotatedVerseIds(AnnotationType type, Collection<Integer> verseIds);
     /***
      * @author shahn
      */
@@ -17,4 +46,12 @@ public interface IVerseDAO {
 //    List<VerseDTO>searchRegexPattern(String patt);
 	List<VerseDTO> searchExactString(String searchText);
 	List<VerseDTO> searchRegexPattern(String pattern);
+    /**
+     * One page of {@link #searchExactString} results in verse id order. Pass
+     * {@code null} as cursor for the first page and then the page's
+     * {@link PageDTO#getNextCursor()}.
+     */
+    PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize);
+    /** One page of {@link #searchRegexPattern} results in verse id order. */
+    PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize);
 }
@@ -0,0 +1,58 @@
+package dal;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of book ids by title and of poet ids known to exist, so
+ * imports and the index view do not look them up once per poem or per click.
+ *
+ * Only committed rows found or created by the DAOs are cached, never a miss.
+ * BookDAO drops a title when a book with it is created, renamed or deleted,
+ * and PoetDAO drops a poet when it is deleted.
+ */
+public final class IdentityCache {
+    private static final Map<String, Integer> BOOK_IDS = new ConcurrentHashMap<>();
+    private static final Set<Integer> POET_IDS = ConcurrentHashMap.newKeySet();
+
+    private IdentityCache() {
+    }
+
+    /** Cached id of the book with this title, or {@code null} if unknown. */
+    public static Integer bookId(String title) {
+        return title == null ? null : BOOK_IDS.get(title);
+    }
+
+    public static void putBook(String title, int bookId) {
+        if (title != null && bookId > 0) {
+            BOOK_IDS.put(title, bookId);
+        }
+    }
+
+    public static void removeBook(String title) {
+        if (title != null) {
+            BOOK_IDS.remove(title);
+        }
+    }
+
+    /** Whether the poet is known to exist. */
+    public static boolean hasPoet(int poetId) {
+        return POET_IDS.contains(poetId);
+    }
+
+    public static void putPoet(int poetId) {
+        if (poetId > 0) {
+            POET_IDS.add(poetId);
+        }
+    }
+
+    public static void removePoet(int poetId) {
+        POET_IDS.remove(poetId);
+    }
+
+    public static void clear() {
+        BOOK_IDS.clear();
+        POET_IDS.clear();
+    }
+}
@@ -1,14 +1,19 @@
 package bl;
 
+import bl.services.IMorphologyBO;
+import bl.services.MorphologyPipeline;
 import dal.IDALFacade;
+import dto.AnalysisResultDTO;
 import dto.BookDTO;
 import dto.ImportResultDTO;
-import dto.PoemDTO;
 
 import java.io.*;
 import java.sql.Date;
-import java.util.*;
-import java.util.regex.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
 
 /***
  * @author shahn
@@ -16,13 +21,24 @@ import java.util.regex.*;
 
 public class ImportBookBO implements IImportBookBO {
     private IDALFacade dal;
+    private IMorphologyBO morphology;
 
     public ImportBookBO(IDALFacade dal) {
         this.dal = dal;
     }
 
+    public ImportBookBO(IDALFacade dal, IMorphologyBO morphology) {
+        this.dal = dal;
+        this.morphology = morphology;
+    }
+
     @Override
     public ImportResultDTO importBook(File file) {
+        return importBook(file, false);
+    }
+
+    @Override
+    public ImportResultDTO importBook(File file, boolean analyze) {
         // Validate input parameters
         if (file == null) {
             throw new IllegalArgumentException("File cannot be null");
@@ -33,81 +49,104 @@ public class ImportBookBO implements IImportBookBO {
 
         ImportResultDTO result = new ImportResultDTO();
 
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), "UTF-8"))) {
-            String line;
-            while ((line = br.readLine()) != null)
-                sb.append(line).append("\n");
+        // Poems are parsed as the import consumes them, so only the poems of
+        // the current insert batch are held in memory.
+        String bookTitle;
+        ImportResultDTO saved;
+        try (BookFileParser parser = new BookFileParser(new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), "UTF-8")))) {
+            BookDTO book = newBook(parser.getBookTitle());
+            bookTitle = book.getTitle();
+
+            try {
+                saved = dal.importBookBulk(book, () -> parser);
+            } catch (Exception e) {
+                result.setMessage("❌ Error saving book: " + e.getMessage());
+                return result;
+            }
         } catch (IOException e) {
             result.setMessage("❌ Error reading file: " + e.getMessage());
             return result;
         }
 
-        String text = sb.toString();
-        String bookTitle = extractBetween(text, "الكتاب :", "\n").trim();
-        if (bookTitle.isEmpty())
-            bookTitle = "Untitled";
-
-        BookDTO book = new BookDTO();
-        book.setTitle(bookTitle);
-        book.setCompiler("Unknown");
-        book.setEra(new Date(System.currentTimeMillis()));
-
-        try {
-            dal.createBook(book);
-        } catch (Exception e) {
-            result.setMessage("❌ Error saving book: " + e.getMessage());
-            return result;
+        ImportResultDTO imported = summarize(bookTitle, saved);
+        if (analyze) {
+            analyzeImported(morphology(), imported, saved.getVerseIds());
         }
+        return imported;
+    }
 
-        Pattern poemPattern = Pattern.compile("\\[(.*?)\\]");
-        Matcher poemMatcher = poemPattern.matcher(text);
-
-        int poemsCount = 0;
-        while (poemMatcher.find()) {
-            String poemTitle = poemMatcher.group(1).trim();
-
-            int start = poemMatcher.end();
-            int next = text.indexOf("[", start);
-            String chunk = (next == -1) ? text.substring(start) : text.substring(start, next);
-
-            Pattern versePattern = Pattern.compile("\\((.*?)\\)");
-            Matcher vm = versePattern.matcher(chunk);
-            List<String> verses = new ArrayList<>();
-            while (vm.find())
-                verses.add(vm.group(1).trim());
-
-            if (verses.isEmpty())
-                continue;
+    @Override
+    public ImportResultDTO importDirectory(File directory, boolean analyze, Consumer<ImportResultDTO> onFileDone) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException("Not a directory: " + directory.getAbsolutePath());
+        }
+        File[] files = directory.listFiles((dir, name) -> name.toLowerCase().endsWith(".txt"));
+        List<File> sorted = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+        sorted.sort(Comparator.comparing(File::getName));
+        return new DirectoryImporter(dal, analyze ? morphology() : null, DirectoryImporter.defaultParsers(),
+                DirectoryImporter.defaultWriters()).run(directory.getName(), sorted, onFileDone);
+    }
 
-            PoemDTO poem = new PoemDTO();
-            poem.setTitle(poemTitle);
-            poem.setBookId(0);
-            poem.setPoetId(0);
+    private synchronized IMorphologyBO morphology() {
+        if (morphology == null) {
+            morphology = new MorphologyPipeline(dal, dal, dal, dal, dal);
+        }
+        return morphology;
+    }
 
-            try {
-                dal.savePoem(poem, verses, book);
-                poemsCount++;
-            } catch (Exception e) {
-                System.err.println("⚠ Error saving poem: " + poemTitle + " -> " + e.getMessage());
-            }
+    /**
+     * Post-import stage: annotates just the verses the import inserted, so the
+     * book is searchable and browsable without a corpus-wide analysis run. A
+     * failure here is reported but leaves the imported book in place.
+     */
+    static void analyzeImported(IMorphologyBO morphology, ImportResultDTO result, int[] verseIds) {
+        if (verseIds.length == 0) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(verseIds.length);
+        for (int id : verseIds) {
+            ids.add(id);
+        }
+        try {
+            AnalysisResultDTO analysis = morphology.analyzeAndSaveVerses(ids);
+            result.setAnalysis(analysis);
+            result.setMessage(result.getMessage() + " Analysed " + analysis.getVersesProcessed() + " verses: "
+                    + analysis.getTokensSaved() + " tokens, " + analysis.getLemmasSaved() + " lemmas, "
+                    + analysis.getRootsSaved() + " roots, " + analysis.getSegmentsSaved() + " segments.");
+        } catch (RuntimeException e) {
+            result.setMessage(result.getMessage() + " ⚠ Analysis failed: " + e.getMessage());
         }
+    }
 
-        result.setBookTitle(bookTitle);
-        result.setPoemsImported(poemsCount);
-        result.setMessage("✅ Imported " + poemsCount + " poems successfully.");
-        return result;
+    /** The book a file is imported into; files without a title go to "Untitled". */
+    static BookDTO newBook(String title) {
+        BookDTO book = new BookDTO();
+        book.setTitle(title == null || title.isEmpty() ? "Untitled" : title);
+        book.setCompiler("Unknown");
+        book.setEra(new Date(System.currentTimeMillis()));
+        return book;
     }
 
-    private String extractBetween(String text, String start, String end) {
-        int s = text.indexOf(start);
-        if (s == -1)
-            return "";
-        s += start.length();
-        int e = text.indexOf(end, s);
-        if (e == -1)
-            e = text.length();
-        return text.substring(s, e);
+    /** Result of one file, with status and message, from what the DAL saved. */
+    static ImportResultDTO summarize(String bookTitle, ImportResultDTO saved) {
+        ImportResultDTO result = new ImportResultDTO();
+        result.setBookTitle(bookTitle);
+        result.setPoemsImported(saved.getPoemsImported());
+        result.setVersesImported(saved.getVersesImported());
+        result.setElapsedMillis(saved.getElapsedMillis());
+        if (saved.getMessage() != null) {
+            result.setStatus(saved.getPoemsImported() > 0 ? ImportResultDTO.Status.PARTIAL
+                    : ImportResultDTO.Status.FAILED);
+            result.setMessage("⚠ Imported " + saved.getPoemsImported() + " poems, then failed: " + saved.getMessage());
+            return result;
+        }
+        result.setStatus(ImportResultDTO.Status.IMPORTED);
+        result.setMessage("✅ Imported " + saved.getPoemsImported() + " poems successfully ("
+                + saved.getVersesImported() + " verses, " + saved.getRowsPerSecond() + " rows/sec).");
+        return result;
     }
 }
@@ -1,18 +1,25 @@
 package bl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,9 +27,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import bl.services.IMorphologyBO;
 import dal.IDALFacade;
+import dto.AnalysisResultDTO;
 import dto.BookDTO;
 import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
 import dto.PoemDTO;
 
 public class ImportBookBOTest {
@@ -30,6 +40,9 @@ public class ImportBookBOTest {
     @Mock
     private IDALFacade dalFacadeMock;
 
+    @Mock
+    private IMorphologyBO morphologyMock;
+
     private ImportBookBO importBookBO;
     private File tempFile;
 
@@ -90,14 +103,30 @@ public class ImportBookBOTest {
         // It seems void/boolean. Mockito mocks void methods by doing nothing by
         // default.
 
+        ImportResultDTO saved = new ImportResultDTO("Test Book Title", 2, null);
+        saved.setVersesImported(3);
+        saved.setElapsedMillis(10);
+        List<ParsedPoemDTO> parsed = new ArrayList<>();
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenAnswer(invocation -> {
+            // The poems are streamed from the file, so read them while it is open.
+            Iterable<ParsedPoemDTO> poems = invocation.getArgument(1);
+            poems.forEach(parsed::add);
+            return saved;
+        });
+
         ImportResultDTO result = importBookBO.importBook(tempFile);
 
         assertTrue(result.getMessage().contains("Imported 2 poems successfully"));
+        assertTrue(result.getMessage().contains("500 rows/sec"));
         assertEquals("Test Book Title", result.getBookTitle());
         assertEquals(2, result.getPoemsImported());
+        assertEquals(3, result.getVersesImported());
 
-        verify(dalFacadeMock, times(1)).createBook(any(BookDTO.class));
-        verify(dalFacadeMock, times(2)).savePoem(any(PoemDTO.class), anyList(), any(BookDTO.class));
+        assertEquals(2, parsed.size());
+        assertEquals(2, parsed.get(0).getVerses().size());
+        assertEquals("Poem 2", parsed.get(1).getTitle());
+        verify(dalFacadeMock, times(1)).importBookBulk(any(BookDTO.class), any());
+        verify(dalFacadeMock, never()).savePoem(any(PoemDTO.class), anyList(), any(BookDTO.class));
     }
 
     @Test
@@ -105,10 +134,68 @@ public class ImportBookBOTest {
         String content = "No title marker here\n" +
                 "[Poem 1]\n(Verse 1)";
         createTempFile(content);
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenReturn(new ImportResultDTO("Untitled", 1, null));
 
         ImportResultDTO result = importBookBO.importBook(tempFile);
 
-        assertEquals("Untitled", result.getBookTitle()); // Although logic says createBook is called with "Untitled"
-        verify(dalFacadeMock, times(1)).createBook(argThat(book -> book.getTitle().equals("Untitled")));
+        assertEquals("Untitled", result.getBookTitle()); // The book is created by the bulk import under "Untitled"
+        verify(dalFacadeMock, times(1)).importBookBulk(argThat(book -> book.getTitle().equals("Untitled")), any());
+    }
+
+    @Test
+    public void testImportBook_PartialFailureReported() throws IOException {
+        createTempFile("الكتاب : Book\n[Poem 1]\n(Verse 1)");
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any()))
+                .thenReturn(new ImportResultDTO("Book", 0, "Import stopped after 0 poems: Deadlock"));
+
+        ImportResultDTO result = importBookBO.importBook(tempFile);
+
+        assertEquals(0, result.getPoemsImported());
+        assertTrue(result.getMessage().contains("Deadlock"));
+    }
+
+    @Test
+    public void testImportBook_AnalyzesImportedVerses() throws IOException {
+        createTempFile("الكتاب : Book\n[Poem 1]\n(Verse 1)\n(Verse 2)");
+        ImportResultDTO saved = new ImportResultDTO("Book", 1, null);
+        saved.setVersesImported(2);
+        saved.setVerseIds(new int[] { 41, 42 });
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenReturn(saved);
+        when(morphologyMock.analyzeAndSaveVerses(anyCollection()))
+                .thenReturn(new AnalysisResultDTO(2, 6, 6, 6, 6, 5));
+
+        ImportResultDTO result = new ImportBookBO(dalFacadeMock, morphologyMock).importBook(tempFile, true);
+
+        verify(morphologyMock).analyzeAndSaveVerses(Arrays.asList(41, 42));
+        assertEquals(2, result.getAnalysis().getVersesProcessed());
+        assertTrue(result.getMessage().contains("Analysed 2 verses"));
+    }
+
+    @Test
+    public void testImportBook_ReportsFailedAnalysis() throws IOException {
+        createTempFile("الكتاب : Book\n[Poem 1]\n(Verse 1)");
+        ImportResultDTO saved = new ImportResultDTO("Book", 1, null);
+        saved.setVerseIds(new int[] { 41 });
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenReturn(saved);
+        when(morphologyMock.analyzeAndSaveVerses(anyCollection()))
+                .thenThrow(new IllegalStateException("Could not read verses by id: Connection refused"));
+
+        ImportResultDTO result = new ImportBookBO(dalFacadeMock, morphologyMock).importBook(tempFile, true);
+
+        assertNull(result.getAnalysis());
+        assertTrue(result.getMessage().contains("Analysis failed: Could not read verses by id"));
+    }
+
+    @Test
+    public void testImportBook_WithoutAnalysis() throws IOException {
+        createTempFile("الكتاب : Book\n[Poem 1]\n(Verse 1)");
+        ImportResultDTO saved = new ImportResultDTO("Book", 1, null);
+        saved.setVerseIds(new int[] { 41 });
+        when(dalFacadeMock.importBookBulk(any(BookDTO.class), any())).thenReturn(saved);
+
+        ImportResultDTO result = new ImportBookBO(dalFacadeMock, morphologyMock).importBook(tempFile);
+
+        verify(morphologyMock, never()).analyzeAndSaveVerses(anyCollection());
+        assertNull(result.getAnalysis());
     }
 }
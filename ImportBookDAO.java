@@ -5,9 +5,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dto.BookDTO;
+import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
 import dto.PoemDTO;
 import dto.VerseDTO;
 import org.apache.logging.log4j.LogManager;
@@ -16,6 +23,21 @@ import org.apache.logging.log4j.Logger;
 public class ImportBookDAO implements IImportBookDAO {
     private static final Logger logger = LogManager.getLogger(ImportBookDAO.class);
 
+    /** Poems inserted per JDBC batch by {@link #importBookBulk}. */
+    static final int POEM_BATCH_SIZE = 200;
+    /** Verses written between commits by {@link #importBookBulk}. */
+    static final int COMMIT_INTERVAL = 5000;
+
+    private static final String POEM_INSERT_SQL = "INSERT INTO poem (title, poet_id, book_id) VALUES (?, ?, ?)";
+    private static final String VERSE_INSERT_SQL = "INSERT INTO verse (poem_id, verse_no, txt) VALUES (?, ?, ?)";
+
+    /**
+     * One lock per book title. Parallel bulk imports of files with the same
+     * title resolve it one at a time, so the second finds the book the first
+     * committed instead of inserting another row.
+     */
+    private static final Map<String, Object> BOOK_LOCKS = new ConcurrentHashMap<>();
+
     private final IDatabaseConnection dbConnection;
 
     public ImportBookDAO() {
@@ -51,6 +73,13 @@ public class ImportBookDAO implements IImportBookDAO {
                 }
 
                 con.commit();
+                // A second book may now share the title; let the next lookup decide.
+                IdentityCache.removeBook(book.getTitle());
+                for (PoemDTO poem : poems) {
+                    IdentityCache.putPoet(poem.getPoetId());
+                }
+                DataVersion.bump();
+                FrequencyStore.getShared().invalidateRollups();
                 logger.info("Successfully imported book: {}", book.getTitle());
             } catch (SQLException e) {
                 con.rollback();
@@ -89,6 +118,10 @@ public class ImportBookDAO implements IImportBookDAO {
                 }
 
                 con.commit();
+                IdentityCache.putBook(book.getTitle(), bookId);
+                IdentityCache.putPoet(poetId);
+                DataVersion.bump();
+                FrequencyStore.getShared().invalidateRollups();
                 logger.info("Successfully saved poem: {}", poem.getTitle());
             } catch (SQLException e) {
                 con.rollback();
@@ -100,6 +133,196 @@ public class ImportBookDAO implements IImportBookDAO {
         }
     }
 
+    @Override
+    public ImportResultDTO importBookBulk(BookDTO book, Iterable<ParsedPoemDTO> poems) {
+        ImportResultDTO result = new ImportResultDTO();
+        result.setBookTitle(book.getTitle());
+        long start = System.nanoTime();
+
+        try (Connection con = dbConnection.getConnection()) {
+            con.setAutoCommit(false);
+            BulkInsert insert = null;
+            try {
+                int bookId;
+                synchronized (BOOK_LOCKS.computeIfAbsent(book.getTitle(), title -> new Object())) {
+                    bookId = getOrCreateBook(con, book);
+                    con.commit();
+                    IdentityCache.putBook(book.getTitle(), bookId);
+                }
+                book.setBookId(bookId);
+
+                insert = new BulkInsert(con, bookId);
+                for (ParsedPoemDTO poem : poems) {
+                    if (poem.getVerses() == null || poem.getVerses().isEmpty()) {
+                        continue;
+                    }
+                    insert.add(poem);
+                }
+                insert.finish();
+                logger.info("Bulk imported book '{}': {} poems, {} verses", book.getTitle(),
+                        insert.committedPoems, insert.committedVerses);
+            } catch (SQLException | RuntimeException e) {
+                // Runtime failures include read errors of a streaming poem source.
+                con.rollback();
+                logger.error("Error bulk importing book '{}', rolled back to last commit: {}",
+                        book.getTitle(), e.getMessage(), e);
+                result.setMessage("Import stopped after " + (insert == null ? 0 : insert.committedPoems)
+                        + " poems: " + e.getMessage());
+            } finally {
+                if (insert != null) {
+                    insert.close();
+                    result.setPoemsImported(insert.committedPoems);
+                    result.setVersesImported(insert.committedVerses);
+                    result.setVerseIds(Arrays.copyOf(insert.verseIds, insert.committedVerses));
+                    if (insert.committedPoems > 0) {
+                        DataVersion.bump();
+                        FrequencyStore.getShared().invalidateRollups();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Database connection error during bulk import: {}", e.getMessage(), e);
+            result.setMessage("Database connection error: " + e.getMessage());
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Bulk import of '{}' took {} ms ({} rows/sec)", book.getTitle(), result.getElapsedMillis(),
+                result.getRowsPerSecond());
+        return result;
+    }
+
+    /**
+     * Writes the poems of one book over a single connection. Poems are
+     * buffered and inserted {@value #POEM_BATCH_SIZE} at a time as one JDBC
+     * batch whose generated keys give the poem ids; their verses then go in
+     * as a second batch through the same reused statement, whose keys are
+     * kept so the new verses can be analysed afterwards. The transaction
+     * is committed whenever {@value #COMMIT_INTERVAL} verses are pending, so
+     * a failure loses at most that much work and locks stay short.
+     */
+    private final class BulkInsert implements AutoCloseable {
+        private final Connection con;
+        private final int bookId;
+        private final PreparedStatement poemStatement;
+        private final PreparedStatement verseStatement;
+        private final Map<Integer, Integer> poetIds = new HashMap<>();
+        private final List<ParsedPoemDTO> pending = new ArrayList<>(POEM_BATCH_SIZE);
+        private int pendingPoems;
+        private int pendingVerses;
+        private int uncommittedVerses;
+        private int committedPoems;
+        private int committedVerses;
+        /** Ids of the inserted verses; the first {@code committedVerses} are committed. */
+        private int[] verseIds = new int[256];
+
+        BulkInsert(Connection con, int bookId) throws SQLException {
+            this.con = con;
+            this.bookId = bookId;
+            this.poemStatement = con.prepareStatement(POEM_INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            this.verseStatement = con.prepareStatement(VERSE_INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+        }
+
+        void add(ParsedPoemDTO poem) throws SQLException {
+            poemStatement.setString(1, poem.getTitle());
+            poemStatement.setInt(2, resolvePoet(poem.getPoetId()));
+            poemStatement.setInt(3, bookId);
+            poemStatement.addBatch();
+            pending.add(poem);
+            if (pending.size() >= POEM_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            commit();
+        }
+
+        private int resolvePoet(int poetId) throws SQLException {
+            // One lookup per distinct poet of the book, and one default poet
+            // for all poems without a poet instead of one per poem.
+            Integer resolved = poetIds.get(poetId);
+            if (resolved == null) {
+                resolved = getOrCreateDefaultPoet(con, poetId);
+                poetIds.put(poetId, resolved);
+            }
+            return resolved;
+        }
+
+        private void flush() throws SQLException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            poemStatement.executeBatch();
+            try (ResultSet keys = poemStatement.getGeneratedKeys()) {
+                for (ParsedPoemDTO poem : pending) {
+                    if (!keys.next()) {
+                        throw new SQLException("Failed to get poem ID");
+                    }
+                    int poemId = keys.getInt(1);
+                    List<String> verses = poem.getVerses();
+                    for (int i = 0; i < verses.size(); i++) {
+                        verseStatement.setInt(1, poemId);
+                        verseStatement.setInt(2, i + 1);
+                        verseStatement.setString(3, verses.get(i));
+                        verseStatement.addBatch();
+                    }
+                    pendingVerses += verses.size();
+                }
+            }
+            verseStatement.executeBatch();
+            collectVerseIds();
+            pendingPoems += pending.size();
+            uncommittedVerses += pendingVerses;
+            pendingVerses = 0;
+            pending.clear();
+            if (uncommittedVerses >= COMMIT_INTERVAL) {
+                commit();
+            }
+        }
+
+        private void collectVerseIds() throws SQLException {
+            int count = committedVerses + uncommittedVerses;
+            try (ResultSet keys = verseStatement.getGeneratedKeys()) {
+                while (keys.next()) {
+                    if (count == verseIds.length) {
+                        verseIds = Arrays.copyOf(verseIds, count * 2);
+                    }
+                    verseIds[count++] = keys.getInt(1);
+                }
+            }
+            if (count != committedVerses + uncommittedVerses + pendingVerses) {
+                throw new SQLException("Failed to get verse IDs");
+            }
+        }
+
+        private void commit() throws SQLException {
+            con.commit();
+            // Poets created for this book exist for everyone once committed.
+            for (int poetId : poetIds.values()) {
+                IdentityCache.putPoet(poetId);
+            }
+            committedPoems += pendingPoems;
+            committedVerses += uncommittedVerses;
+            pendingPoems = 0;
+            uncommittedVerses = 0;
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(poemStatement);
+            closeQuietly(verseStatement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing import statement: {}", e.getMessage());
+        }
+    }
+
     private int insertBook(Connection con, BookDTO book) throws SQLException {
         String sql = "INSERT INTO book (title, compiler, era) VALUES (?, ?, ?)";
         try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -145,7 +368,17 @@ public class ImportBookDAO implements IImportBookDAO {
         }
     }
 
+    /**
+     * Book id by title, from the identity cache if known. Like the poet
+     * helpers below it runs inside the caller's transaction, so it never
+     * fills the cache; callers do that once they have committed.
+     */
     private int getOrCreateBook(Connection con, BookDTO book) throws SQLException {
+        Integer cached = IdentityCache.bookId(book.getTitle());
+        if (cached != null) {
+            return cached;
+        }
+
         // First, try to find existing book by title
         String selectSql = "SELECT book_id FROM book WHERE title = ?";
         try (PreparedStatement ps = con.prepareStatement(selectSql)) {
@@ -161,6 +394,10 @@ public class ImportBookDAO implements IImportBookDAO {
     }
 
     private void ensurePoetExists(Connection con, int poetId) throws SQLException {
+        if (IdentityCache.hasPoet(poetId)) {
+            return;
+        }
+
         // Check if poet exists
         String selectSql = "SELECT poet_id FROM poet WHERE poet_id = ?";
         try (PreparedStatement ps = con.prepareStatement(selectSql)) {
@@ -198,6 +435,10 @@ public class ImportBookDAO implements IImportBookDAO {
             }
         }
 
+        if (IdentityCache.hasPoet(poetId)) {
+            return poetId;
+        }
+
         // Check if poet exists
         String selectSql = "SELECT poet_id FROM poet WHERE poet_id = ?";
         try (PreparedStatement ps = con.prepareStatement(selectSql)) {
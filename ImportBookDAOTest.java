@@ -1,8 +1,16 @@
 package dal;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -11,7 +19,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +32,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import dto.BookDTO;
+import dto.ImportResultDTO;
+import dto.ParsedPoemDTO;
 import dto.PoemDTO;
 import dto.VerseDTO;
 
@@ -43,6 +57,7 @@ public class ImportBookDAOTest {
     @BeforeEach
     public void setUp() {
         importBookDAO = new ImportBookDAO(dbConnectionMock);
+        IdentityCache.clear();
     }
 
     @Test
@@ -82,4 +97,162 @@ public class ImportBookDAOTest {
         // Verify rollback on failure
         verify(connectionMock).rollback();
     }
+
+    @Test
+    public void testSaveImportedBook_RollbackCachesNoPoet() throws SQLException {
+        PreparedStatement selectPoetMock = mock(PreparedStatement.class);
+        PreparedStatement insertPoetMock = mock(PreparedStatement.class);
+        ResultSet poetRowMock = mock(ResultSet.class);
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString(), anyInt())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.getGeneratedKeys()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true);
+        when(resultSetMock.getInt(1)).thenReturn(100);
+        when(connectionMock.prepareStatement(contains("SELECT poet_id"))).thenReturn(selectPoetMock);
+        when(selectPoetMock.executeQuery()).thenReturn(poetRowMock);
+        // The second poem's lookup sees the poet the first one inserted, uncommitted.
+        when(poetRowMock.next()).thenReturn(false, true);
+        when(connectionMock.prepareStatement(contains("INSERT INTO poet"))).thenReturn(insertPoetMock);
+        when(connectionMock.prepareStatement(contains("INSERT INTO verse"))).thenThrow(new SQLException("Deadlock"));
+
+        BookDTO book = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+        List<PoemDTO> poems = Arrays.asList(new PoemDTO("Poem 1", 9, 0), new PoemDTO("Poem 2", 9, 0));
+        List<VerseDTO> verses = Arrays.asList(new VerseDTO(100, 1, "Verse", null, null, null));
+
+        importBookDAO.saveImportedBook(book, poems, verses);
+
+        verify(connectionMock).rollback();
+        verify(insertPoetMock).executeUpdate();
+        assertFalse(IdentityCache.hasPoet(9));
+    }
+
+    private PreparedStatement poemStatementMock;
+    private PreparedStatement verseStatementMock;
+
+    private void stubBulkImport() throws SQLException {
+        poemStatementMock = mock(PreparedStatement.class);
+        verseStatementMock = mock(PreparedStatement.class);
+        ResultSet keysMock = mock(ResultSet.class);
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        // Book lookup by title and poet lookup by id both find a row.
+        when(connectionMock.prepareStatement(contains("SELECT"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true);
+        when(resultSetMock.getInt("book_id")).thenReturn(7);
+        when(connectionMock.prepareStatement(contains("INSERT INTO poem"), anyInt())).thenReturn(poemStatementMock);
+        when(connectionMock.prepareStatement(contains("INSERT INTO verse"), anyInt())).thenReturn(verseStatementMock);
+        when(poemStatementMock.getGeneratedKeys()).thenReturn(keysMock);
+        when(keysMock.next()).thenReturn(true, true, false);
+        when(keysMock.getInt(1)).thenReturn(100, 101);
+    }
+
+    private void stubVerseKeys() throws SQLException {
+        ResultSet verseKeysMock = mock(ResultSet.class);
+        when(verseStatementMock.getGeneratedKeys()).thenReturn(verseKeysMock);
+        when(verseKeysMock.next()).thenReturn(true, true, true, false);
+        when(verseKeysMock.getInt(1)).thenReturn(500, 501, 502);
+    }
+
+    private List<ParsedPoemDTO> twoPoems() {
+        return Arrays.asList(
+                new ParsedPoemDTO("Poem 1", 5, Arrays.asList("Verse 1")),
+                new ParsedPoemDTO("Empty", 5, new ArrayList<>()),
+                new ParsedPoemDTO("Poem 2", 5, Arrays.asList("Verse 1", "Verse 2")));
+    }
+
+    @Test
+    public void testImportBookBulk_BatchesPoemsAndVerses() throws SQLException {
+        stubBulkImport();
+        stubVerseKeys();
+        BookDTO book = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+
+        ImportResultDTO result = importBookDAO.importBookBulk(book, twoPoems());
+
+        assertNull(result.getMessage());
+        assertEquals(2, result.getPoemsImported());
+        assertEquals(3, result.getVersesImported());
+        assertEquals(7, book.getBookId());
+        assertArrayEquals(new int[] { 500, 501, 502 }, result.getVerseIds());
+
+        // One batch per statement, poem ids taken from the generated keys.
+        verify(poemStatementMock, times(2)).addBatch();
+        verify(poemStatementMock, times(1)).executeBatch();
+        verify(verseStatementMock, times(3)).addBatch();
+        verify(verseStatementMock, times(1)).executeBatch();
+        verify(verseStatementMock).setInt(1, 100);
+        verify(verseStatementMock, times(2)).setInt(1, 101);
+        verify(verseStatementMock).setInt(2, 2);
+        // Poet 5 is looked up once for both poems.
+        verify(preparedStatementMock).setInt(1, 5);
+        verify(connectionMock, times(1)).prepareStatement(contains("INSERT INTO verse"), anyInt());
+        verify(connectionMock, times(2)).commit();
+    }
+
+    @Test
+    public void testImportBookBulk_FailureRollsBackPendingRows() throws SQLException {
+        stubBulkImport();
+        when(verseStatementMock.executeBatch()).thenThrow(new SQLException("Deadlock"));
+        BookDTO book = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+
+        ImportResultDTO result = importBookDAO.importBookBulk(book, twoPoems());
+
+        assertTrue(result.getMessage().contains("Deadlock"));
+        assertEquals(0, result.getPoemsImported());
+        assertEquals(0, result.getVerseIds().length);
+        verify(connectionMock).rollback();
+        verify(connectionMock, times(1)).commit(); // the book only
+        verify(verseStatementMock).close();
+    }
+
+    @Test
+    public void testImportBookBulk_ReusesCachedBookId() throws SQLException {
+        stubBulkImport();
+        stubVerseKeys();
+        BookDTO book = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+        importBookDAO.importBookBulk(book, twoPoems());
+
+        BookDTO again = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+        ImportResultDTO result = importBookDAO.importBookBulk(again, new ArrayList<>());
+
+        assertNull(result.getMessage());
+        assertEquals(7, again.getBookId());
+        // Book and poet were each looked up once, by the first import.
+        verify(connectionMock, times(2)).prepareStatement(contains("SELECT"));
+        assertTrue(IdentityCache.hasPoet(5));
+    }
+
+    @Test
+    public void testImportBookBulk_SameTitleInParallelCreatesOneBook() throws Exception {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("SELECT book_id"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenAnswer(invocation -> {
+            Thread.sleep(100); // time for the other import to look the title up as well
+            return resultSetMock;
+        });
+        when(resultSetMock.next()).thenReturn(false);
+        PreparedStatement insertBookMock = mock(PreparedStatement.class);
+        ResultSet bookKeysMock = mock(ResultSet.class);
+        when(connectionMock.prepareStatement(contains("INSERT INTO book"), anyInt())).thenReturn(insertBookMock);
+        when(insertBookMock.getGeneratedKeys()).thenReturn(bookKeysMock);
+        when(bookKeysMock.next()).thenReturn(true);
+        when(bookKeysMock.getInt(1)).thenReturn(7);
+        when(connectionMock.prepareStatement(contains("INSERT INTO poem"), anyInt())).thenReturn(mock(PreparedStatement.class));
+        when(connectionMock.prepareStatement(contains("INSERT INTO verse"), anyInt())).thenReturn(mock(PreparedStatement.class));
+
+        BookDTO first = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+        BookDTO second = new BookDTO(0, "Title", "Compiler", new java.sql.Date(System.currentTimeMillis()));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<ImportResultDTO> a = pool.submit(() -> importBookDAO.importBookBulk(first, new ArrayList<>()));
+            Future<ImportResultDTO> b = pool.submit(() -> importBookDAO.importBookBulk(second, new ArrayList<>()));
+            a.get();
+            b.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(insertBookMock, times(1)).executeUpdate();
+        assertEquals(7, first.getBookId());
+        assertEquals(7, second.getBookId());
+    }
 }
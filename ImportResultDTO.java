@@ -1,12 +1,27 @@
 package dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /***
  * @author shahn
  */
 public class ImportResultDTO {
+    /** Outcome of importing one file. */
+    public enum Status {
+        IMPORTED, PARTIAL, FAILED
+    }
+
+    private String fileName;
+    private Status status;
     private String bookTitle;
     private int poemsImported;
+    private int versesImported;
+    private long elapsedMillis;
     private String message;
+    private int[] verseIds = new int[0];
+    private AnalysisResultDTO analysis;
+    private List<ImportResultDTO> fileResults = new ArrayList<>();
 
     public ImportResultDTO() {}
 
@@ -16,20 +31,56 @@ public class ImportResultDTO {
         this.message = message;
     }
 
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
     public String getBookTitle() { return bookTitle; }
     public void setBookTitle(String bookTitle) { this.bookTitle = bookTitle; }
 
     public int getPoemsImported() { return poemsImported; }
     public void setPoemsImported(int poemsImported) { this.poemsImported = poemsImported; }
 
+    public int getVersesImported() { return versesImported; }
+    public void setVersesImported(int versesImported) { this.versesImported = versesImported; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /** Poem and verse rows written per second, or 0 before anything was timed. */
+    public long getRowsPerSecond() {
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (poemsImported + versesImported) * 1000L / elapsedMillis;
+    }
+
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
 
+    /** Ids of the verses the import inserted and committed. */
+    public int[] getVerseIds() { return verseIds; }
+    public void setVerseIds(int[] verseIds) { this.verseIds = verseIds; }
+
+    /** Annotations written for the imported verses, or null if they were not analysed. */
+    public AnalysisResultDTO getAnalysis() { return analysis; }
+    public void setAnalysis(AnalysisResultDTO analysis) { this.analysis = analysis; }
+
+    /** Results of the individual files of a directory import, in file name order. */
+    public List<ImportResultDTO> getFileResults() { return fileResults; }
+    public void setFileResults(List<ImportResultDTO> fileResults) { this.fileResults = fileResults; }
+
     @Override
     public String toString() {
         return "ImportResultDTO{" +
-                "bookTitle='" + bookTitle + '\'' +
+                "fileName='" + fileName + '\'' +
+                ", status=" + status +
+                ", bookTitle='" + bookTitle + '\'' +
                 ", poemsImported=" + poemsImported +
+                ", versesImported=" + versesImported +
+                ", elapsedMillis=" + elapsedMillis +
                 ", message='" + message + '\'' +
                 '}';
     }
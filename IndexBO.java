@@ -2,6 +2,7 @@ package bl;
 
 import java.util.List;
 import dal.IIndexDAO;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 
 public class IndexBO implements IIndexBO {
@@ -12,7 +13,7 @@ public class IndexBO implements IIndexBO {
     }
 
     @Override
-    public List<String> getBookTokens(int bookId) {
+    public List<IndexEntryDTO> getBookTokens(int bookId) {
         if (bookId <= 0) {
             throw new IllegalArgumentException("Invalid book ID");
         }
@@ -20,7 +21,7 @@ public class IndexBO implements IIndexBO {
     }
 
     @Override
-    public List<String> getBookLemmas(int bookId) {
+    public List<IndexEntryDTO> getBookLemmas(int bookId) {
         if (bookId <= 0) {
             throw new IllegalArgumentException("Invalid book ID");
         }
@@ -28,7 +29,7 @@ public class IndexBO implements IIndexBO {
     }
 
     @Override
-    public List<String> getBookRoots(int bookId) {
+    public List<IndexEntryDTO> getBookRoots(int bookId) {
         if (bookId <= 0) {
             throw new IllegalArgumentException("Invalid book ID");
         }
@@ -54,13 +55,13 @@ public class IndexBO implements IIndexBO {
     }
 
     @Override
-    public List<String> getLemmasByRoot(int bookId, String root) {
+    public List<IndexEntryDTO> getLemmasByRoot(int bookId, String root) {
         validateParameters(bookId, root);
         return indexDAO.getLemmasByRoot(bookId, root);
     }
     
     @Override
-    public List<String> getTokensByLemma(int bookId, String lemma) {
+    public List<IndexEntryDTO> getTokensByLemma(int bookId, String lemma) {
         validateParameters(bookId, lemma);
         return indexDAO.getTokensByLemma(bookId, lemma);
     }
@@ -19,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import dal.IIndexDAO;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 
 public class IndexBOTest {
@@ -37,10 +38,10 @@ public class IndexBOTest {
     @Test
     public void testGetBookTokens_Success() {
         int bookId = 1;
-        List<String> tokens = Arrays.asList("token1", "token2");
+        List<IndexEntryDTO> tokens = Arrays.asList(new IndexEntryDTO("token1", 3), new IndexEntryDTO("token2", 1));
         when(indexDAOMock.getBookTokens(bookId)).thenReturn(tokens);
 
-        List<String> result = indexBO.getBookTokens(bookId);
+        List<IndexEntryDTO> result = indexBO.getBookTokens(bookId);
 
         assertEquals(tokens, result);
         verify(indexDAOMock, times(1)).getBookTokens(bookId);
@@ -58,10 +59,10 @@ public class IndexBOTest {
     @Test
     public void testGetBookLemmas_Success() {
         int bookId = 2;
-        List<String> lemmas = Arrays.asList("lemma1", "lemma2");
+        List<IndexEntryDTO> lemmas = Arrays.asList(new IndexEntryDTO("lemma1", 2), new IndexEntryDTO("lemma2", 1));
         when(indexDAOMock.getBookLemmas(bookId)).thenReturn(lemmas);
 
-        List<String> result = indexBO.getBookLemmas(bookId);
+        List<IndexEntryDTO> result = indexBO.getBookLemmas(bookId);
 
         assertEquals(lemmas, result);
         verify(indexDAOMock, times(1)).getBookLemmas(bookId);
@@ -70,10 +71,10 @@ public class IndexBOTest {
     @Test
     public void testGetBookRoots_Success() {
         int bookId = 3;
-        List<String> roots = Arrays.asList("root1", "root2");
+        List<IndexEntryDTO> roots = Arrays.asList(new IndexEntryDTO("root1", 4), new IndexEntryDTO("root2", 2));
         when(indexDAOMock.getBookRoots(bookId)).thenReturn(roots);
 
-        List<String> result = indexBO.getBookRoots(bookId);
+        List<IndexEntryDTO> result = indexBO.getBookRoots(bookId);
 
         assertEquals(roots, result);
         verify(indexDAOMock, times(1)).getBookRoots(bookId);
@@ -144,10 +145,10 @@ public class IndexBOTest {
     public void testGetLemmasByRoot_Success() {
         int bookId = 1;
         String root = "root";
-        List<String> lemmas = Arrays.asList("lemma1", "lemma2");
+        List<IndexEntryDTO> lemmas = Arrays.asList(new IndexEntryDTO("lemma1", 2), new IndexEntryDTO("lemma2", 1));
         when(indexDAOMock.getLemmasByRoot(bookId, root)).thenReturn(lemmas);
 
-        List<String> result = indexBO.getLemmasByRoot(bookId, root);
+        List<IndexEntryDTO> result = indexBO.getLemmasByRoot(bookId, root);
 
         assertEquals(lemmas, result);
         verify(indexDAOMock, times(1)).getLemmasByRoot(bookId, root);
@@ -157,10 +158,10 @@ public class IndexBOTest {
     public void testGetTokensByLemma_Success() {
         int bookId = 1;
         String lemma = "lemma";
-        List<String> tokens = Arrays.asList("token1", "token2");
+        List<IndexEntryDTO> tokens = Arrays.asList(new IndexEntryDTO("token1", 3), new IndexEntryDTO("token2", 1));
         when(indexDAOMock.getTokensByLemma(bookId, lemma)).thenReturn(tokens);
 
-        List<String> result = indexBO.getTokensByLemma(bookId, lemma);
+        List<IndexEntryDTO> result = indexBO.getTokensByLemma(bookId, lemma);
 
         assertEquals(tokens, result);
         verify(indexDAOMock, times(1)).getTokensByLemma(bookId, lemma);
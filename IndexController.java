@@ -7,6 +7,7 @@ import java.util.ResourceBundle;
 
 import bl.IBLFacade;
 import dto.BookDTO;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -26,11 +27,11 @@ public class IndexController implements Initializable {
     @FXML
     private ListView<BookDTO> booksList;
     @FXML
-    private ListView<String> rootsList;
+    private ListView<IndexEntryDTO> rootsList;
     @FXML
-    private ListView<String> lemmasList;
+    private ListView<IndexEntryDTO> lemmasList;
     @FXML
-    private ListView<String> tokensList;
+    private ListView<IndexEntryDTO> tokensList;
 
     @FXML
     private TableView<IndexResultDTO> resultsTable;
@@ -110,16 +111,6 @@ public class IndexController implements Initializable {
         new Thread(task).start();
     }
 
-    // Helper to extract just the word part from "word (count occurrences)"
-    private String extractWord(String wordWithCount) {
-        String result = wordWithCount;
-        if (wordWithCount != null && wordWithCount.contains(" (")) {
-            result = wordWithCount.substring(0, wordWithCount.lastIndexOf(" ("));
-        }
-        System.out.println("ExtractWord: Input='" + wordWithCount + "' -> Output='" + result + "'");
-        return result != null ? result.trim() : null;
-    }
-
     private void loadBooks() {
         if (facade == null)
             return;
@@ -147,9 +138,9 @@ public class IndexController implements Initializable {
             return;
         System.out.println("Loading roots for book: " + (book != null ? book.getTitle() : "null"));
 
-        Task<List<String>> task = new Task<>() {
+        Task<List<IndexEntryDTO>> task = new Task<>() {
             @Override
-            protected List<String> call() throws Exception {
+            protected List<IndexEntryDTO> call() throws Exception {
                 if (book == null)
                     return Collections.emptyList();
                 int bookId = facade.getBookID(book);
@@ -159,7 +150,7 @@ public class IndexController implements Initializable {
         };
 
         task.setOnSucceeded(e -> {
-            List<String> res = task.getValue();
+            List<IndexEntryDTO> res = task.getValue();
             System.out.println("Loaded " + (res != null ? res.size() : 0) + " roots.");
             rootsList.setItems(FXCollections.observableArrayList(res));
             statusLabel.setText("Loaded roots for: " + book.getTitle());
@@ -168,26 +159,26 @@ public class IndexController implements Initializable {
         runTask(task, "Loading roots for " + book.getTitle() + "...");
     }
 
-    private void loadLemmasForRoot(String root) {
+    private void loadLemmasForRoot(IndexEntryDTO root) {
         if (facade == null)
             return;
         BookDTO selectedBook = booksList.getSelectionModel().getSelectedItem();
         if (selectedBook == null)
             return;
 
-        String cleanRoot = extractWord(root);
+        String cleanRoot = root.getTerm();
         System.out.println("Loading lemmas for root: " + cleanRoot);
 
-        Task<List<String>> task = new Task<>() {
+        Task<List<IndexEntryDTO>> task = new Task<>() {
             @Override
-            protected List<String> call() throws Exception {
+            protected List<IndexEntryDTO> call() throws Exception {
                 int bookId = facade.getBookID(selectedBook);
                 return facade.getLemmasByRoot(bookId, cleanRoot);
             }
         };
 
         task.setOnSucceeded(e -> {
-            List<String> res = task.getValue();
+            List<IndexEntryDTO> res = task.getValue();
             System.out.println("Loaded " + (res != null ? res.size() : 0) + " lemmas for root " + cleanRoot);
             lemmasList.setItems(FXCollections.observableArrayList(res));
             statusLabel.setText("Loaded lemmas for root: " + cleanRoot);
@@ -196,26 +187,26 @@ public class IndexController implements Initializable {
         runTask(task, "Loading lemmas for " + cleanRoot + "...");
     }
 
-    private void loadTokensForLemma(String lemma) {
+    private void loadTokensForLemma(IndexEntryDTO lemma) {
         if (facade == null)
             return;
         BookDTO selectedBook = booksList.getSelectionModel().getSelectedItem();
         if (selectedBook == null)
             return;
 
-        String cleanLemma = extractWord(lemma);
+        String cleanLemma = lemma.getTerm();
         System.out.println("Loading tokens for lemma: " + cleanLemma);
 
-        Task<List<String>> task = new Task<>() {
+        Task<List<IndexEntryDTO>> task = new Task<>() {
             @Override
-            protected List<String> call() throws Exception {
+            protected List<IndexEntryDTO> call() throws Exception {
                 int bookId = facade.getBookID(selectedBook);
                 return facade.getTokensByLemma(bookId, cleanLemma);
             }
         };
 
         task.setOnSucceeded(e -> {
-            List<String> res = task.getValue();
+            List<IndexEntryDTO> res = task.getValue();
             System.out.println("Loaded " + (res != null ? res.size() : 0) + " tokens for lemma " + cleanLemma);
             tokensList.setItems(FXCollections.observableArrayList(res));
             statusLabel.setText("Loaded tokens for lemma: " + cleanLemma);
@@ -224,14 +215,14 @@ public class IndexController implements Initializable {
         runTask(task, "Loading tokens for " + cleanLemma + "...");
     }
 
-    private void loadVersesForToken(String token) {
+    private void loadVersesForToken(IndexEntryDTO token) {
         if (facade == null)
             return;
         BookDTO selectedBook = booksList.getSelectionModel().getSelectedItem();
         if (selectedBook == null)
             return;
 
-        String cleanToken = extractWord(token);
+        String cleanToken = token.getTerm();
         System.out.println("Loading verses for token: " + cleanToken);
 
         Task<List<IndexResultDTO>> task = new Task<>() {
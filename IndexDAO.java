@@ -3,6 +3,11 @@ package dal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dto.AnnotationType;
+import dto.IndexEntryDTO;
 import dto.IndexResultDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,6 +16,7 @@ public class IndexDAO implements IIndexDAO {
     private static final Logger logger = LogManager.getLogger(IndexDAO.class);
 
     private final IDatabaseConnection dbConnection;
+    private final Map<Integer, BookIndex> bookIndexes = new ConcurrentHashMap<>();
 
     public IndexDAO() {
         this.dbConnection = new DatabaseConnection();
@@ -21,168 +27,87 @@ public class IndexDAO implements IIndexDAO {
     }
 
     @Override
-    public List<String> getBookTokens(int bookId) {
-        List<String> tokens = new ArrayList<>();
-        String sql = "SELECT DISTINCT t.word, COUNT(*) as occurrence_count " +
-                "FROM token t " +
-                "JOIN verse v ON t.verse_id = v.verse_id " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "WHERE p.book_id = ? AND t.word IS NOT NULL AND t.word != '' " +
-                "GROUP BY t.word " +
-                "ORDER BY occurrence_count DESC, t.word";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, bookId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String word = rs.getString("word");
-                int count = rs.getInt("occurrence_count");
-                tokens.add(word + " (" + count + " occurrences)");
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting book tokens: {}", e.getMessage(), e);
-        }
-        return tokens;
+    public List<IndexEntryDTO> getBookTokens(int bookId) {
+        BookIndex index = getBookIndex(bookId);
+        return index == null ? new ArrayList<>() : entries(index.getTerms(AnnotationType.TOKEN));
     }
 
     @Override
-    public List<String> getBookLemmas(int bookId) {
-        List<String> lemmas = new ArrayList<>();
-        String sql = "SELECT DISTINCT l.lemma, COUNT(*) as occurrence_count " +
-                "FROM lemma l " +
-                "JOIN verse v ON l.verse_id = v.verse_id " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "WHERE p.book_id = ? AND l.lemma IS NOT NULL AND l.lemma != '' " +
-                "GROUP BY l.lemma " +
-                "ORDER BY occurrence_count DESC, l.lemma";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, bookId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String lemma = rs.getString("lemma");
-                int count = rs.getInt("occurrence_count");
-                lemmas.add(lemma + " (" + count + " occurrences)");
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting book lemmas: {}", e.getMessage(), e);
-        }
-        return lemmas;
+    public List<IndexEntryDTO> getBookLemmas(int bookId) {
+        BookIndex index = getBookIndex(bookId);
+        return index == null ? new ArrayList<>() : entries(index.getTerms(AnnotationType.LEMMA));
     }
 
     @Override
-    public List<String> getBookRoots(int bookId) {
-        List<String> roots = new ArrayList<>();
-        String sql = "SELECT DISTINCT r.root, COUNT(*) as occurrence_count " +
-                "FROM root r " +
-                "JOIN verse v ON r.verse_id = v.verse_id " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "WHERE p.book_id = ? AND r.root IS NOT NULL AND r.root != '' " +
-                "GROUP BY r.root " +
-                "ORDER BY occurrence_count DESC, r.root";
+    public List<IndexEntryDTO> getBookRoots(int bookId) {
+        BookIndex index = getBookIndex(bookId);
+        return index == null ? new ArrayList<>() : entries(index.getTerms(AnnotationType.ROOT));
+    }
 
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, bookId);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String root = rs.getString("root");
-                int count = rs.getInt("occurrence_count");
-                roots.add(root + " (" + count + " occurrences)");
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting book roots: {}", e.getMessage(), e);
-        }
-        return roots;
+    public List<IndexEntryDTO> getLemmasByRoot(int bookId, String root) {
+        BookIndex index = getBookIndex(bookId);
+        return index == null ? new ArrayList<>() : entries(index.getLemmasByRoot(root));
     }
 
-    public List<String> getLemmasByRoot(int bookId, String root) {
-        List<String> lemmas = new ArrayList<>();
-        String sql = "SELECT DISTINCT l.lemma, COUNT(*) as occurrence_count " +
-                "FROM lemma l " +
-                "JOIN verse v ON l.verse_id = v.verse_id " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "WHERE p.book_id = ? AND l.lemma IS NOT NULL AND l.lemma != '' " +
-                "AND (l.lemma LIKE ? OR EXISTS (" +
-                "  SELECT 1 FROM root r2 WHERE r2.verse_id = l.verse_id " +
-                "  AND r2.root = ? AND r2.position_in_verse = l.position_in_verse" +
-                ")) " +
-                "GROUP BY l.lemma " +
-                "ORDER BY occurrence_count DESC, l.lemma";
+    public List<IndexEntryDTO> getTokensByLemma(int bookId, String lemma) {
+        BookIndex index = getBookIndex(bookId);
+        return index == null ? new ArrayList<>() : entries(index.getTokensByLemma(lemma));
+    }
 
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, bookId);
-            ps.setString(2, "%" + root + "%");
-            ps.setString(3, root);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String lemma = rs.getString("lemma");
-                int count = rs.getInt("occurrence_count");
-                lemmas.add(lemma + " (" + count + " occurrences)");
-            }
+    /**
+     * The materialized index of a book, built on first use and rebuilt once
+     * annotations have changed; {@code null} if it cannot be read.
+     */
+    BookIndex getBookIndex(int bookId) {
+        BookIndex index = bookIndexes.get(bookId);
+        if (index != null && !index.isStale()) {
+            return index;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            index = BookIndex.build(dbConnection, bookId);
         } catch (SQLException e) {
-            logger.error("Error getting lemmas by root: {}", e.getMessage(), e);
+            logger.error("Error building index of book {}: {}", bookId, e.getMessage(), e);
+            return null;
         }
-        return lemmas;
+        bookIndexes.put(bookId, index);
+        logger.info("Built index of book {}: {} roots, {} lemmas, {} tokens in {} ms", bookId,
+                index.getTerms(AnnotationType.ROOT).size(), index.getTerms(AnnotationType.LEMMA).size(),
+                index.getTerms(AnnotationType.TOKEN).size(), System.currentTimeMillis() - start);
+        return index;
     }
 
-    public List<String> getTokensByLemma(int bookId, String lemma) {
-        List<String> tokens = new ArrayList<>();
-        String sql = "SELECT DISTINCT t.word, COUNT(*) as occurrence_count " +
-                "FROM token t " +
-                "JOIN verse v ON t.verse_id = v.verse_id " +
-                "JOIN poem p ON v.poem_id = p.poem_id " +
-                "WHERE p.book_id = ? AND t.word IS NOT NULL AND t.word != '' " +
-                "AND (t.word = ? OR EXISTS (" +
-                "  SELECT 1 FROM lemma l2 WHERE l2.verse_id = t.verse_id " +
-                "  AND l2.lemma = ? AND l2.position_in_verse = t.position_in_verse" +
-                ")) " +
-                "GROUP BY t.word " +
-                "ORDER BY occurrence_count DESC, t.word";
-
-        try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, bookId);
-            ps.setString(2, lemma);
-            ps.setString(3, lemma);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String word = rs.getString("word");
-                int count = rs.getInt("occurrence_count");
-                tokens.add(word + " (" + count + " occurrences)");
-            }
-        } catch (SQLException e) {
-            logger.error("Error getting tokens by lemma: {}", e.getMessage(), e);
+    private static List<IndexEntryDTO> entries(List<BookIndex.Node> nodes) {
+        List<IndexEntryDTO> entries = new ArrayList<>(nodes.size());
+        for (BookIndex.Node node : nodes) {
+            entries.add(new IndexEntryDTO(node.getTerm(), node.getCount(), node.getVerseIds()));
         }
-        return tokens;
+        return entries;
     }
 
     @Override
     public List<IndexResultDTO> getTokenOccurrences(int bookId, String token) {
-        // Extract just the word part (remove occurrence count)
-        String cleanToken = extractWord(token);
-        return getOccurrences(bookId, cleanToken, "token");
+        return getOccurrences(bookId, token, "token");
     }
 
     @Override
     public List<IndexResultDTO> getLemmaOccurrences(int bookId, String lemma) {
-        // Extract just the word part (remove occurrence count)
-        String cleanLemma = extractWord(lemma);
-        return getOccurrences(bookId, cleanLemma, "lemma");
+        return getOccurrences(bookId, lemma, "lemma");
     }
 
     @Override
     public List<IndexResultDTO> getRootOccurrences(int bookId, String root) {
-        // Extract just the word part (remove occurrence count)
-        String cleanRoot = extractWord(root);
-        return getOccurrences(bookId, cleanRoot, "root");
+        return getOccurrences(bookId, root, "root");
     }
 
     private List<IndexResultDTO> getOccurrences(int bookId, String word, String type) {
         List<IndexResultDTO> results = new ArrayList<>();
+        BookIndex index = bookIndexes.get(bookId);
+        if (index != null && !index.isStale()
+                && index.find(AnnotationType.valueOf(type.toUpperCase()), word) == null) {
+            // The term does not occur in this book.
+            return results;
+        }
         String sql = "";
 
         switch (type) {
@@ -244,14 +169,6 @@ public class IndexDAO implements IIndexDAO {
         return results;
     }
 
-    // Helper method to extract just the word part from "word (count occurrences)"
-    private String extractWord(String wordWithCount) {
-        if (wordWithCount.contains(" (")) {
-            return wordWithCount.substring(0, wordWithCount.indexOf(" ("));
-        }
-        return wordWithCount;
-    }
-
     // Debug method to see total vs unique counts
     public void debugTotalCounts(int bookId) {
         String[] types = { "token", "lemma", "root" };
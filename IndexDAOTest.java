@@ -1,8 +1,12 @@
 package dal;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,6 +15,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +25,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import dto.AnnotationType;
+import dto.IndexEntryDTO;
+
 @ExtendWith(MockitoExtension.class)
 public class IndexDAOTest {
 
@@ -47,21 +56,77 @@ public class IndexDAOTest {
         when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
         when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
 
-        when(resultSetMock.next()).thenReturn(true, false);
-        when(resultSetMock.getString("word")).thenReturn("testWord");
-        when(resultSetMock.getInt("occurrence_count")).thenReturn(5);
+        // One token row occurring five times in verse 7; no lemma or root rows.
+        when(resultSetMock.next()).thenReturn(true, true, true, true, true, false, false, false);
+        when(resultSetMock.getString("term")).thenReturn("testWord");
+        when(resultSetMock.getInt("verse_id")).thenReturn(7);
+        when(resultSetMock.getInt("position_in_verse")).thenReturn(0, 1, 2, 3, 4);
 
-        List<String> results = indexDAO.getBookTokens(1);
+        List<IndexEntryDTO> results = indexDAO.getBookTokens(1);
 
         assertNotNull(results);
         assertEquals(1, results.size());
 
-        // Stricter assertion: exact expected string
-        String expected = "testWord (5 occurrences)";
-        assertEquals(expected, results.get(0));
+        // Stricter assertion: exact term, count and verses
+        assertEquals("testWord", results.get(0).getTerm());
+        assertEquals(5, results.get(0).getCount());
+        assertArrayEquals(new int[] { 7 }, results.get(0).getVerseIds());
+
+        // The book is read once (token, lemma and root rows) and then served from memory
+        indexDAO.getBookTokens(1);
+        verify(preparedStatementMock, times(3)).executeQuery();
+    }
+
+    @Test
+    public void testHierarchicalDrillDown() throws SQLException {
+        PreparedStatement tokenStatement = mock(PreparedStatement.class);
+        PreparedStatement lemmaStatement = mock(PreparedStatement.class);
+        PreparedStatement rootStatement = mock(PreparedStatement.class);
+        ResultSet tokenRows = mock(ResultSet.class);
+        ResultSet lemmaRows = mock(ResultSet.class);
+        ResultSet rootRows = mock(ResultSet.class);
+
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("FROM token a"))).thenReturn(tokenStatement);
+        when(connectionMock.prepareStatement(contains("FROM lemma a"))).thenReturn(lemmaStatement);
+        when(connectionMock.prepareStatement(contains("FROM root a"))).thenReturn(rootStatement);
+        when(tokenStatement.executeQuery()).thenReturn(tokenRows);
+        when(lemmaStatement.executeQuery()).thenReturn(lemmaRows);
+        when(rootStatement.executeQuery()).thenReturn(rootRows);
+
+        // Verse 1: كتب/كاتب/كتب, قلم/قلم/قلم; verse 2: الكتاب/كتاب/كتب
+        when(tokenRows.next()).thenReturn(true, true, true, false);
+        when(tokenRows.getInt("verse_id")).thenReturn(1, 1, 2);
+        when(tokenRows.getInt("position_in_verse")).thenReturn(0, 1, 0);
+        when(tokenRows.getString("term")).thenReturn("كاتب", "قلم", "الكتاب");
+        when(lemmaRows.next()).thenReturn(true, true, true, false);
+        when(lemmaRows.getInt("verse_id")).thenReturn(1, 1, 2);
+        when(lemmaRows.getInt("position_in_verse")).thenReturn(0, 1, 0);
+        when(lemmaRows.getString("term")).thenReturn("كاتب", "قلم", "كتاب");
+        when(rootRows.next()).thenReturn(true, true, true, false);
+        when(rootRows.getInt("verse_id")).thenReturn(1, 1, 2);
+        when(rootRows.getInt("position_in_verse")).thenReturn(0, 1, 0);
+        when(rootRows.getString("term")).thenReturn("كتب", "قلم", "كتب");
+
+        List<IndexEntryDTO> roots = indexDAO.getBookRoots(4);
+        assertEquals(Arrays.asList("كتب", "قلم"), terms(roots));
+        assertEquals(2, roots.get(0).getCount());
+        assertEquals(Arrays.asList("كاتب", "كتاب"), terms(indexDAO.getLemmasByRoot(4, "كتب")));
+        assertEquals(Arrays.asList("الكتاب"), terms(indexDAO.getTokensByLemma(4, "كتاب")));
+        assertTrue(indexDAO.getLemmasByRoot(4, "علم").isEmpty());
+        assertTrue(indexDAO.getTokenOccurrences(4, "علم").isEmpty());
+
+        assertArrayEquals(new int[] { 1, 2 },
+                indexDAO.getBookIndex(4).find(AnnotationType.ROOT, "كتب").getVerseIds());
+        verify(tokenStatement, times(1)).executeQuery();
+        verify(tokenStatement).setInt(1, 4);
+    }
 
-        // Verify executeQuery was called
-        verify(preparedStatementMock).executeQuery();
-        verify(resultSetMock, times(2)).next();
+    private static List<String> terms(List<IndexEntryDTO> entries) {
+        List<String> terms = new ArrayList<>();
+        for (IndexEntryDTO entry : entries) {
+            terms.add(entry.getTerm());
+        }
+        return terms;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package dto;
+
+/**
+ * One term of a book index (a root, lemma or token) with its number of
+ * occurrences and, when known, the ascending ids of the verses it occurs in.
+ */
+public class IndexEntryDTO {
+    private String term;
+    private int count;
+    private int[] verseIds = new int[0];
+
+    public IndexEntryDTO() {}
+
+    public IndexEntryDTO(String term, int count) {
+        this.term = term;
+        this.count = count;
+    }
+
+    public IndexEntryDTO(String term, int count, int[] verseIds) {
+        this.term = term;
+        this.count = count;
+        this.verseIds = verseIds;
+    }
+
+    public String getTerm() { return term; }
+    public void setTerm(String term) { this.term = term; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+
+    public int[] getVerseIds() { return verseIds; }
+    public void setVerseIds(int[] verseIds) { this.verseIds = verseIds; }
+
+    @Override
+    public String toString() {
+        return term + " (" + count + " occurrences)"; // Shown as-is in the index lists
+    }
+}
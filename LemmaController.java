@@ -70,9 +70,13 @@ public class LemmaController implements Initializable {
     @FXML
     private void handleLemmatizeAndSave() {
         if (facade == null) return;
-        int count = facade.lemmatizeAndSaveAllVerses();
-        loadAllLemmas();
-        statusLabel.setText("Lemmatized & saved " + count + " lemmas.");
+        try {
+            int count = facade.lemmatizeAndSaveAllVerses();
+            loadAllLemmas();
+            statusLabel.setText("Lemmatized & saved " + count + " lemmas.");
+        } catch (IllegalStateException ex) {
+            statusLabel.setText("Lemmatization failed: " + ex.getMessage());
+        }
     }
 
     @FXML
@@ -6,8 +6,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import dto.AnnotationType;
 import dto.LemmaDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -39,6 +41,7 @@ public class LemmaDAO implements ILemmaDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
+                FrequencyStore.getShared().add(AnnotationType.LEMMA, Collections.singletonList(lemma.getLemma()));
                 ResultSet rs = ps.getGeneratedKeys();
                 if (rs.next()) {
                     lemma.setLemmaId(rs.getInt(1));
@@ -50,7 +53,7 @@ public class LemmaDAO implements ILemmaDAO {
     }
 
     @Override
-    public void createLemmaBatch(List<LemmaDTO> lemmas) {
+    public int createLemmaBatch(List<LemmaDTO> lemmas) {
         String sql = "INSERT INTO lemma (verse_id, word, lemma, position_in_verse) VALUES (?, ?, ?, ?)";
 
         try (Connection con = dbConnection.getConnection()) {
@@ -68,7 +71,13 @@ public class LemmaDAO implements ILemmaDAO {
                 ps.executeBatch();
                 con.commit();
                 con.commit();
+                List<String> keys = new ArrayList<>(lemmas.size());
+                for (LemmaDTO lemma : lemmas) {
+                    keys.add(lemma.getLemma());
+                }
+                FrequencyStore.getShared().add(AnnotationType.LEMMA, keys);
                 logger.info("Batch insert successful: {} lemmas saved.", lemmas.size());
+                return lemmas.size();
             } catch (SQLException e) {
                 con.rollback();
                 logger.error("Error in batch insert, rolled back: {}", e.getMessage(), e);
@@ -76,6 +85,7 @@ public class LemmaDAO implements ILemmaDAO {
         } catch (SQLException e) {
             logger.error("Database connection error: {}", e.getMessage(), e);
         }
+        return 0;
     }
 
     @Override
@@ -147,6 +157,7 @@ public class LemmaDAO implements ILemmaDAO {
             ps.setInt(5, lemma.getLemmaId());
 
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.LEMMA);
         } catch (SQLException e) {
             logger.error("Error updating lemma: {}", e.getMessage(), e);
         }
@@ -160,6 +171,7 @@ public class LemmaDAO implements ILemmaDAO {
 
             ps.setInt(1, lemmaId);
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.LEMMA);
         } catch (SQLException e) {
             logger.error("Error deleting lemma: {}", e.getMessage(), e);
         }
@@ -174,6 +186,7 @@ public class LemmaDAO implements ILemmaDAO {
             ps.setInt(1, verseId);
             ps.setInt(1, verseId);
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.LEMMA);
             logger.info("Deleted {} lemmas for verse ID: {}", rowsAffected, verseId);
         } catch (SQLException e) {
             logger.error("Error deleting lemmas by verse: {}", e.getMessage(), e);
@@ -187,6 +200,7 @@ public class LemmaDAO implements ILemmaDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
 
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.LEMMA);
             logger.info("Deleted all lemmas: {} rows affected.", rowsAffected);
         } catch (SQLException e) {
             logger.error("Error deleting all lemmas: {}", e.getMessage(), e);
@@ -1,6 +1,8 @@
 package dal;
 
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.sql.*;
@@ -145,4 +147,11 @@ public class LemmaFrequencyDAO implements ILemmaFrequencyDAO {
 
         return frequencies;
     }
+
+    /**
+     * Get one window of the lemma frequency ranking, limited in the query
+     */
+    public FrequencyWindowDTO getLemmaFrequencyWindow(int offset, int limit) {
+        return FrequencyWindowQuery.fetch(dbConnection, AnnotationType.LEMMA, offset, limit);
+    }
 }
\ No newline at end of file
@@ -1,78 +1,48 @@
 package bl.services;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import dal.ILemmaDAO;
 import dal.IVerseDAO;
+import dto.AnnotationType;
 import dto.LemmaDTO;
 import dto.VerseDTO;
-import net.oujda_nlp_team.AlKhalil2Analyzer;
 import net.oujda_nlp_team.entity.Result;
-import net.oujda_nlp_team.entity.ResultList;
 
 public class Lemmatization implements ILemmaBO{
 
     private final IVerseDAO verseDAO;
     private final ILemmaDAO lemmaDAO;
+    private final AnalysisEngine engine;
     
     public Lemmatization(IVerseDAO verseDAO, ILemmaDAO lemmaDAO) {
+    			this(verseDAO, lemmaDAO, AnalysisEngine.getShared());
+    }
+
+    public Lemmatization(IVerseDAO verseDAO, ILemmaDAO lemmaDAO, AnalysisEngine engine) {
     			this.verseDAO = verseDAO;
     			this.lemmaDAO = lemmaDAO;
+    			this.engine = engine;
     }
     @Override
     public List<LemmaDTO> lemmatizeAllVerses() {
-        List<LemmaDTO> lemmas = new ArrayList<>();
         List<VerseDTO> verses = verseDAO.getAllVerses();
 
         System.out.println("Starting Preview Lemmatization");
         System.out.println("Total verses: " + verses.size());
 
-        for (VerseDTO verse : verses) {
-            String txt = verse.getText();
-
-            System.out.println("Verse ID: " + verse.getVerseId());
-            System.out.println("Verse No: " + verse.getVerseNo());
-            System.out.println("Text: " + txt);
-
-            if (txt == null || txt.trim().isEmpty()) {
-                System.out.println("Skipping empty verse.\n");
-                continue;
-            }
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
-
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
-
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0);
-
-
-                        String lemma = extractLemma(r, word);
-
-                        LemmaDTO lemmaDTO = new LemmaDTO(verse.getVerseId(), word, lemma);
-                        lemmaDTO.setVerseText(txt);
-                        lemmaDTO.setPositionInVerse(position);
-
-                        lemmas.add(lemmaDTO);
-
-                        System.out.println("Word: " + word + " | Lemma: " + lemma);
-                    } else {
-                        System.out.println("No analysis found for: " + word);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-
-                position++;
+        List<LemmaDTO> lemmas = engine.analyze("Lemmatization preview", verses, (verse, word, position) -> {
+            AnalysisCache.Entry r = engine.lookup(word);
+            if (r == null) {
+                System.out.println("No analysis found for: " + word);
+                return null;
             }
-        }
-
+            LemmaDTO lemmaDTO = new LemmaDTO(verse.getVerseId(), word, r.getLemma());
+            lemmaDTO.setVerseText(verse.getText());
+            lemmaDTO.setPositionInVerse(position);
+            return lemmaDTO;
+        });
 
         System.out.println("Total lemmas generated: " + lemmas.size());
 
@@ -80,52 +50,33 @@ public class Lemmatization implements ILemmaBO{
     }
     @Override
     public int lemmatizeAndSaveAllVerses() {
-        List<LemmaDTO> lemmas = new ArrayList<>();
-        List<VerseDTO> verses = verseDAO.getAllVerses();
-
-        System.out.println("Starting lemmatization for " + verses.size() + " verses...");
-
-        for (VerseDTO verse : verses) {
-
-            if (isVerseLemmatized(verse.getVerseId())) {
-                System.out.println("Verse " + verse.getVerseId() + " already lemmatized, skipping...");
-                continue;
-            }
-
-            String txt = verse.getText();
-            if (txt == null || txt.trim().isEmpty()) continue;
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
+        System.out.println("Starting lemmatization in chunks of " + engine.getChunkSize() + " verses...");
 
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
+        AnalysisEngine.Run run = engine.startRun("Lemmatization");
+        BatchWriter<LemmaDTO> writer = new BatchWriter<>(engine.getBatchSize(), lemmaDAO::createLemmaBatch);
 
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && results.getAllResults() != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0);
-
-                        String lemma = extractLemma(r, word);
-
-                        LemmaDTO lemmaDTO = new LemmaDTO(verse.getVerseId(), word, lemma);
-                        lemmaDTO.setPositionInVerse(position);
-                        lemmas.add(lemmaDTO);
+        try {
+            verseDAO.streamUnprocessedVerses(EnumSet.of(AnnotationType.LEMMA), engine.getChunkSize(), chunk -> {
+                writer.addVerses(run.analyzeByVerse(chunk, (verse, word, position) -> {
+                    AnalysisCache.Entry r = engine.lookup(word);
+                    if (r == null) {
+                        return null;
                     }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-                position++;
-            }
+                    LemmaDTO lemmaDTO = new LemmaDTO(verse.getVerseId(), word, r.getLemma());
+                    lemmaDTO.setPositionInVerse(position);
+                    return lemmaDTO;
+                }));
+            });
+        } finally {
+            writer.close();
+            run.finish();
         }
 
-        if (!lemmas.isEmpty()) {
-            lemmaDAO.createLemmaBatch(lemmas);
-            System.out.println("Lemmatization complete: " + lemmas.size() + " lemmas saved to database.");
+        if (writer.getWritten() > 0) {
+            System.out.println("Lemmatization complete: " + writer.getWritten() + " lemmas saved to database.");
         }
 
-        return lemmas.size();
+        return writer.getWritten();
     }
     @Override
     public List<LemmaDTO> getAllLemmasFromDatabase() {
@@ -165,6 +116,14 @@ public class Lemmatization implements ILemmaBO{
     }
     @Override
     public String extractLemma(Result r, String originalWord) {
+        return lemmaOf(r, originalWord);
+    }
+
+    /**
+     * Lemma of an analysis result, falling back to the voweled form, the stem
+     * and finally the word itself.
+     */
+    static String lemmaOf(Result r, String originalWord) {
         try {
 
             String lemma = r.getLemma();
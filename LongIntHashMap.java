@@ -0,0 +1,111 @@
+package bl.services;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code int} with linear
+ * probing. Used for gram counting, where boxed {@code HashMap<Long, Integer>}
+ * entries would dominate the cost.
+ */
+public class LongIntHashMap {
+
+	@FunctionalInterface
+	public interface EntryConsumer {
+		void accept(long key, int value);
+	}
+
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+	private int mask;
+
+	public LongIntHashMap() {
+		this(16);
+	}
+
+	public LongIntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private int slotOf(long key) {
+		int slot = mix(key) & mask;
+		while (used[slot] && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	public int get(long key, int defaultValue) {
+		int slot = slotOf(key);
+		return used[slot] ? values[slot] : defaultValue;
+	}
+
+	public boolean containsKey(long key) {
+		return used[slotOf(key)];
+	}
+
+	public void put(long key, int value) {
+		int slot = slotOf(key);
+		if (!used[slot]) {
+			used[slot] = true;
+			keys[slot] = key;
+			if (++size > keys.length * LOAD_FACTOR) {
+				values[slot] = value;
+				grow();
+				return;
+			}
+		}
+		values[slot] = value;
+	}
+
+	/** Adds {@code delta} to the value for the key (0 if absent) and returns the new value. */
+	public int addTo(long key, int delta) {
+		int slot = slotOf(key);
+		if (used[slot]) {
+			return values[slot] += delta;
+		}
+		put(key, delta);
+		return delta;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void forEach(EntryConsumer consumer) {
+		for (int i = 0; i < keys.length; i++) {
+			if (used[i]) {
+				consumer.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int slot = slotOf(oldKeys[i]);
+				used[slot] = true;
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void testCountsMatchHashMapAcrossGrowth() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(3000) - 1500L;
+            map.addTo(key, 1);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    public void testZeroKeyAndMissingKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(0L, 5);
+
+        assertTrue(map.containsKey(0L));
+        assertEquals(5, map.get(0L, -1));
+        assertFalse(map.containsKey(1L));
+        assertEquals(-1, map.get(1L, -1));
+    }
+}
@@ -1,11 +1,14 @@
 package pl.controller;
 
 import bl.BLFacade;
+import dto.AnalysisResultDTO;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import pl.Main;
 
@@ -22,6 +25,8 @@ public class MainDashboardController {
     @FXML
     private Button rootExtractBtn;
     @FXML
+    private Button analyzeAllBtn;
+    @FXML
     private Button ngramBtn;
     @FXML
     private Button indexBtn;
@@ -185,6 +190,43 @@ public class MainDashboardController {
         }
     }
 
+    @FXML
+    private void handleAnalyzeAll() {
+        Task<AnalysisResultDTO> task = new Task<>() {
+            @Override
+            protected AnalysisResultDTO call() throws Exception {
+                return getFacade().analyzeAndSaveAllVerses();
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            analyzeAllBtn.setDisable(false);
+            AnalysisResultDTO result = task.getValue();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Analysis Complete");
+            alert.setHeaderText("Analyzed " + result.getVersesProcessed() + " verses in "
+                    + result.getElapsedMillis() / 1000.0 + " s");
+            alert.setContentText("Tokens: " + result.getTokensSaved()
+                    + "\nLemmas: " + result.getLemmasSaved()
+                    + "\nRoots: " + result.getRootsSaved()
+                    + "\nSegments: " + result.getSegmentsSaved());
+            alert.show();
+        });
+
+        task.setOnFailed(e -> {
+            analyzeAllBtn.setDisable(false);
+            task.getException().printStackTrace();
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Analysis Error");
+            alert.setHeaderText("Failed to analyze verses");
+            alert.setContentText("Error: " + task.getException().getMessage());
+            alert.show();
+        });
+
+        analyzeAllBtn.setDisable(true);
+        new Thread(task).start();
+    }
+
     @FXML
     private void handleNGramSimilarity() {
         openWindow("/pl/view/NGramView.fxml", "N-Gram Similarity", 900, 700, null);
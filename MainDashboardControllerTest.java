@@ -62,6 +62,13 @@ public class MainDashboardControllerTest extends BaseControllerTest {
         assertEquals("Root Extract", rootExtractBtn.getText());
     }
 
+    @Test
+    void testAnalyzeAllButtonExists(FxRobot robot) {
+        Button analyzeAllBtn = robot.lookup("#analyzeAllBtn").queryAs(Button.class);
+        assertNotNull(analyzeAllBtn, "Analyze All button should exist");
+        assertEquals("Analyze All", analyzeAllBtn.getText());
+    }
+
     @Test
     void testNGramSimilarityButtonExists(FxRobot robot) {
         Button ngramBtn = robot.lookup("#ngramBtn").queryAs(Button.class);
@@ -109,7 +116,7 @@ public class MainDashboardControllerTest extends BaseControllerTest {
         // All buttons should exist and be enabled
         String[] buttonIds = {
             "#manageBooksBtn", "#tokenizeBtn", "#lemmatizeBtn", "#segmentizeBtn",
-            "#rootExtractBtn", "#ngramBtn", "#indexBtn", "#frequencyBtn",
+            "#rootExtractBtn", "#analyzeAllBtn", "#ngramBtn", "#indexBtn", "#frequencyBtn",
             "#searchBtn", "#browseBtn", "#exitBtn"
         };
 
@@ -0,0 +1,211 @@
+package bl.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import dal.ILemmaDAO;
+import dal.IRootDAO;
+import dal.ISegmentDAO;
+import dal.ITokenDAO;
+import dal.IVerseDAO;
+import dto.AnalysisResultDTO;
+import dto.AnnotationType;
+import dto.LemmaDTO;
+import dto.RootDTO;
+import dto.SegmentDTO;
+import dto.TokenDTO;
+import dto.VerseDTO;
+import net.oujda_nlp_team.ADATAnalyzer;
+
+/**
+ * Produces tokens, lemmas, roots and segments in a single pass over the
+ * verses. Each word is analysed by AlKhalil once, through the analysis
+ * cache, and the result is used for the token, lemma and root rows; ADAT
+ * supplies the segment row. Only verses missing rows in some table are read,
+ * and tables that already hold rows for a verse are left untouched for it.
+ */
+public class MorphologyPipeline implements IMorphologyBO {
+
+    private final IVerseDAO verseDAO;
+    private final ITokenDAO tokenDAO;
+    private final ILemmaDAO lemmaDAO;
+    private final IRootDAO rootDAO;
+    private final ISegmentDAO segmentDAO;
+    private final AnalysisEngine engine;
+
+    public MorphologyPipeline(IVerseDAO verseDAO, ITokenDAO tokenDAO, ILemmaDAO lemmaDAO, IRootDAO rootDAO,
+            ISegmentDAO segmentDAO) {
+        this(verseDAO, tokenDAO, lemmaDAO, rootDAO, segmentDAO, AnalysisEngine.getShared());
+    }
+
+    public MorphologyPipeline(IVerseDAO verseDAO, ITokenDAO tokenDAO, ILemmaDAO lemmaDAO, IRootDAO rootDAO,
+            ISegmentDAO segmentDAO, AnalysisEngine engine) {
+        this.verseDAO = verseDAO;
+        this.tokenDAO = tokenDAO;
+        this.lemmaDAO = lemmaDAO;
+        this.rootDAO = rootDAO;
+        this.segmentDAO = segmentDAO;
+        this.engine = engine;
+    }
+
+    /** Which tables still need rows for a verse. */
+    private record Pending(boolean tokens, boolean lemmas, boolean roots, boolean segments) {
+        boolean needsAlKhalil() {
+            return tokens || lemmas || roots;
+        }
+    }
+
+    /** Everything produced for one word; absent parts are {@code null}. */
+    private record WordAnalysis(TokenDTO token, LemmaDTO lemma, RootDTO root, SegmentDTO segment) {}
+
+    @Override
+    public AnalysisResultDTO analyzeAndSaveAllVerses() {
+        System.out.println("Starting morphology pipeline in chunks of " + engine.getChunkSize() + " verses...");
+        Writers writers = new Writers("Morphology pipeline");
+        AnalysisResultDTO result;
+        try {
+            verseDAO.streamUnprocessedVerses(EnumSet.allOf(AnnotationType.class), engine.getChunkSize(),
+                    writers::process);
+        } finally {
+            // Verses analysed before a failed read are complete and still stored.
+            result = writers.finish();
+        }
+        System.out.println("Morphology pipeline complete: " + result);
+        return result;
+    }
+
+    @Override
+    public AnalysisResultDTO analyzeAndSaveVerses(Collection<Integer> verseIds) {
+        Writers writers = new Writers("Morphology pipeline (" + verseIds.size() + " verses)");
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(verseIds));
+        AnalysisResultDTO result;
+        try {
+            for (int from = 0; from < ids.size(); from += engine.getChunkSize()) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + engine.getChunkSize(), ids.size()));
+                writers.process(verseDAO.getVersesByIds(chunk));
+            }
+        } finally {
+            result = writers.finish();
+        }
+        return result;
+    }
+
+    /** One analysis run with its batch writers, fed chunk by chunk. */
+    private final class Writers {
+        private final long start = System.currentTimeMillis();
+        private final AnalysisEngine.Run run;
+        private final BatchWriter<TokenDTO> tokens = new BatchWriter<>(engine.getBatchSize(), tokenDAO::createTokenBatch);
+        private final BatchWriter<LemmaDTO> lemmas = new BatchWriter<>(engine.getBatchSize(), lemmaDAO::createLemmaBatch);
+        private final BatchWriter<RootDTO> roots = new BatchWriter<>(engine.getBatchSize(), rootDAO::createRootBatch);
+        private final BatchWriter<SegmentDTO> segments = new BatchWriter<>(engine.getBatchSize(),
+                segmentDAO::createSegmentBatch);
+        private int versesProcessed;
+
+        Writers(String label) {
+            this.run = engine.startRun(label);
+        }
+
+        void process(List<VerseDTO> chunk) {
+            List<Integer> ids = new ArrayList<>(chunk.size());
+            for (VerseDTO verse : chunk) {
+                ids.add(verse.getVerseId());
+            }
+            Set<Integer> hasTokens = verseDAO.findAnnotatedVerseIds(AnnotationType.TOKEN, ids);
+            Set<Integer> hasLemmas = verseDAO.findAnnotatedVerseIds(AnnotationType.LEMMA, ids);
+            Set<Integer> hasRoots = verseDAO.findAnnotatedVerseIds(AnnotationType.ROOT, ids);
+            Set<Integer> hasSegments = verseDAO.findAnnotatedVerseIds(AnnotationType.SEGMENT, ids);
+
+            Map<Integer, Pending> pendingById = new HashMap<>();
+            List<VerseDTO> verses = new ArrayList<>();
+            for (VerseDTO verse : chunk) {
+                int id = verse.getVerseId();
+                Pending pending = new Pending(!hasTokens.contains(id), !hasLemmas.contains(id),
+                        !hasRoots.contains(id), !hasSegments.contains(id));
+                if (pending.needsAlKhalil() || pending.segments()) {
+                    pendingById.put(id, pending);
+                    verses.add(verse);
+                }
+            }
+            versesProcessed += verses.size();
+
+            for (List<WordAnalysis> verse : run.analyzeByVerse(verses,
+                    (v, word, position) -> analyzeWord(v, word, position, pendingById.get(v.getVerseId())))) {
+                List<TokenDTO> verseTokens = new ArrayList<>();
+                List<LemmaDTO> verseLemmas = new ArrayList<>();
+                List<RootDTO> verseRoots = new ArrayList<>();
+                List<SegmentDTO> verseSegments = new ArrayList<>();
+                for (WordAnalysis analysis : verse) {
+                    if (analysis.token() != null) verseTokens.add(analysis.token());
+                    if (analysis.lemma() != null) verseLemmas.add(analysis.lemma());
+                    if (analysis.root() != null) verseRoots.add(analysis.root());
+                    if (analysis.segment() != null) verseSegments.add(analysis.segment());
+                }
+                tokens.addVerse(verseTokens);
+                lemmas.addVerse(verseLemmas);
+                roots.addVerse(verseRoots);
+                segments.addVerse(verseSegments);
+            }
+        }
+
+        AnalysisResultDTO finish() {
+            tokens.close();
+            lemmas.close();
+            roots.close();
+            segments.close();
+            run.finish();
+            return new AnalysisResultDTO(versesProcessed, tokens.getWritten(), lemmas.getWritten(),
+                    roots.getWritten(), segments.getWritten(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private WordAnalysis analyzeWord(VerseDTO verse, String word, int position, Pending pending) {
+        int verseId = verse.getVerseId();
+        TokenDTO token = null;
+        LemmaDTO lemma = null;
+        RootDTO root = null;
+        SegmentDTO segment = null;
+
+        if (pending.needsAlKhalil()) {
+            try {
+                AnalysisCache.Entry r = engine.lookup(word);
+                if (r != null) {
+                    if (pending.tokens()) {
+                        token = new TokenDTO(verseId, word, r.getRoot());
+                        token.setPositionInVerse(position);
+                    }
+                    if (pending.lemmas()) {
+                        lemma = new LemmaDTO(verseId, word, r.getLemma());
+                        lemma.setPositionInVerse(position);
+                    }
+                    if (pending.roots()) {
+                        root = new RootDTO(verseId, word, r.getRoot() != null ? r.getRoot() : "");
+                        root.setPositionInVerse(position);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Error analysing word '" + word + "': " + e.getMessage());
+            }
+        }
+
+        if (pending.segments()) {
+            try {
+                String segmentString = ADATAnalyzer.getInstance().processADATTokenizedString(word);
+                segment = new SegmentDTO(verseId, word, segmentString, "", "");
+                segment.setPositionInVerse(position);
+            } catch (Exception e) {
+                System.err.println("Error segmenting word '" + word + "': " + e.getMessage());
+            }
+        }
+
+        if (token == null && lemma == null && root == null && segment == null) {
+            return null;
+        }
+        return new WordAnalysis(token, lemma, root, segment);
+    }
+}
@@ -0,0 +1,170 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import dal.ILemmaDAO;
+import dal.IRootDAO;
+import dal.ISegmentDAO;
+import dal.ITokenDAO;
+import dal.IVerseDAO;
+import dto.AnalysisResultDTO;
+import dto.AnnotationType;
+import dto.LemmaDTO;
+import dto.RootDTO;
+import dto.TokenDTO;
+import dto.VerseDTO;
+
+public class MorphologyPipelineTest {
+
+    @Mock
+    private IVerseDAO verseDAOMock;
+
+    @Mock
+    private ITokenDAO tokenDAOMock;
+
+    @Mock
+    private ILemmaDAO lemmaDAOMock;
+
+    @Mock
+    private IRootDAO rootDAOMock;
+
+    @Mock
+    private ISegmentDAO segmentDAOMock;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private MorphologyPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AnalysisCache cache = new AnalysisCache(100, word -> {
+            lookups.incrementAndGet();
+            return new AnalysisCache.Entry("root-" + word, "lemma-" + word);
+        });
+        pipeline = new MorphologyPipeline(verseDAOMock, tokenDAOMock, lemmaDAOMock, rootDAOMock, segmentDAOMock,
+                new AnalysisEngine(2, cache));
+
+        when(verseDAOMock.getVersesByIds(anyCollection())).thenReturn(Arrays.asList(
+                verse(1, "كتب قرأ"), verse(2, "كتب"), verse(3, "درس")));
+        // Verse 1 only lacks lemmas, verse 2 lacks tokens and lemmas, verse 3
+        // lacks everything but segments.
+        stubAnnotated(AnnotationType.TOKEN, 1);
+        stubAnnotated(AnnotationType.LEMMA);
+        stubAnnotated(AnnotationType.ROOT, 1, 2);
+        stubAnnotated(AnnotationType.SEGMENT, 1, 2, 3);
+
+        when(tokenDAOMock.createTokenBatch(anyList())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        when(lemmaDAOMock.createLemmaBatch(anyList())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        when(rootDAOMock.createRootBatch(anyList())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+    }
+
+    private static VerseDTO verse(int verseId, String text) {
+        VerseDTO verse = new VerseDTO();
+        verse.setVerseId(verseId);
+        verse.setText(text);
+        return verse;
+    }
+
+    private void stubAnnotated(AnnotationType type, Integer... verseIds) {
+        when(verseDAOMock.findAnnotatedVerseIds(eq(type), anyCollection()))
+                .thenReturn(new HashSet<>(Arrays.asList(verseIds)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSkipsTablesThatAlreadyHaveRows() {
+        AnalysisResultDTO result = pipeline.analyzeAndSaveVerses(Arrays.asList(3, 1, 2));
+
+        ArgumentCaptor<List<TokenDTO>> tokens = ArgumentCaptor.forClass(List.class);
+        verify(tokenDAOMock).createTokenBatch(tokens.capture());
+        assertEquals(2, tokens.getValue().size());
+        assertEquals(2, tokens.getValue().get(0).getVerseId());
+        assertEquals(3, tokens.getValue().get(1).getVerseId());
+
+        ArgumentCaptor<List<LemmaDTO>> lemmas = ArgumentCaptor.forClass(List.class);
+        verify(lemmaDAOMock).createLemmaBatch(lemmas.capture());
+        assertEquals(4, lemmas.getValue().size());
+        assertEquals(2, lemmas.getValue().get(1).getPositionInVerse());
+
+        ArgumentCaptor<List<RootDTO>> roots = ArgumentCaptor.forClass(List.class);
+        verify(rootDAOMock).createRootBatch(roots.capture());
+        assertEquals(1, roots.getValue().size());
+        assertEquals(3, roots.getValue().get(0).getVerseId());
+        assertEquals("root-درس", roots.getValue().get(0).getRoot());
+
+        verify(segmentDAOMock, never()).createSegmentBatch(anyList());
+        assertEquals(3, result.getVersesProcessed());
+        assertEquals(2, result.getTokensSaved());
+        assertEquals(4, result.getLemmasSaved());
+        assertEquals(1, result.getRootsSaved());
+        assertEquals(0, result.getSegmentsSaved());
+    }
+
+    @Test
+    public void testOneLookupFeedsTokenLemmaAndRootRows() {
+        pipeline.analyzeAndSaveVerses(Arrays.asList(1, 2, 3));
+
+        // Seven rows from three distinct words, each analysed once.
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    public void testFailedLookupWritesNothing() {
+        when(verseDAOMock.findAnnotatedVerseIds(eq(AnnotationType.LEMMA), anyCollection()))
+                .thenThrow(new IllegalStateException("Could not check existing lemma rows"));
+
+        assertThrows(IllegalStateException.class, () -> pipeline.analyzeAndSaveVerses(Arrays.asList(1, 2, 3)));
+
+        verify(tokenDAOMock, never()).createTokenBatch(anyList());
+        verify(lemmaDAOMock, never()).createLemmaBatch(anyList());
+        verify(rootDAOMock, never()).createRootBatch(anyList());
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    public void testRolledBackBatchIsNotCounted() {
+        when(lemmaDAOMock.createLemmaBatch(anyList())).thenReturn(0);
+
+        AnalysisResultDTO result = pipeline.analyzeAndSaveVerses(Arrays.asList(1, 2, 3));
+
+        assertEquals(2, result.getTokensSaved());
+        assertEquals(0, result.getLemmasSaved());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedReadStoresAnalysedVersesAndFails() {
+        doAnswer(inv -> {
+            inv.<Consumer<List<VerseDTO>>>getArgument(2).accept(Arrays.asList(verse(3, "درس")));
+            throw new IllegalStateException("Could not read verses");
+        }).when(verseDAOMock).streamUnprocessedVerses(any(), anyInt(), any());
+
+        assertThrows(IllegalStateException.class, () -> pipeline.analyzeAndSaveAllVerses());
+
+        ArgumentCaptor<List<RootDTO>> roots = ArgumentCaptor.forClass(List.class);
+        verify(rootDAOMock).createRootBatch(roots.capture());
+        assertEquals(3, roots.getValue().get(0).getVerseId());
+    }
+}
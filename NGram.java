@@ -1,15 +1,17 @@
 package bl.services;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import dal.IVerseDAO;
-import dal.VerseDAO;
 import dto.VerseDTO;
 
 public class NGram implements INGram{
     
     private IVerseDAO verseDAO;
+    private final Map<Integer, NGramIndex> indexes = new HashMap<>();
     
     public NGram(IVerseDAO verseDAO) {
 		this.verseDAO = verseDAO;
@@ -34,25 +36,7 @@ public class NGram implements INGram{
     
     @Override
     public int intersectionCount(List<String> gramsA, List<String> gramsB) {
-        int count = 0;
-        List<Boolean> used = new ArrayList<>();
-        
-
-        for (int i = 0; i < gramsB.size(); i++) {
-            used.add(false);
-        }
-        
-        for (String gramA : gramsA) {
-            for (int j = 0; j < gramsB.size(); j++) {
-                if (!used.get(j) && gramA.equals(gramsB.get(j))) {
-                    count++;
-                    used.set(j, true);
-                    break;
-                }
-            }
-        }
-        
-        return count;
+        return GramEncoder.intersection(GramEncoder.encodeAll(gramsA), GramEncoder.encodeAll(gramsB));
     }
     
     @Override
@@ -78,39 +62,34 @@ public class NGram implements INGram{
     
     @Override
     public int countCommonWords(List<String> wordsA, List<String> wordsB) {
-        int count = 0;
-        List<Boolean> used = new ArrayList<>();
-        
-
-        for (int i = 0; i < wordsB.size(); i++) {
-            used.add(false);
-        }
-        
-        for (String wordA : wordsA) {
-            for (int j = 0; j < wordsB.size(); j++) {
-                if (!used.get(j) && wordA.equals(wordsB.get(j))) {
-                    count++;
-                    used.set(j, true);
-                    break;
-                }
-            }
-        }
-        
-        return count;
+        return GramEncoder.intersection(GramEncoder.encodeAll(wordsA), GramEncoder.encodeAll(wordsB));
     }
     @Override
     public double calculateSimilarity(String text1, String text2, int n) {
-        List<String> gramsA = generateNGrams(text1, n);
-        List<String> gramsB = generateNGrams(text2, n);
+        long[] gramsA = GramEncoder.encodeNGrams(text1, n);
+        long[] gramsB = GramEncoder.encodeNGrams(text2, n);
         
-        if (gramsA.isEmpty()) {
+        if (gramsA.length == 0) {
             return 0.0;
         }
         
-        int intersection = intersectionCount(gramsA, gramsB);
-        return ((double) intersection / gramsA.size()) * 100.0;
+        int intersection = GramEncoder.intersection(gramsA, gramsB);
+        return ((double) intersection / gramsA.length) * 100.0;
     }
     
+    /**
+     * Index for the given n, rebuilt when verses have changed since it was
+     * built.
+     */
+    synchronized NGramIndex getIndex(int n) {
+        NGramIndex index = indexes.get(n);
+        if (index == null || index.isStale()) {
+            index = NGramIndex.build(verseDAO, n);
+            indexes.put(n, index);
+        }
+        return index;
+    }
+
     @Override
     public List<NGramResult> findSimilarVerses(String targetText, int n, double minSimilarity) {
         List<NGramResult> results = new ArrayList<>();
@@ -127,55 +106,39 @@ public class NGram implements INGram{
             System.out.println("N-gram size: " + n);
             System.out.println("Min similarity: " + minSimilarity);
             
-
-            
-            
-            
+            long[] targetGrams = GramEncoder.encodeNGrams(targetText, n);
+            long[] targetWords = GramEncoder.encodeAll(splitWords(targetText));
             
-            List<VerseDTO> allVerses = verseDAO.getAllVerses();
-            System.out.println("Total verses in database: " + allVerses.size());
-            
-            List<String> targetGrams = generateNGrams(targetText, n);
-            List<String> targetWords = splitWords(targetText);
-            
-            if (targetGrams.isEmpty()) {
+            if (targetGrams.length == 0) {
                 System.err.println("Target verse is too short for N=" + n);
                 return results;
             }
             
-            System.out.println("Target N-grams count: " + targetGrams.size());
-            System.out.println("Target words count: " + targetWords.size());
+            System.out.println("Target N-grams count: " + targetGrams.length);
+            System.out.println("Target words count: " + targetWords.length);
 
-            int processedCount = 0;
-            for (VerseDTO verse : allVerses) {
-                String verseText = verse.getText();
-                
-                if (verseText == null || verseText.trim().isEmpty()) {
-                    continue;
-                }
-                
-                List<String> verseGrams = generateNGrams(verseText, n);
-                List<String> verseWords = splitWords(verseText);
-                
-                if (verseGrams.isEmpty()) {
+            NGramIndex index = getIndex(n);
+            System.out.println("Total verses in index: " + index.size());
+
+            // Only verses sharing a gram with the target can score above zero,
+            // so the index lookup touches just those candidates.
+            int[] intersections = index.intersections(targetGrams);
+            for (int slot = 0; slot < index.size(); slot++) {
+                int intersection = intersections[slot];
+                if (intersection == 0 && minSimilarity > 0) {
                     continue;
                 }
-                
-
-                int intersection = intersectionCount(targetGrams, verseGrams);
-                double similarity = ((double) intersection / targetGrams.size()) * 100.0;
-                
-
-                int commonWords = countCommonWords(targetWords, verseWords);
-                
-                processedCount++;
+                double similarity = ((double) intersection / targetGrams.length) * 100.0;
                 
                 if (similarity >= minSimilarity) {
+                    VerseDTO verse = index.getVerse(slot);
+                    int commonWords = GramEncoder.intersection(targetWords,
+                            GramEncoder.encodeAll(splitWords(verse.getText())));
                     NGramResult result = new NGramResult(
                         verse,
                         similarity,
-                        targetGrams.size(),
-                        verseGrams.size(),
+                        targetGrams.length,
+                        index.getGramCount(slot),
                         intersection,
                         commonWords
                     );
@@ -186,7 +149,6 @@ public class NGram implements INGram{
                 }
             }
             
-            System.out.println("Processed " + processedCount + " verses");
             System.out.println("Found " + results.size() + " matches");
             
 
@@ -0,0 +1,140 @@
+package bl.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dal.DataVersion;
+import dal.IVerseDAO;
+import dto.VerseDTO;
+
+/**
+ * Inverted index from character n-gram to the verses containing it.
+ *
+ * Each posting list stores pairs of (verse slot, occurrences in that verse),
+ * so the multiset intersection with a query is the sum of
+ * {@code min(queryCount, verseCount)} over the query's grams, computed only
+ * for verses that share at least one gram. Only verses with at least one
+ * gram are indexed, matching what {@link NGram#findSimilarVerses} compares.
+ *
+ * Grams are held as {@link GramEncoder} codes and looked up through a
+ * primitive map, so neither building nor querying allocates per gram.
+ */
+public class NGramIndex {
+
+	private static final int CHUNK_SIZE = 1000;
+
+	private final int n;
+	private final long version;
+	private final List<VerseDTO> verses = new ArrayList<>();
+	private int[] gramCounts = new int[64];
+	private final LongIntHashMap postingIds = new LongIntHashMap(1024);
+	private final List<IntList> building = new ArrayList<>();
+	private int[][] postings;
+
+	private NGramIndex(int n, long version) {
+		this.n = n;
+		this.version = version;
+	}
+
+	/**
+	 * Reads every verse once and indexes its n-grams, encoded exactly as
+	 * {@link NGram#generateNGrams} would produce them.
+	 */
+	public static NGramIndex build(IVerseDAO verseDAO, int n) {
+		long start = System.currentTimeMillis();
+		NGramIndex index = new NGramIndex(n, DataVersion.current());
+
+		verseDAO.streamVerses(CHUNK_SIZE, chunk -> {
+			for (VerseDTO verse : chunk) {
+				String text = verse.getText();
+				if (text == null || text.trim().isEmpty()) {
+					continue;
+				}
+				long[] codes = GramEncoder.encodeNGrams(text, n);
+				if (codes.length == 0) {
+					continue;
+				}
+				int slot = index.addVerse(verse, codes.length);
+				GramEncoder.count(codes).forEach((code, count) -> index.addPosting(code, slot, count));
+			}
+		});
+
+		index.postings = new int[index.building.size()][];
+		for (int i = 0; i < index.postings.length; i++) {
+			index.postings[i] = index.building.get(i).toArray();
+		}
+		index.building.clear();
+		System.out.println("Built " + n + "-gram index: " + index.size() + " verses, " + index.postings.length
+				+ " distinct grams in " + (System.currentTimeMillis() - start) + " ms");
+		return index;
+	}
+
+	private void addPosting(long code, int slot, int count) {
+		int id = postingIds.get(code, -1);
+		if (id < 0) {
+			id = building.size();
+			building.add(new IntList());
+			postingIds.put(code, id);
+		}
+		IntList list = building.get(id);
+		list.add(slot);
+		list.add(count);
+	}
+
+	private int addVerse(VerseDTO verse, int gramCount) {
+		int slot = verses.size();
+		verses.add(verse);
+		if (slot == gramCounts.length) {
+			gramCounts = Arrays.copyOf(gramCounts, slot * 2);
+		}
+		gramCounts[slot] = gramCount;
+		return slot;
+	}
+
+	/**
+	 * Multiset intersection size between the query grams and every indexed
+	 * verse, indexed by verse slot. Verses sharing no gram get 0.
+	 */
+	public int[] intersections(long[] queryCodes) {
+		int[] result = new int[verses.size()];
+		GramEncoder.count(queryCodes).forEach((code, queryCount) -> {
+			int id = postingIds.get(code, -1);
+			if (id < 0) {
+				return;
+			}
+			int[] list = postings[id];
+			for (int i = 0; i < list.length; i += 2) {
+				result[list[i]] += Math.min(queryCount, list[i + 1]);
+			}
+		});
+		return result;
+	}
+
+	public int getN() { return n; }
+	public long getVersion() { return version; }
+	public int size() { return verses.size(); }
+	public VerseDTO getVerse(int slot) { return verses.get(slot); }
+	public int getGramCount(int slot) { return gramCounts[slot]; }
+
+	/** Whether verses have changed since this index was built. */
+	public boolean isStale() {
+		return version != DataVersion.current();
+	}
+
+	private static final class IntList {
+		private int[] values = new int[4];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import bl.services.NGram.NGramResult;
+import dal.DataVersion;
+import dal.IVerseDAO;
+import dto.VerseDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class NGramTest {
+
+    @Mock
+    private IVerseDAO verseDAOMock;
+
+    private NGram ngram;
+
+    private final List<VerseDTO> verses = List.of(
+            new VerseDTO(1, 1, 1, "قفا نبك من ذكرى حبيب ومنزل", null, null, null),
+            new VerseDTO(2, 1, 2, "بسقط اللوى بين الدخول فحومل", null, null, null),
+            new VerseDTO(3, 2, 1, "قفا نبك من ذكرى حبيب وعرفان", null, null, null),
+            new VerseDTO(4, 2, 2, "", null, null, null));
+
+    @BeforeEach
+    public void setUp() {
+        ngram = new NGram(verseDAOMock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubVerses() {
+        doAnswer(invocation -> {
+            ((Consumer<List<VerseDTO>>) invocation.getArgument(1)).accept(verses);
+            return verses.size();
+        }).when(verseDAOMock).streamVerses(anyInt(), any());
+    }
+
+    @Test
+    public void testIntersectionCountsRepeatedGramsOnce() {
+        assertEquals(2, ngram.intersectionCount(List.of("ab", "ab", "cd"), List.of("ab", "cd", "ef")));
+        assertEquals(2, ngram.countCommonWords(List.of("قال", "قال", "لي"), List.of("قال", "قال")));
+    }
+
+    @Test
+    public void testEncodedSimilarityMatchesStringGrams() {
+        String a = "  قفا نبك   من ذكرى حبيب ومنزل ";
+        String b = "قفا نبك من ذكرى حبيب وعرفان";
+        for (int n = 1; n <= 6; n++) {
+            List<String> gramsA = ngram.generateNGrams(a, n);
+            double expected = ((double) ngram.intersectionCount(gramsA, ngram.generateNGrams(b, n)) / gramsA.size()) * 100.0;
+            assertEquals(expected, ngram.calculateSimilarity(a, b, n), 0.0);
+            assertEquals(gramsA.size(), GramEncoder.encodeNGrams(a, n).length);
+        }
+    }
+
+    @Test
+    public void testFindSimilarVersesMatchesPairwiseSimilarity() {
+        stubVerses();
+        String target = "قفا نبك من ذكرى حبيب";
+
+        List<NGramResult> results = ngram.findSimilarVerses(target, 2, 30.0);
+
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getVerse().getVerseId());
+        for (NGramResult result : results) {
+            assertEquals(ngram.calculateSimilarity(target, result.getVerse().getText(), 2),
+                    result.getSimilarity(), 0.0);
+        }
+    }
+
+    @Test
+    public void testZeroThresholdIncludesVersesWithoutSharedGrams() {
+        stubVerses();
+        List<NGramResult> results = ngram.findSimilarVerses("قفا نبك", 2, 0.0);
+
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    public void testIndexIsReusedUntilVersesChange() {
+        stubVerses();
+        ngram.findSimilarVerses("قفا نبك", 2, 10.0);
+        ngram.findSimilarVerses("حبيب", 2, 10.0);
+        verify(verseDAOMock, times(1)).streamVerses(anyInt(), any());
+
+        DataVersion.bump();
+        ngram.findSimilarVerses("حبيب", 2, 10.0);
+        verify(verseDAOMock, times(2)).streamVerses(anyInt(), any());
+    }
+}
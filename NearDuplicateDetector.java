@@ -0,0 +1,226 @@
+package bl.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import dal.IVerseDAO;
+import dto.SimilarPairDTO;
+import dto.VerseDTO;
+
+/**
+ * Finds near-duplicate verse pairs across the whole corpus with MinHash and
+ * LSH banding instead of comparing every verse with every other.
+ *
+ * Each verse is reduced to its set of character n-grams (as
+ * {@link GramEncoder} codes) and a MinHash signature. Signatures are split
+ * into bands; verses that agree on a whole band land in the same bucket and
+ * become candidates. Every candidate pair is then checked with the exact
+ * Jaccard similarity of the two gram sets, so the output contains no false
+ * positives. The band layout is chosen from the threshold so that pairs at
+ * or above it are very likely to collide in at least one band.
+ */
+public class NearDuplicateDetector implements INearDuplicateBO {
+
+    private static final int NUM_HASHES = 128;
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    private static final int CHUNK_SIZE = 1000;
+
+    private final IVerseDAO verseDAO;
+    private final long[] multipliers = new long[NUM_HASHES];
+    private final long[] offsets = new long[NUM_HASHES];
+
+    public NearDuplicateDetector(IVerseDAO verseDAO) {
+        this.verseDAO = verseDAO;
+        Random random = new Random(SEED);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    @Override
+    public List<SimilarPairDTO> findNearDuplicatePairs(int n, double minJaccard) {
+        if (n < 1) {
+            throw new IllegalArgumentException("N-gram size must be at least 1");
+        }
+        if (minJaccard <= 0 || minJaccard > 1) {
+            throw new IllegalArgumentException("Jaccard threshold must be in (0, 1]");
+        }
+        long start = System.currentTimeMillis();
+
+        List<VerseDTO> verses = new ArrayList<>();
+        List<long[]> gramSets = new ArrayList<>();
+        verseDAO.streamVerses(CHUNK_SIZE, chunk -> {
+            for (VerseDTO verse : chunk) {
+                long[] set = distinctSorted(GramEncoder.encodeNGrams(verse.getText(), n));
+                if (set.length > 0) {
+                    verses.add(verse);
+                    gramSets.add(set);
+                }
+            }
+        });
+
+        int count = verses.size();
+        long[][] signatures = new long[count][];
+        IntStream.range(0, count).parallel().forEach(i -> signatures[i] = signature(gramSets.get(i)));
+
+        int rows = rowsPerBand(minJaccard);
+        int bands = NUM_HASHES / rows;
+
+        List<SimilarPairDTO> pairs = new ArrayList<>();
+        LongIntHashMap seen = new LongIntHashMap(count);
+        int[] next = new int[count];
+        int candidates = 0;
+
+        for (int band = 0; band < bands; band++) {
+            // Buckets are chained through next[], heads keyed by the band hash.
+            LongIntHashMap heads = new LongIntHashMap(count);
+            for (int i = 0; i < count; i++) {
+                long key = bandKey(signatures[i], band * rows, rows);
+                int head = heads.get(key, -1);
+                for (int j = head; j != -1; j = next[j]) {
+                    long pairKey = ((long) j << 32) | i;
+                    if (seen.containsKey(pairKey)) {
+                        continue;
+                    }
+                    seen.put(pairKey, 1);
+                    candidates++;
+                    double jaccard = jaccard(gramSets.get(j), gramSets.get(i));
+                    if (jaccard >= minJaccard) {
+                        pairs.add(new SimilarPairDTO(verses.get(j), verses.get(i),
+                                agreement(signatures[j], signatures[i]), jaccard));
+                    }
+                }
+                next[i] = head;
+                heads.put(key, i);
+            }
+        }
+
+        pairs.sort((a, b) -> Double.compare(b.getSimilarity(), a.getSimilarity()));
+        System.out.println("Near-duplicate scan: " + count + " verses, " + bands + " bands x " + rows + " rows, "
+                + candidates + " candidate pairs, " + pairs.size() + " pairs >= " + minJaccard + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return pairs;
+    }
+
+    @Override
+    public int exportNearDuplicatePairs(int n, double minJaccard, File output) throws IOException {
+        List<SimilarPairDTO> pairs = findNearDuplicatePairs(n, minJaccard);
+        try (PrintWriter writer = new PrintWriter(output, StandardCharsets.UTF_8)) {
+            writer.println("Verse A ID,Poem A ID,Verse B ID,Poem B ID,Similarity,Estimated Similarity,Verse A,Verse B");
+            for (SimilarPairDTO pair : pairs) {
+                writer.printf(Locale.ROOT, "%d,%d,%d,%d,%.4f,%.4f,%s,%s%n",
+                        pair.getFirst().getVerseId(), pair.getFirst().getPoemId(),
+                        pair.getSecond().getVerseId(), pair.getSecond().getPoemId(),
+                        pair.getSimilarity(), pair.getEstimatedSimilarity(),
+                        csv(pair.getFirst().getText()), csv(pair.getSecond().getText()));
+            }
+        }
+        System.out.println("Exported " + pairs.size() + " near-duplicate pairs to " + output.getAbsolutePath());
+        return pairs.size();
+    }
+
+    /**
+     * Rows per band for the given threshold: the most selective layout whose
+     * collision threshold (1/b)^(1/r) still lies at or below it.
+     */
+    static int rowsPerBand(double minJaccard) {
+        int best = 1;
+        for (int rows = 1; rows <= NUM_HASHES; rows *= 2) {
+            int bands = NUM_HASHES / rows;
+            if (Math.pow(1.0 / bands, 1.0 / rows) <= minJaccard) {
+                best = rows;
+            }
+        }
+        return best;
+    }
+
+    private long[] signature(long[] set) {
+        long[] sig = new long[NUM_HASHES];
+        Arrays.fill(sig, Long.MAX_VALUE);
+        for (long code : set) {
+            for (int h = 0; h < NUM_HASHES; h++) {
+                long value = mix(code * multipliers[h] + offsets[h]);
+                if (value < sig[h]) {
+                    sig[h] = value;
+                }
+            }
+        }
+        return sig;
+    }
+
+    private static long bandKey(long[] signature, int from, int rows) {
+        long h = from;
+        for (int i = from; i < from + rows; i++) {
+            h = mix(h * 31 + signature[i]);
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double agreement(long[] a, long[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    static long[] distinctSorted(long[] codes) {
+        if (codes.length == 0) {
+            return codes;
+        }
+        long[] sorted = codes.clone();
+        Arrays.sort(sorted);
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    static double jaccard(long[] a, long[] b) {
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
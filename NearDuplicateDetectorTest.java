@@ -0,0 +1,84 @@
+package bl.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import dal.IVerseDAO;
+import dto.SimilarPairDTO;
+import dto.VerseDTO;
+
+@ExtendWith(MockitoExtension.class)
+public class NearDuplicateDetectorTest {
+
+    @Mock
+    private IVerseDAO verseDAOMock;
+
+    private final List<VerseDTO> verses = List.of(
+            new VerseDTO(1, 1, 1, "قفا نبك من ذكرى حبيب ومنزل بسقط اللوى", null, null, null),
+            new VerseDTO(2, 1, 2, "ألا أيها الليل الطويل ألا انجلي", null, null, null),
+            new VerseDTO(3, 2, 1, "قفا نبك من ذكرى حبيب ومنزل بسقط الحمى", null, null, null),
+            new VerseDTO(4, 3, 1, "قفا نبك من ذكرى حبيب ومنزل بسقط اللوى", null, null, null));
+
+    @SuppressWarnings("unchecked")
+    private void stubVerses() {
+        doAnswer(invocation -> {
+            ((Consumer<List<VerseDTO>>) invocation.getArgument(1)).accept(verses);
+            return verses.size();
+        }).when(verseDAOMock).streamVerses(anyInt(), any());
+    }
+
+    @Test
+    public void testFindsNearDuplicatesWithExactSimilarity() {
+        stubVerses();
+        NearDuplicateDetector detector = new NearDuplicateDetector(verseDAOMock);
+
+        List<SimilarPairDTO> pairs = detector.findNearDuplicatePairs(3, 0.7);
+
+        assertEquals(3, pairs.size());
+        assertEquals(1.0, pairs.get(0).getSimilarity(), 0.0);
+        assertEquals(1, pairs.get(0).getFirst().getVerseId());
+        assertEquals(4, pairs.get(0).getSecond().getVerseId());
+        for (SimilarPairDTO pair : pairs) {
+            assertTrue(pair.getFirst().getVerseId() != 2 && pair.getSecond().getVerseId() != 2);
+            assertTrue(pair.getSimilarity() >= 0.7);
+        }
+    }
+
+    @Test
+    public void testExportWritesOneRowPerPair(@TempDir Path dir) throws Exception {
+        stubVerses();
+        NearDuplicateDetector detector = new NearDuplicateDetector(verseDAOMock);
+        File output = dir.resolve("pairs.csv").toFile();
+
+        int exported = detector.exportNearDuplicatePairs(3, 0.95, output);
+
+        List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+        assertEquals(1, exported);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("1,1,4,3,1.0000,1.0000,"));
+    }
+
+    @Test
+    public void testInvalidThresholdIsRejected() {
+        NearDuplicateDetector detector = new NearDuplicateDetector(verseDAOMock);
+
+        assertThrows(IllegalArgumentException.class, () -> detector.findNearDuplicatePairs(3, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package dal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the sort key of the last row of a page as an opaque cursor, so the
+ * next page can continue with a keyset condition instead of an OFFSET.
+ */
+final class PageCursor {
+    private static final String SEPARATOR = "\u001F";
+
+    private PageCursor() {
+    }
+
+    static String encode(Object... keys) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(keys[i] == null ? "" : keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits a cursor back into its keys, or returns {@code null} for no
+     * cursor (the first page).
+     */
+    static String[] decode(String cursor, int keyCount) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String[] keys;
+        try {
+            keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+        if (keys.length != keyCount) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        return keys;
+    }
+
+    static int decodeInt(String cursor) {
+        String[] keys = decode(cursor, 1);
+        if (keys == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(keys[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a larger result. {@code nextCursor} is an opaque token to pass
+ * back for the following page and is {@code null} on the last page.
+ * {@code totalEstimate} is the expected number of results over all pages, or
+ * -1 when it is not known; it is only computed for the first page.
+ */
+public class PageDTO<T> {
+    private List<T> items = new ArrayList<>();
+    private String nextCursor;
+    private long totalEstimate = -1;
+
+    public PageDTO() {}
+
+    public PageDTO(List<T> items, String nextCursor, long totalEstimate) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.totalEstimate = totalEstimate;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public long getTotalEstimate() { return totalEstimate; }
+    public void setTotalEstimate(long totalEstimate) { this.totalEstimate = totalEstimate; }
+
+    public boolean hasNext() { return nextCursor != null; }
+
+    @Override
+    public String toString() {
+        return "PageDTO{items=" + items.size() + ", nextCursor=" + nextCursor + ", totalEstimate=" + totalEstimate + "}";
+    }
+}
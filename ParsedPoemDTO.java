@@ -0,0 +1,31 @@
+package dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A poem as read from an import file: its title, its poet (0 when the file
+ * does not name one) and the texts of its verses in order.
+ */
+public class ParsedPoemDTO {
+    private String title;
+    private int poetId;
+    private List<String> verses = new ArrayList<>();
+
+    public ParsedPoemDTO() {}
+
+    public ParsedPoemDTO(String title, int poetId, List<String> verses) {
+        this.title = title;
+        this.poetId = poetId;
+        this.verses = verses;
+    }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public int getPoetId() { return poetId; }
+    public void setPoetId(int poetId) { this.poetId = poetId; }
+
+    public List<String> getVerses() { return verses; }
+    public void setVerses(List<String> verses) { this.verses = verses; }
+}
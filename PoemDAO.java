@@ -72,7 +72,10 @@ public class PoemDAO implements IPoemDAO {
             ps.setInt(2, poem.getPoetId());
             ps.setInt(3, poem.getBookId());
             ps.setInt(4, poem.getPoemId());
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0) {
+                // The poem may have moved to another poet or book.
+                FrequencyStore.getShared().invalidateScopes();
+            }
         } catch (SQLException e) {
             logger.error("Error updating poem: {}", e.getMessage(), e);
         }
@@ -85,6 +88,8 @@ public class PoemDAO implements IPoemDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, poemId);
             ps.executeUpdate();
+            DataVersion.bump();
+            FrequencyStore.getShared().invalidateAll();
         } catch (SQLException e) {
             logger.error("Error deleting poem: {}", e.getMessage(), e);
         }
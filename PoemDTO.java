@@ -7,7 +7,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
-import dal.DatabaseConfigure;
+import dal.DatabaseConnection;
 
 public class PoemDTO {
     private int poemId;
@@ -64,7 +64,7 @@ public class PoemDTO {
     public List<PoemDTO> getPoemsByBookId(int bookId) {
         List<PoemDTO> poems = new ArrayList<>();
         String sql = "SELECT * FROM poem WHERE book_id = ?";
-        try (Connection con = DatabaseConfigure.getConnection();
+        try (Connection con = new DatabaseConnection().getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, bookId);
             ResultSet rs = ps.executeQuery();
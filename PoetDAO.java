@@ -83,6 +83,9 @@ public class PoetDAO implements IPoetDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, poetId);
             ps.executeUpdate();
+            IdentityCache.removePoet(poetId);
+            DataVersion.bump();
+            FrequencyStore.getShared().invalidateAll();
         } catch (SQLException e) {
             logger.error("Error deleting poet: {}", e.getMessage(), e);
         }
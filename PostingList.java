@@ -0,0 +1,86 @@
+package dal;
+
+import java.util.Arrays;
+
+/**
+ * Immutable ascending set of verse ids, stored as variable-length encoded
+ * gaps between consecutive ids. Ids of a term cluster within poems, so most
+ * gaps fit in one byte and a list costs about a byte per verse instead of the
+ * 4 of an {@code int[]} (or ~16 of a boxed {@code Integer}).
+ */
+final class PostingList {
+
+    static final PostingList EMPTY = new PostingList(new byte[0], 0);
+
+    private final byte[] data;
+    private final int size;
+
+    private PostingList(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Encodes the first {@code length} ids of {@code ids}, which are sorted in
+     * place; duplicates are dropped. Ids must not be negative.
+     */
+    static PostingList of(int[] ids, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(ids, 0, length);
+        byte[] out = new byte[length * 5];
+        int pos = 0;
+        int count = 0;
+        int previous = -1;
+        for (int i = 0; i < length; i++) {
+            int id = ids[i];
+            if (id < 0) {
+                throw new IllegalArgumentException("Verse ids cannot be negative");
+            }
+            if (id == previous) {
+                continue;
+            }
+            // The first id is stored as a gap from -1 so every gap is at least 1.
+            int gap = id - previous;
+            while ((gap & ~0x7F) != 0) {
+                out[pos++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            out[pos++] = (byte) gap;
+            previous = id;
+            count++;
+        }
+        return new PostingList(Arrays.copyOf(out, pos), count);
+    }
+
+    /** Number of distinct ids. */
+    int size() {
+        return size;
+    }
+
+    /** Encoded size in bytes. */
+    int byteSize() {
+        return data.length;
+    }
+
+    /** The ids in ascending order. */
+    int[] toArray() {
+        int[] ids = new int[size];
+        int pos = 0;
+        int previous = -1;
+        for (int i = 0; i < size; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += gap;
+            ids[i] = previous;
+        }
+        return ids;
+    }
+}
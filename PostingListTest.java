@@ -0,0 +1,46 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class PostingListTest {
+
+    @Test
+    public void testRoundTripSortsAndDropsDuplicates() {
+        int[] ids = { 42, 7, 7, 0, 300, 42, 1 };
+
+        PostingList list = PostingList.of(ids, ids.length);
+
+        assertEquals(5, list.size());
+        assertArrayEquals(new int[] { 0, 1, 7, 42, 300 }, list.toArray());
+    }
+
+    @Test
+    public void testSmallGapsTakeOneByte() {
+        int[] ids = new int[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 5000 + i * 3;
+        }
+
+        PostingList list = PostingList.of(ids.clone(), ids.length);
+
+        assertArrayEquals(ids, list.toArray());
+        assertEquals(2 + 999, list.byteSize()); // first id needs two bytes
+    }
+
+    @Test
+    public void testLargeIdsAndPartialLength() {
+        int[] ids = { Integer.MAX_VALUE, 1 << 28, 99 };
+
+        assertArrayEquals(new int[] { 1 << 28, Integer.MAX_VALUE }, PostingList.of(ids, 2).toArray());
+        assertEquals(0, PostingList.of(new int[0], 0).size());
+    }
+
+    @Test
+    public void testNegativeIdRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PostingList.of(new int[] { -1 }, 1));
+    }
+}
@@ -0,0 +1,114 @@
+package dal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dto.AnnotationType;
+
+/**
+ * In-memory inverted index from term to the verses it annotates, one per
+ * annotation type, so a browse lookup resolves its verse ids without joining
+ * the annotation table.
+ *
+ * A type is loaded with one scan of its table on first use. Segments are
+ * indexed under their stem, prefix and suffix alike, matching the browse
+ * filter. Like {@link TermDictionary}, the postings of a type are rebuilt
+ * once {@link FrequencyStore#changeCount()} has moved on.
+ */
+final class PostingStore {
+
+    private static final class Postings {
+        private final Map<String, PostingList> lists;
+        private final long version;
+
+        Postings(Map<String, PostingList> lists, long version) {
+            this.lists = lists;
+            this.version = version;
+        }
+    }
+
+    private final IDatabaseConnection dbConnection;
+    private final Map<AnnotationType, Postings> postings = new ConcurrentHashMap<>();
+
+    PostingStore(IDatabaseConnection dbConnection) {
+        this.dbConnection = dbConnection;
+    }
+
+    /** Ascending ids of the verses {@code term} occurs in; empty if none. */
+    int[] verseIds(AnnotationType type, String term) throws SQLException {
+        PostingList list = load(type).lists.get(term);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+    /** Number of distinct terms indexed for the type. */
+    int termCount(AnnotationType type) throws SQLException {
+        return load(type).lists.size();
+    }
+
+    private Postings load(AnnotationType type) throws SQLException {
+        Postings current = postings.get(type);
+        long version = FrequencyStore.getShared().changeCount();
+        if (current != null && current.version == version) {
+            return current;
+        }
+        Map<String, IdBuffer> buffers = new HashMap<>();
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(scanSql(type));
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String term = rs.getString("term");
+                if (term != null && !term.isEmpty()) {
+                    buffers.computeIfAbsent(term, t -> new IdBuffer()).add(rs.getInt("verse_id"));
+                }
+            }
+        }
+        Map<String, PostingList> lists = new HashMap<>(buffers.size() * 2);
+        for (Map.Entry<String, IdBuffer> e : buffers.entrySet()) {
+            lists.put(e.getKey(), PostingList.of(e.getValue().ids, e.getValue().size));
+        }
+        Postings loaded = new Postings(lists, version);
+        postings.put(type, loaded);
+        return loaded;
+    }
+
+    private static String scanSql(AnnotationType type) {
+        switch (type) {
+            case TOKEN:
+                return "SELECT word AS term, verse_id FROM token WHERE word IS NOT NULL AND word != ''";
+            case LEMMA:
+                return "SELECT lemma AS term, verse_id FROM lemma WHERE lemma IS NOT NULL AND lemma != ''";
+            case ROOT:
+                return "SELECT root AS term, verse_id FROM root WHERE root IS NOT NULL AND root != ''";
+            case SEGMENT:
+                return "SELECT stem AS term, verse_id FROM segment WHERE stem IS NOT NULL AND stem != '' " +
+                        "UNION ALL " +
+                        "SELECT prefix, verse_id FROM segment WHERE prefix IS NOT NULL AND prefix != '' " +
+                        "UNION ALL " +
+                        "SELECT suffix, verse_id FROM segment WHERE suffix IS NOT NULL AND suffix != ''";
+            default:
+                throw new IllegalArgumentException("Unsupported annotation type: " + type);
+        }
+    }
+
+    private static final class IdBuffer {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // Consecutive rows of a verse repeat its id; keep one of them.
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
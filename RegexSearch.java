@@ -0,0 +1,312 @@
+package dal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import dto.PageDTO;
+import dto.VerseDTO;
+
+/**
+ * Regex search over the verses of a {@link VerseSearchIndex}.
+ *
+ * The pattern is scanned for literal runs that every match must contain; the
+ * index narrows the verses down to those containing all their trigrams, and
+ * only those candidates are matched with {@code java.util.regex}, in
+ * parallel. Matching reads the verse text through a {@link CharSequence} that
+ * checks a deadline, so a pattern that backtracks catastrophically is stopped
+ * once the query's time is up.
+ */
+final class RegexSearch {
+
+    private RegexSearch() {
+    }
+
+    /** Thrown when a regex search runs past its deadline. */
+    static final class TimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    static List<VerseDTO> search(VerseSearchIndex index, String regex, long timeoutMillis) {
+        Pattern pattern = Pattern.compile(regex);
+        List<VerseDTO> candidates = index.regexCandidates(requiredLiterals(regex));
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        return match(pattern, candidates, 0, candidates.size(), deadline);
+    }
+
+    /**
+     * One page of matches with verse id above {@code afterVerseId}. Candidates
+     * are matched a block at a time and matching stops once the page is full,
+     * so later pages cost nothing until they are asked for. The total estimate
+     * of the first page is the number of candidates, an upper bound.
+     */
+    static PageDTO<VerseDTO> searchPage(VerseSearchIndex index, String regex, int afterVerseId, int pageSize,
+            long timeoutMillis) {
+        Pattern pattern = Pattern.compile(regex);
+        List<VerseDTO> candidates = index.regexCandidates(requiredLiterals(regex));
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+
+        int from = 0;
+        while (from < candidates.size() && candidates.get(from).getVerseId() <= afterVerseId) {
+            from++;
+        }
+        List<VerseDTO> items = new ArrayList<>();
+        int block = Math.max(pageSize * 4, 64);
+        while (from < candidates.size() && items.size() <= pageSize) {
+            int to = Math.min(from + block, candidates.size());
+            items.addAll(match(pattern, candidates, from, to, deadline));
+            from = to;
+        }
+
+        String next = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            next = PageCursor.encode(items.get(pageSize - 1).getVerseId());
+        }
+        long total = -1;
+        if (afterVerseId == 0) {
+            total = next == null ? items.size() : candidates.size();
+        }
+        return new PageDTO<>(items, next, total);
+    }
+
+    private static List<VerseDTO> match(Pattern pattern, List<VerseDTO> candidates, int from, int to,
+            long deadline) {
+        boolean[] matched = new boolean[to - from];
+        IntStream.range(from, to).parallel().forEach(i ->
+                matched[i - from] = pattern.matcher(new DeadlineText(candidates.get(i).getText(), deadline)).find());
+
+        List<VerseDTO> results = new ArrayList<>();
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i]) {
+                results.add(candidates.get(from + i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Literal strings that any match of the pattern must contain. The scan is
+     * conservative: groups, classes, escapes other than escaped punctuation
+     * and anything optional end a literal run, and a top-level alternation or
+     * an inline flag group yields no literals at all.
+     */
+    static List<String> requiredLiterals(String regex) {
+        List<String> literals = new ArrayList<>();
+        if (hasTopLevelAlternation(regex) || regex.matches("(?s).*\\(\\?[a-zA-Z-].*")) {
+            return literals;
+        }
+
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int atomStart = run.length();
+            int next;
+            if (regex.startsWith("\\Q", i)) {
+                int end = regex.indexOf("\\E", i + 2);
+                end = end < 0 ? regex.length() : end;
+                run.append(regex, i + 2, end);
+                atomStart = run.length() - 1;
+                next = Math.min(end + 2, regex.length());
+            } else if (c == '\\') {
+                if (i + 1 < regex.length() && isEscapedLiteral(regex.charAt(i + 1))) {
+                    run.append(regex.charAt(i + 1));
+                    next = i + 2;
+                } else {
+                    flush(run, literals);
+                    atomStart = -1;
+                    next = escapeEnd(regex, i);
+                }
+            } else if (c == '[') {
+                flush(run, literals);
+                atomStart = -1;
+                next = skipClass(regex, i);
+            } else if (c == '(') {
+                flush(run, literals);
+                atomStart = -1;
+                next = skipGroup(regex, i);
+            } else if (".^$".indexOf(c) >= 0) {
+                flush(run, literals);
+                atomStart = -1;
+                next = i + 1;
+            } else {
+                run.append(c);
+                next = i + 1;
+            }
+
+            // A quantifier applies to the atom just read.
+            if (next < regex.length() && "*?+{".indexOf(regex.charAt(next)) >= 0) {
+                char q = regex.charAt(next);
+                boolean optional = q == '*' || q == '?'
+                        || (q == '{' && regex.startsWith("{0", next));
+                if (atomStart >= 0 && optional) {
+                    run.setLength(atomStart);
+                }
+                flush(run, literals);
+                next = q == '{' ? Math.max(regex.indexOf('}', next) + 1, next + 1) : next + 1;
+                if (next < regex.length() && (regex.charAt(next) == '?' || regex.charAt(next) == '+')) {
+                    next++;
+                }
+            }
+            i = next;
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() >= 3) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    private static boolean isEscapedLiteral(char c) {
+        return !Character.isLetterOrDigit(c);
+    }
+
+    /** Index just past the escape sequence starting at the backslash at {@code start}. */
+    private static int escapeEnd(String regex, int start) {
+        int i = start + 1;
+        if (i >= regex.length()) {
+            return regex.length();
+        }
+        char c = regex.charAt(i);
+        boolean braced = i + 1 < regex.length() && regex.charAt(i + 1) == '{';
+        switch (c) {
+            case 'u':
+                return Math.min(i + 5, regex.length());
+            case 'x':
+                return braced ? closing(regex, i + 1, '}') : Math.min(i + 3, regex.length());
+            case 'p', 'P', 'N':
+                return braced ? closing(regex, i + 1, '}') : Math.min(i + 2, regex.length());
+            case 'k':
+                return closing(regex, i + 1, '>');
+            case 'c':
+                return Math.min(i + 2, regex.length());
+            default:
+                i++;
+                if (Character.isDigit(c)) {
+                    while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+                        i++;
+                    }
+                }
+                return i;
+        }
+    }
+
+    private static int closing(String regex, int from, char close) {
+        int end = regex.indexOf(close, from);
+        return end < 0 ? regex.length() : end + 1;
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Index just past the character class starting at {@code start}. */
+    private static int skipClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < regex.length() && depth > 0) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /** Index just past the group starting at {@code start}. */
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static final class DeadlineText implements CharSequence {
+        private final String text;
+        private final long deadline;
+        private int reads;
+
+        DeadlineText(String text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            // Checking the clock on every read would dominate the cost of matching.
+            if ((++reads & 0xFFF) == 0 && System.nanoTime() > deadline) {
+                throw new TimeoutException("Regex search timed out");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineText(text.substring(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dto.VerseDTO;
+
+public class RegexSearchTest {
+
+    private static VerseSearchIndex index(String... texts) {
+        VerseSearchIndex index = new VerseSearchIndex(DataVersion.current());
+        for (int i = 0; i < texts.length; i++) {
+            index.add(new VerseDTO(i + 1, 1, i + 1, texts[i], null, null, null));
+        }
+        return index;
+    }
+
+    private static List<Integer> ids(List<VerseDTO> verses) {
+        List<Integer> ids = new ArrayList<>();
+        verses.forEach(v -> ids.add(v.getVerseId()));
+        return ids;
+    }
+
+    @Test
+    public void testRequiredLiterals() {
+        assertEquals(List.of("قفا", "حبيب"), RegexSearch.requiredLiterals("قفا.*حبيب"));
+        // An optional atom is dropped from the run; a repeated one is kept once.
+        assertEquals(List.of("abc", "abd"), RegexSearch.requiredLiterals("abcx?abd+e"));
+        assertEquals(List.of("a.b"), RegexSearch.requiredLiterals("a\\.b[xy]{2}"));
+        assertEquals(List.of("x(y"), RegexSearch.requiredLiterals("\\Qx(y\\E\\d+"));
+        assertEquals(List.of("abc"), RegexSearch.requiredLiterals("\\u0627abc(def)?"));
+        assertEquals(List.of(), RegexSearch.requiredLiterals("abc|def"));
+        assertEquals(List.of(), RegexSearch.requiredLiterals("(?i)abc"));
+    }
+
+    @Test
+    public void testSearchMatchesOnlyCandidates() {
+        VerseSearchIndex index = index("قفا نبك من ذكرى حبيب ومنزل", "بسقط اللوى بين الدخول فحومل",
+                "قفا نبك من ذكرى وعرفان");
+        assertEquals(List.of(1), ids(index.regexCandidates(RegexSearch.requiredLiterals("قفا.*حبيب"))));
+        assertEquals(List.of(1, 3), ids(index.regexCandidates(List.of("ذكرى"))));
+        assertEquals(List.of(1), ids(RegexSearch.search(index, "قفا.*حبيب", 1000)));
+        assertEquals(List.of(1, 2), ids(RegexSearch.search(index, "(منزل|حومل)$", 1000)));
+    }
+
+    @Test
+    public void testCatastrophicPatternTimesOut() {
+        VerseSearchIndex index = index("a".repeat(40));
+        assertThrows(RegexSearch.TimeoutException.class, () -> RegexSearch.search(index, "(.*a){20}b", 50));
+    }
+}
@@ -72,9 +72,13 @@ public class RootController implements Initializable {
 
     @FXML
     private void handleExtractAndSave() {
-        int count = facade.extractAndSaveAllRoots();
-        loadAllRoots();
-        statusLabel.setText("Extracted & saved " + count + " roots.");
+        try {
+            int count = facade.extractAndSaveAllRoots();
+            loadAllRoots();
+            statusLabel.setText("Extracted & saved " + count + " roots.");
+        } catch (IllegalStateException ex) {
+            statusLabel.setText("Root extraction failed: " + ex.getMessage());
+        }
     }
 
     @FXML
@@ -2,7 +2,9 @@ package dal;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import dto.AnnotationType;
 import dto.RootDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +36,7 @@ public class RootDAO implements IRootDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
+                FrequencyStore.getShared().add(AnnotationType.ROOT, Collections.singletonList(root.getRoot()));
                 ResultSet rs = ps.getGeneratedKeys();
                 if (rs.next()) {
                     root.setRootId(rs.getInt(1));
@@ -45,7 +48,7 @@ public class RootDAO implements IRootDAO {
     }
 
     @Override
-    public void createRootBatch(List<RootDTO> roots) {
+    public int createRootBatch(List<RootDTO> roots) {
         String sql = "INSERT INTO root (verse_id, word, root, position_in_verse) VALUES (?, ?, ?, ?)";
 
         try (Connection con = dbConnection.getConnection()) {
@@ -63,7 +66,13 @@ public class RootDAO implements IRootDAO {
                 ps.executeBatch();
                 con.commit();
                 con.commit();
+                List<String> keys = new ArrayList<>(roots.size());
+                for (RootDTO root : roots) {
+                    keys.add(root.getRoot());
+                }
+                FrequencyStore.getShared().add(AnnotationType.ROOT, keys);
                 logger.info("Batch insert successful: {} roots saved.", roots.size());
+                return roots.size();
             } catch (SQLException e) {
                 con.rollback();
                 logger.error("Error in batch insert, rolled back: {}", e.getMessage(), e);
@@ -71,6 +80,7 @@ public class RootDAO implements IRootDAO {
         } catch (SQLException e) {
             logger.error("Database connection error: {}", e.getMessage(), e);
         }
+        return 0;
     }
 
     @Override
@@ -142,6 +152,7 @@ public class RootDAO implements IRootDAO {
             ps.setInt(5, root.getRootId());
 
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.ROOT);
         } catch (SQLException e) {
             logger.error("Error updating root: {}", e.getMessage(), e);
         }
@@ -155,6 +166,7 @@ public class RootDAO implements IRootDAO {
 
             ps.setInt(1, rootId);
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.ROOT);
         } catch (SQLException e) {
             logger.error("Error deleting root: {}", e.getMessage(), e);
         }
@@ -168,6 +180,7 @@ public class RootDAO implements IRootDAO {
 
             ps.setInt(1, verseId);
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.ROOT);
             logger.info("Deleted {} roots for verse ID: {}", rowsAffected, verseId);
         } catch (SQLException e) {
             logger.error("Error deleting roots by verse: {}", e.getMessage(), e);
@@ -181,6 +194,7 @@ public class RootDAO implements IRootDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
 
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.ROOT);
             logger.info("Deleted all roots: {} rows affected.", rowsAffected);
         } catch (SQLException e) {
             logger.error("Error deleting all roots: {}", e.getMessage(), e);
@@ -1,76 +1,47 @@
 package bl.services;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import dal.IRootDAO;
 import dal.IVerseDAO;
+import dto.AnnotationType;
 import dto.RootDTO;
 import dto.VerseDTO;
-import net.oujda_nlp_team.AlKhalil2Analyzer;
-import net.oujda_nlp_team.entity.Result;
-import net.oujda_nlp_team.entity.ResultList;
 
 public class RootExtraction implements IRootBO{
 
     private final IVerseDAO verseDAO;
     private final IRootDAO rootDAO;
+    private final AnalysisEngine engine;
     
     public RootExtraction(IVerseDAO verseDAO, IRootDAO rootDAO) {
+		this(verseDAO, rootDAO, AnalysisEngine.getShared());
+	}
+
+    public RootExtraction(IVerseDAO verseDAO, IRootDAO rootDAO, AnalysisEngine engine) {
 		this.verseDAO = verseDAO;
 		this.rootDAO = rootDAO;
+		this.engine = engine;
 	}
     @Override
     public List<RootDTO> extractRootsAllVerses() {
-        List<RootDTO> roots = new ArrayList<>();
         List<VerseDTO> verses = verseDAO.getAllVerses();
 
         System.out.println("Starting Preview Root Extraction");
         System.out.println("Total verses: " + verses.size());
 
-        for (VerseDTO verse : verses) {
-            String txt = verse.getText();
-
-            System.out.println("Verse ID: " + verse.getVerseId());
-            System.out.println("Verse No: " + verse.getVerseNo());
-            System.out.println("Text: " + txt);
-
-            if (txt == null || txt.trim().isEmpty()) {
-                System.out.println("Skipping empty verse.\n");
-                continue;
-            }
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
-
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
-
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0);
-
-                        String root = r.getRoot() != null ? r.getRoot() : "";
-
-                        RootDTO rootDTO = new RootDTO(verse.getVerseId(), word, root);
-                        rootDTO.setVerseText(txt);
-                        rootDTO.setPositionInVerse(position);
-
-                        roots.add(rootDTO);
-
-                        System.out.println("Word: " + word + " | Root: " + root);
-                    } else {
-                        System.out.println("No analysis found for: " + word);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-
-                position++;
+        List<RootDTO> roots = engine.analyze("Root extraction preview", verses, (verse, word, position) -> {
+            AnalysisCache.Entry r = engine.lookup(word);
+            if (r == null) {
+                System.out.println("No analysis found for: " + word);
+                return null;
             }
-        }
+            RootDTO rootDTO = new RootDTO(verse.getVerseId(), word, r.getRoot() != null ? r.getRoot() : "");
+            rootDTO.setVerseText(verse.getText());
+            rootDTO.setPositionInVerse(position);
+            return rootDTO;
+        });
 
         System.out.println("Total roots generated: " + roots.size());
 
@@ -78,51 +49,33 @@ public class RootExtraction implements IRootBO{
     }
     @Override
     public int extractAndSaveAllRoots() {
-        List<RootDTO> roots = new ArrayList<>();
-        List<VerseDTO> verses = verseDAO.getAllVerses();
-
-        System.out.println("Starting root extraction for " + verses.size() + " verses...");
-
-        for (VerseDTO verse : verses) {
-            if (rootDAO.rootExists(verse.getVerseId())) {
-                System.out.println("Verse " + verse.getVerseId() + " already processed, skipping...");
-                continue;
-            }
+        System.out.println("Starting root extraction in chunks of " + engine.getChunkSize() + " verses...");
 
-            String txt = verse.getText();
-            if (txt == null || txt.trim().isEmpty()) continue;
+        AnalysisEngine.Run run = engine.startRun("Root extraction");
+        BatchWriter<RootDTO> writer = new BatchWriter<>(engine.getBatchSize(), rootDAO::createRootBatch);
 
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
-
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
-
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && results.getAllResults() != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0);
-
-                        String root = r.getRoot() != null ? r.getRoot() : "";
-
-                        RootDTO rootDTO = new RootDTO(verse.getVerseId(), word, root);
-                        rootDTO.setPositionInVerse(position);
-                        roots.add(rootDTO);
+        try {
+            verseDAO.streamUnprocessedVerses(EnumSet.of(AnnotationType.ROOT), engine.getChunkSize(), chunk -> {
+                writer.addVerses(run.analyzeByVerse(chunk, (verse, word, position) -> {
+                    AnalysisCache.Entry r = engine.lookup(word);
+                    if (r == null) {
+                        return null;
                     }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-                position++;
-            }
+                    RootDTO rootDTO = new RootDTO(verse.getVerseId(), word, r.getRoot() != null ? r.getRoot() : "");
+                    rootDTO.setPositionInVerse(position);
+                    return rootDTO;
+                }));
+            });
+        } finally {
+            writer.close();
+            run.finish();
         }
 
-        if (!roots.isEmpty()) {
-            rootDAO.createRootBatch(roots);
-            System.out.println("Root extraction complete: " + roots.size() + " roots saved to database.");
+        if (writer.getWritten() > 0) {
+            System.out.println("Root extraction complete: " + writer.getWritten() + " roots saved to database.");
         }
 
-        return roots.size();
+        return writer.getWritten();
     }
     @Override
     public List<RootDTO> getAllRootsFromDatabase() {
@@ -1,6 +1,8 @@
 package dal;
 
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.sql.*;
@@ -138,4 +140,11 @@ public class RootFrequencyDAO implements IRootFrequencyDAO {
 
         return frequencies;
     }
+
+    /**
+     * Get one window of the root frequency ranking, limited in the query
+     */
+    public FrequencyWindowDTO getRootFrequencyWindow(int offset, int limit) {
+        return FrequencyWindowQuery.fetch(dbConnection, AnnotationType.ROOT, offset, limit);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package pl.controller;
 import bl.BLFacade;
 import bl.IBLFacade;
 import dal.IDALFacade;
+import dto.PageDTO;
 import dto.VerseDTO;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -56,8 +57,16 @@ public class SearchController {
     @FXML
     private Label statusLabel;
 
+    private static final int PAGE_SIZE = 200;
+
     private final ObservableList<VerseDTO> searchResults = FXCollections.observableArrayList();
 
+    // Paging state of the current search; nextCursor is null once all pages are loaded.
+    private String currentQuery;
+    private boolean currentIsRegex;
+    private String nextCursor;
+    private long totalEstimate = -1;
+
     public void setFacade(IBLFacade facade) {
         this.facade = facade;
     }
@@ -85,6 +94,8 @@ public class SearchController {
 
         searchTypeCombo.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> updateSearchInfo());
+
+        TablePaging.onScrolledNearEnd(resultsTableView, this::loadNextPage);
     }
 
     @FXML
@@ -108,13 +119,11 @@ public class SearchController {
             searchResults.clear();
             verseDetailBox.setVisible(false);
 
-            if (type.equals("Exact Search")) {
-                searchResults.addAll(facade.searchExactString(searchText));
-            } else {
-                searchResults.addAll(facade.searchRegexPattern(searchText));
-            }
-
-            resultCountLabel.setText("Found " + searchResults.size() + " verses");
+            currentQuery = searchText;
+            currentIsRegex = !type.equals("Exact Search");
+            PageDTO<VerseDTO> page = fetchPage(null);
+            totalEstimate = page.getTotalEstimate();
+            addPage(page);
 
             if (searchResults.isEmpty()) {
                 statusLabel.setText("No results found.");
@@ -130,10 +139,45 @@ public class SearchController {
         }
     }
 
+    private PageDTO<VerseDTO> fetchPage(String cursor) {
+        return currentIsRegex
+                ? facade.searchRegexPatternPage(currentQuery, cursor, PAGE_SIZE)
+                : facade.searchExactStringPage(currentQuery, cursor, PAGE_SIZE);
+    }
+
+    private void addPage(PageDTO<VerseDTO> page) {
+        searchResults.addAll(page.getItems());
+        nextCursor = page.getNextCursor();
+        if (nextCursor == null) {
+            resultCountLabel.setText("Found " + searchResults.size() + " verses");
+        } else if (totalEstimate >= 0) {
+            resultCountLabel.setText("Showing " + searchResults.size() + " of about " + totalEstimate + " verses");
+        } else {
+            resultCountLabel.setText("Showing " + searchResults.size() + " verses (scroll for more)");
+        }
+    }
+
+    /** Appends the next page of the current search, if there is one. */
+    private void loadNextPage() {
+        if (facade == null || nextCursor == null) {
+            return;
+        }
+        String cursor = nextCursor;
+        nextCursor = null; // guards against re-entry while scrolling
+        try {
+            addPage(fetchPage(cursor));
+        } catch (Exception e) {
+            nextCursor = cursor;
+            e.printStackTrace();
+            statusLabel.setText("Error loading more results: " + e.getMessage());
+        }
+    }
+
     @FXML
     private void handleClear() {
         searchTextField.clear();
         searchResults.clear();
+        nextCursor = null;
         resultCountLabel.setText("Found 0 verses");
         verseDetailBox.setVisible(false);
         statusLabel.setText("Cleared");
@@ -3,6 +3,8 @@ package pl.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.testfx.assertions.api.Assertions.assertThat;
@@ -15,6 +17,7 @@ import org.testfx.api.FxRobot;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 
+import dto.PageDTO;
 import dto.VerseDTO;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
@@ -44,8 +47,10 @@ public class SearchControllerTest extends BaseControllerTest {
         VerseDTO arabicVerse = new VerseDTO(1, 1, 1, ARABIC_VERSE_LINE1,
                 ARABIC_VERSE_LINE1, "Translation", "Notes");
 
-        when(mockFacade.searchExactString(anyString())).thenReturn(Arrays.asList(arabicVerse));
-        when(mockFacade.searchRegexPattern(anyString())).thenReturn(Arrays.asList(arabicVerse));
+        when(mockFacade.searchExactStringPage(anyString(), any(), anyInt()))
+                .thenReturn(new PageDTO<>(Arrays.asList(arabicVerse), null, 1));
+        when(mockFacade.searchRegexPatternPage(anyString(), any(), anyInt()))
+                .thenReturn(new PageDTO<>(Arrays.asList(arabicVerse), null, 1));
 
         controller = loadView("SearchView.fxml", "Search Test", 1100, 700);
         injectMockFacade(controller);
@@ -86,9 +86,13 @@ public class SegmentController implements Initializable {
 
     @FXML
     private void handleSegmentAndSave() {
-        int count = facade.segmentAndSaveAllVerses();
-        loadAllSegments();
-        statusLabel.setText("Segmented & saved " + count + " segments.");
+        try {
+            int count = facade.segmentAndSaveAllVerses();
+            loadAllSegments();
+            statusLabel.setText("Segmented & saved " + count + " segments.");
+        } catch (IllegalStateException ex) {
+            statusLabel.setText("Segmentation failed: " + ex.getMessage());
+        }
     }
 
     @FXML
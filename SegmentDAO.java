@@ -2,7 +2,9 @@ package dal;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import dto.AnnotationType;
 import dto.SegmentDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,6 +38,8 @@ public class SegmentDAO implements ISegmentDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
+                FrequencyStore.getShared().add(AnnotationType.SEGMENT, Collections.singletonList(
+                        FrequencyStore.segmentKey(segment.getPrefix(), segment.getStem(), segment.getSuffix())));
                 ResultSet rs = ps.getGeneratedKeys();
                 if (rs.next()) {
                     segment.setSegmentId(rs.getInt(1));
@@ -47,7 +51,7 @@ public class SegmentDAO implements ISegmentDAO {
     }
 
     @Override
-    public void createSegmentBatch(List<SegmentDTO> segments) {
+    public int createSegmentBatch(List<SegmentDTO> segments) {
         String sql = "INSERT INTO segment (verse_id, word, prefix, stem, suffix, position_in_verse) VALUES (?, ?, ?, ?, ?, ?)";
 
         try (Connection con = dbConnection.getConnection();) {
@@ -67,7 +71,13 @@ public class SegmentDAO implements ISegmentDAO {
                 ps.executeBatch();
                 con.commit();
                 con.commit();
+                List<String> keys = new ArrayList<>(segments.size());
+                for (SegmentDTO segment : segments) {
+                    keys.add(FrequencyStore.segmentKey(segment.getPrefix(), segment.getStem(), segment.getSuffix()));
+                }
+                FrequencyStore.getShared().add(AnnotationType.SEGMENT, keys);
                 logger.info("Batch insert successful: {} segments saved.", segments.size());
+                return segments.size();
             } catch (SQLException e) {
                 con.rollback();
                 logger.error("Error in batch insert, rolled back: {}", e.getMessage(), e);
@@ -75,6 +85,7 @@ public class SegmentDAO implements ISegmentDAO {
         } catch (SQLException e) {
             logger.error("Database connection error: {}", e.getMessage(), e);
         }
+        return 0;
     }
 
     @Override
@@ -148,6 +159,7 @@ public class SegmentDAO implements ISegmentDAO {
             ps.setInt(7, segment.getSegmentId());
 
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.SEGMENT);
         } catch (SQLException e) {
             logger.error("Error updating segment: {}", e.getMessage(), e);
         }
@@ -161,6 +173,7 @@ public class SegmentDAO implements ISegmentDAO {
 
             ps.setInt(1, segmentId);
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.SEGMENT);
         } catch (SQLException e) {
             logger.error("Error deleting segment: {}", e.getMessage(), e);
         }
@@ -174,6 +187,7 @@ public class SegmentDAO implements ISegmentDAO {
 
             ps.setInt(1, verseId);
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.SEGMENT);
             logger.info("Deleted {} segments for verse ID: {}", rowsAffected, verseId);
         } catch (SQLException e) {
             logger.error("Error deleting segments by verse: {}", e.getMessage(), e);
@@ -187,6 +201,7 @@ public class SegmentDAO implements ISegmentDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
 
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.SEGMENT);
             logger.info("Deleted all segments: {} rows affected.", rowsAffected);
         } catch (SQLException e) {
             logger.error("Error deleting all segments: {}", e.getMessage(), e);
@@ -1,6 +1,8 @@
 package dal;
 
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.sql.*;
@@ -154,4 +156,11 @@ public class SegmentFrequencyDAO implements ISegmentFrequencyDAO {
 
         return frequencies;
     }
+
+    /**
+     * Get one window of the segment frequency ranking, limited in the query
+     */
+    public FrequencyWindowDTO getSegmentFrequencyWindow(int offset, int limit) {
+        return FrequencyWindowQuery.fetch(dbConnection, AnnotationType.SEGMENT, offset, limit);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package bl.services;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import dal.ISegmentDAO;
 import dal.IVerseDAO;
+import dto.AnnotationType;
 import dto.SegmentDTO;
 import dto.VerseDTO;
 import net.oujda_nlp_team.ADATAnalyzer;
@@ -12,9 +14,15 @@ public class Segmentation implements ISegmentBO {
 
     private final IVerseDAO verseDAO;
     private final ISegmentDAO segmentDAO;
+    private final AnalysisEngine engine;
     public Segmentation(IVerseDAO verseDAO, ISegmentDAO segmentDAO) {
+		this(verseDAO, segmentDAO, AnalysisEngine.getShared());
+	}
+
+    public Segmentation(IVerseDAO verseDAO, ISegmentDAO segmentDAO, AnalysisEngine engine) {
 		this.verseDAO = verseDAO;
 		this.segmentDAO = segmentDAO;
+		this.engine = engine;
 	}
     
 
@@ -79,57 +87,39 @@ public class Segmentation implements ISegmentBO {
     }
     @Override
     public int segmentAndSaveAllVerses() {
-        List<SegmentDTO> segments = new ArrayList<>();
-        List<VerseDTO> verses = verseDAO.getAllVerses();
-
-        System.out.println("Starting segmentation for " + verses.size() + " verses...");
-
-        for (VerseDTO verse : verses) {
-
-            // Skip if already segmented
-            if (isVerseSegmented(verse.getVerseId())) {
-                System.out.println("Verse " + verse.getVerseId() + " already segmented, skipping...");
-                continue;
-            }
-
-            String txt = verse.getText();
-            if (txt == null || txt.trim().isEmpty()) continue;
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
+        System.out.println("Starting segmentation in chunks of " + engine.getChunkSize() + " verses...");
 
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
+        AnalysisEngine.Run run = engine.startRun("Segmentation");
+        BatchWriter<SegmentDTO> writer = new BatchWriter<>(engine.getBatchSize(), segmentDAO::createSegmentBatch);
 
-                try {
+        try {
+            verseDAO.streamUnprocessedVerses(EnumSet.of(AnnotationType.SEGMENT), engine.getChunkSize(), chunk -> {
+                writer.addVerses(run.analyzeByVerse(chunk, (verse, word, position) -> {
                     //ADAT segmentation
                     String segmentString = ADATAnalyzer.getInstance().processADATTokenizedString(word);
 
                     SegmentDTO segment = new SegmentDTO(
                             verse.getVerseId(),
                             word,
-                            segmentString,  
+                            segmentString,
                             "",
                             ""
                     );
 
                     segment.setPositionInVerse(position);
-                    segments.add(segment);
-
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-                position++;
-            }
+                    return segment;
+                }));
+            });
+        } finally {
+            writer.close();
+            run.finish();
         }
 
-
-        if (!segments.isEmpty()) {
-            segmentDAO.createSegmentBatch(segments);
-            System.out.println("Segmentation complete: " + segments.size() + " segments saved to database.");
+        if (writer.getWritten() > 0) {
+            System.out.println("Segmentation complete: " + writer.getWritten() + " segments saved to database.");
         }
 
-        return segments.size();
+        return writer.getWritten();
     }
     @Override
     public List<SegmentDTO> getAllSegmentsFromDatabase() {
@@ -165,6 +155,6 @@ public class Segmentation implements ISegmentBO {
     }
     @Override
     public boolean isVerseSegmented(int verseId) {
-        return segmentDAO.getSegmentsByVerseId(verseId).size() > 0;
+        return segmentDAO.segmentExists(verseId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package dto;
+
+public class SimilarPairDTO {
+    private VerseDTO first;
+    private VerseDTO second;
+    private double estimatedSimilarity;
+    private double similarity;
+
+    public SimilarPairDTO() {}
+
+    public SimilarPairDTO(VerseDTO first, VerseDTO second, double estimatedSimilarity, double similarity) {
+        this.first = first;
+        this.second = second;
+        this.estimatedSimilarity = estimatedSimilarity;
+        this.similarity = similarity;
+    }
+
+    public VerseDTO getFirst() { return first; }
+    public void setFirst(VerseDTO first) { this.first = first; }
+
+    public VerseDTO getSecond() { return second; }
+    public void setSecond(VerseDTO second) { this.second = second; }
+
+    /** Jaccard similarity estimated from the MinHash signatures. */
+    public double getEstimatedSimilarity() { return estimatedSimilarity; }
+    public void setEstimatedSimilarity(double estimatedSimilarity) { this.estimatedSimilarity = estimatedSimilarity; }
+
+    /** Exact Jaccard similarity of the two verses' n-gram sets. */
+    public double getSimilarity() { return similarity; }
+    public void setSimilarity(double similarity) { this.similarity = similarity; }
+
+    @Override
+    public String toString() {
+        return "SimilarPairDTO{" +
+                "first=" + (first == null ? null : first.getVerseId()) +
+                ", second=" + (second == null ? null : second.getVerseId()) +
+                ", estimatedSimilarity=" + estimatedSimilarity +
+                ", similarity=" + similarity +
+                '}';
+    }
+}
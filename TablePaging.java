@@ -0,0 +1,37 @@
+package pl.controller;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * Lets a table ask for its next page when it is scrolled close to the end.
+ */
+final class TablePaging {
+
+    /** Fraction of the scroll range after which the next page is requested. */
+    private static final double THRESHOLD = 0.9;
+
+    private TablePaging() {
+    }
+
+    /**
+     * Runs {@code loadMore} whenever the table's vertical scroll bar passes the
+     * threshold. The scroll bar only exists once the table has a skin, so the
+     * listener is attached then.
+     */
+    static void onScrolledNearEnd(TableView<?> table, Runnable loadMore) {
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * THRESHOLD) {
+                            loadMore.run();
+                        }
+                    });
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package dal;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sorted, distinct terms of one annotation type, for listing and type-ahead
+ * lookups without a {@code SELECT DISTINCT} per request.
+ *
+ * Terms are kept in one sorted array; a prefix query finds the first match by
+ * binary search and reads forward while terms still start with the prefix, so
+ * it costs O(log n + matches). The dictionary remembers the
+ * {@link FrequencyStore#changeCount()} it was built at and is stale once
+ * annotations change, e.g. after an analysis run.
+ */
+public class TermDictionary {
+
+    private final String[] terms;
+    private final long version;
+
+    public TermDictionary(Collection<String> terms, long version) {
+        String[] sorted = terms.stream()
+                .filter(term -> term != null && !term.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        this.terms = sorted;
+        this.version = version;
+    }
+
+    /** All terms in ascending order. */
+    public List<String> all() {
+        return Collections.unmodifiableList(Arrays.asList(terms));
+    }
+
+    /** Up to {@code limit} terms starting with {@code prefix}, in ascending order. */
+    public List<String> withPrefix(String prefix, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        if (prefix == null || prefix.isEmpty()) {
+            return all().subList(0, Math.min(limit, terms.length));
+        }
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < terms.length && to - from < limit && terms[to].startsWith(prefix)) {
+            to++;
+        }
+        return all().subList(from, to);
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /** Whether annotations have changed since the dictionary was built. */
+    public boolean isStale() {
+        return version != FrequencyStore.getShared().changeCount();
+    }
+
+    /** Index of the first term not less than {@code key}. */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,35 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class TermDictionaryTest {
+
+    private final TermDictionary dictionary = new TermDictionary(
+            Arrays.asList("كتب", "قلم", "كاتب", "", null, "كتاب", "كتب", "مكتبة"), 0);
+
+    @Test
+    public void testAllIsSortedAndDistinct() {
+        assertEquals(Arrays.asList("قلم", "كاتب", "كتاب", "كتب", "مكتبة"), dictionary.all());
+        assertEquals(5, dictionary.size());
+    }
+
+    @Test
+    public void testWithPrefix() {
+        assertEquals(Arrays.asList("كتاب", "كتب"), dictionary.withPrefix("كت", 10));
+        assertEquals(Arrays.asList("كاتب", "كتاب"), dictionary.withPrefix("ك", 2));
+        assertTrue(dictionary.withPrefix("علم", 10).isEmpty());
+        assertTrue(dictionary.withPrefix("ي", 10).isEmpty());
+        assertEquals(dictionary.all().subList(0, 3), dictionary.withPrefix("", 3));
+    }
+
+    @Test
+    public void testWithPrefix_NegativeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> dictionary.withPrefix("ك", -1));
+    }
+}
@@ -69,9 +69,13 @@ public class TokenController implements Initializable {
 
     @FXML
     private void handleTokenizeAndSave() {
-        int count = facade.tokenizeAndSaveAllVerses();
-        loadAllTokens();
-        statusLabel.setText("Tokenized & saved " + count + " tokens.");
+        try {
+            int count = facade.tokenizeAndSaveAllVerses();
+            loadAllTokens();
+            statusLabel.setText("Tokenized & saved " + count + " tokens.");
+        } catch (IllegalStateException ex) {
+            statusLabel.setText("Tokenization failed: " + ex.getMessage());
+        }
     }
 
     @FXML
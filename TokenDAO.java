@@ -2,7 +2,9 @@ package dal;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import dto.AnnotationType;
 import dto.TokenDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +36,7 @@ public class TokenDAO implements ITokenDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
+                FrequencyStore.getShared().add(AnnotationType.TOKEN, Collections.singletonList(token.getWord()));
                 ResultSet rs = ps.getGeneratedKeys();
                 if (rs.next()) {
                     token.setTokenId(rs.getInt(1));
@@ -45,7 +48,7 @@ public class TokenDAO implements ITokenDAO {
     }
 
     @Override
-    public void createTokenBatch(List<TokenDTO> tokens) {
+    public int createTokenBatch(List<TokenDTO> tokens) {
         String sql = "INSERT INTO token (verse_id, word, root, position_in_verse) VALUES (?, ?, ?, ?)";
 
         try (Connection con = dbConnection.getConnection()) {
@@ -63,7 +66,13 @@ public class TokenDAO implements ITokenDAO {
                 ps.executeBatch();
                 con.commit();
                 con.commit();
+                List<String> keys = new ArrayList<>(tokens.size());
+                for (TokenDTO token : tokens) {
+                    keys.add(token.getWord());
+                }
+                FrequencyStore.getShared().add(AnnotationType.TOKEN, keys);
                 logger.info("Batch insert successful: {} tokens saved.", tokens.size());
+                return tokens.size();
             } catch (SQLException e) {
                 con.rollback();
                 logger.error("Error in batch insert, rolled back: {}", e.getMessage(), e);
@@ -71,6 +80,7 @@ public class TokenDAO implements ITokenDAO {
         } catch (SQLException e) {
             logger.error("Database connection error: {}", e.getMessage(), e);
         }
+        return 0;
     }
 
     @Override
@@ -142,6 +152,7 @@ public class TokenDAO implements ITokenDAO {
             ps.setInt(5, token.getTokenId());
 
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.TOKEN);
         } catch (SQLException e) {
             logger.error("Error updating token: {}", e.getMessage(), e);
         }
@@ -155,6 +166,7 @@ public class TokenDAO implements ITokenDAO {
 
             ps.setInt(1, tokenId);
             ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.TOKEN);
         } catch (SQLException e) {
             logger.error("Error deleting token: {}", e.getMessage(), e);
         }
@@ -168,6 +180,7 @@ public class TokenDAO implements ITokenDAO {
 
             ps.setInt(1, verseId);
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.TOKEN);
             logger.info("Deleted {} tokens for verse ID: {}", rowsAffected, verseId);
         } catch (SQLException e) {
             logger.error("Error deleting tokens by verse: {}", e.getMessage(), e);
@@ -181,6 +194,7 @@ public class TokenDAO implements ITokenDAO {
                 PreparedStatement ps = con.prepareStatement(sql)) {
 
             int rowsAffected = ps.executeUpdate();
+            FrequencyStore.getShared().invalidate(AnnotationType.TOKEN);
             logger.info("Deleted all tokens: {} rows affected.", rowsAffected);
         } catch (SQLException e) {
             logger.error("Error deleting all tokens: {}", e.getMessage(), e);
@@ -11,6 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -94,4 +95,28 @@ public class TokenDAOTest {
         verify(preparedStatementMock).setInt(1, 1);
         verify(preparedStatementMock).executeUpdate();
     }
+
+    @Test
+    public void testCreateTokenBatchReturnsCommittedCount() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+
+        int saved = tokenDAO.createTokenBatch(List.of(new TokenDTO(0, 1, "Word", "Root", 1),
+                new TokenDTO(0, 1, "Other", "Root", 2)));
+
+        assertEquals(2, saved);
+        verify(preparedStatementMock).executeBatch();
+    }
+
+    @Test
+    public void testCreateTokenBatchRolledBackReturnsZero() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeBatch()).thenThrow(new SQLException("Deadlock"));
+
+        int saved = tokenDAO.createTokenBatch(List.of(new TokenDTO(0, 1, "Word", "Root", 1)));
+
+        assertEquals(0, saved);
+        verify(connectionMock).rollback();
+    }
 }
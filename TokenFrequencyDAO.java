@@ -3,7 +3,9 @@ package dal;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
+import dto.AnnotationType;
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 import java.util.List;
 import java.sql.*;
 
@@ -180,4 +182,11 @@ public class TokenFrequencyDAO implements ITokenFrequencyDAO {
             }
         }
     }
+
+    /**
+     * Get one window of the token frequency ranking, limited in the query
+     */
+    public FrequencyWindowDTO getTokenFrequencyWindow(int offset, int limit) {
+        return FrequencyWindowQuery.fetch(dbConnection, AnnotationType.TOKEN, offset, limit);
+    }
 }
\ No newline at end of file
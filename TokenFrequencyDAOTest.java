@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
@@ -21,6 +23,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import dto.FrequencyDTO;
+import dto.FrequencyWindowDTO;
 
 @ExtendWith(MockitoExtension.class)
 public class TokenFrequencyDAOTest {
@@ -99,4 +102,39 @@ public class TokenFrequencyDAOTest {
         verify(preparedStatementMock).executeQuery();
         verify(resultSetMock, times(2)).next();
     }
+
+    @Test
+    public void testGetTokenFrequencyWindow() throws SQLException {
+        PreparedStatement totalsStatement = mock(PreparedStatement.class);
+        PreparedStatement beforeStatement = mock(PreparedStatement.class);
+        ResultSet totalsResult = mock(ResultSet.class);
+        ResultSet beforeResult = mock(ResultSet.class);
+
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("COUNT(DISTINCT"))).thenReturn(totalsStatement);
+        when(connectionMock.prepareStatement(contains("LIMIT ? OFFSET ?"))).thenReturn(preparedStatementMock);
+        when(connectionMock.prepareStatement(contains("before_total"))).thenReturn(beforeStatement);
+        when(totalsStatement.executeQuery()).thenReturn(totalsResult);
+        when(totalsResult.next()).thenReturn(true);
+        when(totalsResult.getLong("total")).thenReturn(100L);
+        when(totalsResult.getLong("uniq")).thenReturn(30L);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, false);
+        when(resultSetMock.getString("freq_key")).thenReturn("word3");
+        when(resultSetMock.getInt("freq")).thenReturn(6);
+        when(beforeStatement.executeQuery()).thenReturn(beforeResult);
+        when(beforeResult.next()).thenReturn(true);
+        when(beforeResult.getLong("before_total")).thenReturn(40L);
+
+        FrequencyWindowDTO window = tokenFrequencyDAO.getTokenFrequencyWindow(2, 1);
+
+        assertEquals(1, window.getItems().size());
+        assertEquals("word3", window.getItems().get(0).getWord());
+        assertEquals(100, window.getTotalOccurrences());
+        assertEquals(30, window.getUniqueItems());
+        assertEquals(40, window.getOccurrencesBefore());
+        verify(preparedStatementMock).setInt(1, 1);
+        verify(preparedStatementMock).setInt(2, 2);
+        verify(beforeStatement).setInt(1, 2);
+    }
 }
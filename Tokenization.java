@@ -1,80 +1,47 @@
 package bl.services;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import dal.ITokenDAO;
 import dal.IVerseDAO;
 import dal.VerseDAO;
+import dto.AnnotationType;
 import dto.TokenDTO;
 import dto.VerseDTO;
-import net.oujda_nlp_team.AlKhalil2Analyzer;
-import net.oujda_nlp_team.entity.Result;
-import net.oujda_nlp_team.entity.ResultList;
 
 public class Tokenization implements ITokenBO {
 
 	private final IVerseDAO verseDAO;
     private final ITokenDAO tokenDAO;
+    private final AnalysisEngine engine;
 
     public Tokenization(IVerseDAO verseDAO, ITokenDAO tokenDAO) {
+        this(verseDAO, tokenDAO, AnalysisEngine.getShared());
+    }
+
+    public Tokenization(IVerseDAO verseDAO, ITokenDAO tokenDAO, AnalysisEngine engine) {
         this.verseDAO = verseDAO;
         this.tokenDAO = tokenDAO;
+        this.engine = engine;
     }
     @Override
     public List<TokenDTO> tokenizeAllVerses() {
-        List<TokenDTO> tokens = new ArrayList<>();
         List<VerseDTO> verses = verseDAO.getAllVerses();
 
-
         System.out.println("Total verses: "+verses.size());
 
-        for (VerseDTO verse : verses) {
-            String txt = verse.getText();
-
-            System.out.println(verse.getVerseId());
-            System.out.println("/n" + verse.getVerseNo() + "/n");
-            System.out.println(txt);
-
-            if (txt == null || txt.trim().isEmpty()) {
-                System.out.println("Skipping empty verse.\n");
-                continue;
-            }
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
-
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
-
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0); // First result
-
-                        TokenDTO token = new TokenDTO(
-                            verse.getVerseId(),
-                            word,
-                            r.getRoot()
-                        );
-                        token.setVerseText(txt);
-                        token.setPositionInVerse(position);
-
-                        tokens.add(token);
-
-                        System.out.println("Token: " + word + " | Root: " + r.getRoot());
-                    } else {
-                        System.out.println("No analysis found for: " + word);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-
-                position++;
+        List<TokenDTO> tokens = engine.analyze("Tokenization preview", verses, (verse, word, position) -> {
+            AnalysisCache.Entry r = engine.lookup(word);
+            if (r == null) {
+                System.out.println("No analysis found for: " + word);
+                return null;
             }
-
-        }
+            TokenDTO token = new TokenDTO(verse.getVerseId(), word, r.getRoot());
+            token.setVerseText(verse.getText());
+            token.setPositionInVerse(position);
+            return token;
+        });
 
         System.out.println("Total tokens generated: " + tokens.size());
 
@@ -84,49 +51,36 @@ public class Tokenization implements ITokenBO {
 
     @Override
     public int tokenizeAndSaveAllVerses() {
-        List<TokenDTO> tokens = new ArrayList<>();
-        List<VerseDTO> verses = verseDAO.getAllVerses();
-
-        System.out.println("Starting tokenization for " + verses.size() + " verses...");
-
-        for (VerseDTO verse : verses) {
-
-            if (tokenDAO.tokenExists(verse.getVerseId())) {
-                System.out.println("Verse " + verse.getVerseId() + " already tokenized, skipping...");
-                continue;
-            }
-
-            String txt = verse.getText();
-            if (txt == null || txt.trim().isEmpty()) continue;
-
-            String[] words = txt.replaceAll("[^\\p{IsArabic}\\s]", "").split("\\s+");
-            int position = 1;
-
-            for (String word : words) {
-                if (word.trim().isEmpty()) continue;
-
-                try {
-                    ResultList results = AlKhalil2Analyzer.getInstance().processToken(word);
-
-                    if (results != null && results.getAllResults() != null && !results.getAllResults().isEmpty()) {
-                        Result r = results.getAllResults().get(0);
-                        TokenDTO token = new TokenDTO(verse.getVerseId(), word, r.getRoot());
-                        token.setPositionInVerse(position);
-                        tokens.add(token);
+        System.out.println("Starting tokenization in chunks of " + engine.getChunkSize() + " verses...");
+
+        AnalysisEngine.Run run = engine.startRun("Tokenization");
+        BatchWriter<TokenDTO> writer = new BatchWriter<>(engine.getBatchSize(), tokenDAO::createTokenBatch);
+
+        // Only verses without token rows are fetched, so re-running after an
+        // import only analyses the new verses.
+        try {
+            verseDAO.streamUnprocessedVerses(EnumSet.of(AnnotationType.TOKEN), engine.getChunkSize(), chunk -> {
+                writer.addVerses(run.analyzeByVerse(chunk, (verse, word, position) -> {
+                    AnalysisCache.Entry r = engine.lookup(word);
+                    if (r == null) {
+                        return null;
                     }
-                } catch (Exception e) {
-                    System.err.println("Error processing word '" + word + "': " + e.getMessage());
-                }
-                position++;
-            }
+                    TokenDTO token = new TokenDTO(verse.getVerseId(), word, r.getRoot());
+                    token.setPositionInVerse(position);
+                    return token;
+                }));
+            });
+        } finally {
+            // Rows of verses analysed before a failed read are still stored.
+            writer.close();
+            run.finish();
         }
 
-        if (!tokens.isEmpty()) {
-            tokenDAO.createTokenBatch(tokens);
-            System.out.println("Tokenization complete: " + tokens.size() + " tokens saved to database.");
+        if (writer.getWritten() > 0) {
+            System.out.println("Tokenization complete: " + writer.getWritten() + " tokens saved to database.");
         }
 
-        return tokens.size();
+        return writer.getWritten();
     }
 
     @Override
@@ -2,6 +2,7 @@ package bl;
 
 import java.util.List;
 import dal.IDALFacade;
+import dto.PageDTO;
 import dto.VerseDTO;
 
 public class VerseBO implements IVerseBO {
@@ -44,4 +45,21 @@ public class VerseBO implements IVerseBO {
     public List<VerseDTO> searchRegexPattern(String pattern) {
         return dal.searchRegexPattern(pattern);
     }
+
+    @Override
+    public PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        return dal.searchExactStringPage(text, cursor, pageSize);
+    }
+
+    @Override
+    public PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        return dal.searchRegexPatternPage(pattern, cursor, pageSize);
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > BrowseBO.MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + BrowseBO.MAX_PAGE_SIZE);
+    }
 }
@@ -4,9 +4,18 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.PatternSyntaxException;
 
+import dto.AnnotationType;
+import dto.PageDTO;
 import dto.VerseDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,7 +23,16 @@ import org.apache.logging.log4j.Logger;
 public class VerseDAO implements IVerseDAO {
     private static final Logger logger = LogManager.getLogger(VerseDAO.class);
 
+    /** Set to {@code false} to answer searches with SQL only. */
+    public static final String SEARCH_INDEX_PROPERTY = "search.index";
+    /** Time limit for one regex search against the index, in milliseconds. */
+    public static final String REGEX_TIMEOUT_PROPERTY = "search.regex.timeoutMillis";
+    private static final long DEFAULT_REGEX_TIMEOUT_MILLIS = 5000;
+    private static final int INDEX_CHUNK_SIZE = 1000;
+
     private final IDatabaseConnection dbConnection;
+    private final boolean searchIndexEnabled = !"false".equalsIgnoreCase(System.getProperty(SEARCH_INDEX_PROPERTY));
+    private volatile VerseSearchIndex searchIndex;
 
     public VerseDAO() {
         this.dbConnection = new DatabaseConnection();
@@ -28,14 +46,27 @@ public class VerseDAO implements IVerseDAO {
     public void createVerse(VerseDTO verse) {
         String sql = "INSERT INTO verse (poem_id, verse_no, txt, text_diacritized, translation, notes) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection con = dbConnection.getConnection();
-                PreparedStatement ps = con.prepareStatement(sql)) {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, verse.getPoemId());
             ps.setInt(2, verse.getVerseNo());
             ps.setString(3, verse.getText());
             ps.setString(4, verse.getTextDiacritized());
             ps.setString(5, verse.getTranslation());
             ps.setString(6, verse.getNotes());
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0) {
+                boolean keyed = false;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys != null && keys.next()) {
+                        verse.setVerseId(keys.getInt(1));
+                        keyed = true;
+                    }
+                }
+                long version = DataVersion.bump();
+                VerseSearchIndex index = searchIndex;
+                if (keyed && index != null) {
+                    index.put(verse, version);
+                }
+            }
         } catch (SQLException e) {
             logger.error("Error creating verse: {}", e.getMessage(), e);
         }
@@ -59,6 +90,160 @@ public class VerseDAO implements IVerseDAO {
         return verses;
     }
 
+    @Override
+    public int streamVerses(int chunkSize, Consumer<List<VerseDTO>> consumer) {
+        return stream("SELECT * FROM verse ORDER BY poem_id ASC, verse_no ASC", chunkSize, consumer);
+    }
+
+    @Override
+    public int streamUnprocessedVerses(Set<AnnotationType> types, int chunkSize, Consumer<List<VerseDTO>> consumer) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("At least one annotation type is required");
+        }
+        StringBuilder sql = new StringBuilder("SELECT v.* FROM verse v WHERE ");
+        String separator = "";
+        for (AnnotationType type : types) {
+            sql.append(separator).append("NOT EXISTS (SELECT 1 FROM ").append(type.getTableName())
+                    .append(" a WHERE a.verse_id = v.verse_id)");
+            separator = " OR ";
+        }
+        sql.append(" ORDER BY v.poem_id ASC, v.verse_no ASC");
+        return stream(sql.toString(), chunkSize, consumer);
+    }
+
+    @Override
+    public List<VerseDTO> getVersesByIds(Collection<Integer> verseIds) {
+        List<VerseDTO> verses = new ArrayList<>();
+        if (verseIds.isEmpty()) {
+            return verses;
+        }
+        String placeholders = String.join(",", Collections.nCopies(verseIds.size(), "?"));
+        String sql = "SELECT * FROM verse WHERE verse_id IN (" + placeholders + ") ORDER BY poem_id ASC, verse_no ASC";
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer verseId : verseIds) {
+                ps.setInt(index++, verseId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    verses.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error retrieving verses by id: {}", e.getMessage(), e);
+            throw new IllegalStateException("Could not read verses by id: " + e.getMessage(), e);
+        }
+        return verses;
+    }
+
+    @Override
+    public Set<Integer> findAnnotatedVerseIds(AnnotationType type, Collection<Integer> verseIds) {
+        Set<Integer> annotated = new HashSet<>();
+        if (verseIds.isEmpty()) {
+            return annotated;
+        }
+        String placeholders = String.join(",", Collections.nCopies(verseIds.size(), "?"));
+        String sql = "SELECT DISTINCT verse_id FROM " + type.getTableName() + " WHERE verse_id IN (" + placeholders + ")";
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer verseId : verseIds) {
+                ps.setInt(index++, verseId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    annotated.add(rs.getInt("verse_id"));
+                }
+            }
+        } catch (SQLException e) {
+            // Reporting "nothing annotated" here would make the caller write
+            // every row of these verses a second time.
+            logger.error("Error checking {} rows for verses: {}", type.getTableName(), e.getMessage(), e);
+            throw new IllegalStateException("Could not check existing " + type.getTableName() + " rows: "
+                    + e.getMessage(), e);
+        }
+        return annotated;
+    }
+
+    private int stream(String sql, int chunkSize, Consumer<List<VerseDTO>> consumer) {
+        try {
+            return streamOrThrow(sql, chunkSize, consumer);
+        } catch (SQLException e) {
+            // Returning the count so far would end a failed read as a
+            // complete run over fewer verses.
+            logger.error("Error streaming verses: {}", e.getMessage(), e);
+            throw new IllegalStateException("Could not read verses: " + e.getMessage(), e);
+        }
+    }
+
+    private int streamOrThrow(String sql, int chunkSize, Consumer<List<VerseDTO>> consumer) throws SQLException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        int total = 0;
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+            // With useCursorFetch the driver pulls rows from a server-side cursor
+            // chunkSize at a time instead of buffering the whole table.
+            ps.setFetchSize(chunkSize);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<VerseDTO> chunk = new ArrayList<>(chunkSize);
+                while (rs.next()) {
+                    chunk.add(map(rs));
+                    if (chunk.size() == chunkSize) {
+                        total += chunk.size();
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    total += chunk.size();
+                    consumer.accept(chunk);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the full-text index, building it on first use and rebuilding it
+     * once verses have changed outside this DAO. Returns {@code null} when the
+     * index is disabled or cannot be built, so callers fall back to SQL.
+     */
+    VerseSearchIndex getSearchIndex() {
+        if (!searchIndexEnabled) {
+            return null;
+        }
+        VerseSearchIndex index = searchIndex;
+        if (index != null && !index.isStale()) {
+            return index;
+        }
+        synchronized (this) {
+            index = searchIndex;
+            if (index != null && !index.isStale()) {
+                return index;
+            }
+            long start = System.currentTimeMillis();
+            VerseSearchIndex built = new VerseSearchIndex(DataVersion.current());
+            try {
+                streamOrThrow("SELECT * FROM verse", INDEX_CHUNK_SIZE, chunk -> chunk.forEach(built::add));
+            } catch (SQLException e) {
+                logger.warn("Could not build verse search index, using SQL search: {}", e.getMessage());
+                return null;
+            }
+            logger.info("Built verse search index: {} verses, {} terms in {} ms", built.size(), built.termCount(),
+                    System.currentTimeMillis() - start);
+            searchIndex = built;
+            return built;
+        }
+    }
+
     @Override
     public List<VerseDTO> getVersesByPoemId(int poemId) {
         List<VerseDTO> verses = new ArrayList<>();
@@ -87,7 +272,15 @@ public class VerseDAO implements IVerseDAO {
             ps.setString(5, verse.getTranslation());
             ps.setString(6, verse.getNotes());
             ps.setInt(7, verse.getVerseId());
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0) {
+                long version = DataVersion.bump();
+                // The verse may have moved to another poem.
+                FrequencyStore.getShared().invalidateScopes();
+                VerseSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.put(verse, version);
+                }
+            }
         } catch (SQLException e) {
             logger.error("Error updating verse: {}", e.getMessage(), e);
         }
@@ -99,7 +292,14 @@ public class VerseDAO implements IVerseDAO {
         try (Connection con = dbConnection.getConnection();
                 PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setInt(1, verseId);
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0) {
+                long version = DataVersion.bump();
+                FrequencyStore.getShared().invalidateAll();
+                VerseSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.remove(verseId, version);
+                }
+            }
         } catch (SQLException e) {
             logger.error("Error deleting verse: {}", e.getMessage(), e);
         }
@@ -122,6 +322,14 @@ public class VerseDAO implements IVerseDAO {
      */
 
     public List<VerseDTO> searchExactString(String text) {
+        VerseSearchIndex index = getSearchIndex();
+        if (index != null) {
+            List<VerseDTO> indexed = index.search(text);
+            if (indexed != null) {
+                return new ArrayList<>(indexed);
+            }
+        }
+
         List<VerseDTO> results = new ArrayList<>();
         String sql = "SELECT * FROM verse WHERE txt LIKE ?";
 
@@ -141,7 +349,29 @@ public class VerseDAO implements IVerseDAO {
         return results;
     }
 
+    /**
+     * Matches the pattern with {@code java.util.regex} against the verses the
+     * search index picks as candidates, falling back to {@code REGEXP} when
+     * the index is unavailable. An invalid pattern gives no results; a search
+     * that exceeds {@value #REGEX_TIMEOUT_PROPERTY} throws
+     * {@link IllegalStateException}.
+     */
     public List<VerseDTO> searchRegexPattern(String pattern) {
+        VerseSearchIndex index = getSearchIndex();
+        if (index != null) {
+            long timeout = regexTimeoutMillis();
+            try {
+                return RegexSearch.search(index, pattern, timeout);
+            } catch (PatternSyntaxException e) {
+                logger.error("Invalid regex pattern '{}': {}", pattern, e.getDescription());
+                return new ArrayList<>();
+            } catch (RegexSearch.TimeoutException e) {
+                logger.warn("Regex search for '{}' stopped after {} ms", pattern, timeout);
+                throw new IllegalStateException("Regex search timed out after " + timeout
+                        + " ms; try a more specific pattern", e);
+            }
+        }
+
         List<VerseDTO> results = new ArrayList<>();
         String sql = "SELECT * FROM verse WHERE txt REGEXP ?";
 
@@ -160,4 +390,113 @@ public class VerseDAO implements IVerseDAO {
 
         return results;
     }
+
+    @Override
+    public PageDTO<VerseDTO> searchExactStringPage(String text, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        int after = PageCursor.decodeInt(cursor);
+        VerseSearchIndex index = getSearchIndex();
+        if (index != null) {
+            // Repeated for every page; the index answers it from its last result.
+            List<VerseDTO> all = index.search(text);
+            if (all != null) {
+                int from = firstAfter(all, after);
+                List<VerseDTO> rest = new ArrayList<>(all.subList(from, Math.min(all.size(), from + pageSize + 1)));
+                return toPage(rest, pageSize, cursor == null ? all.size() : -1);
+            }
+        }
+        return searchPageBySql("txt LIKE ?", "%" + text + "%", after, pageSize, cursor == null);
+    }
+
+    @Override
+    public PageDTO<VerseDTO> searchRegexPatternPage(String pattern, String cursor, int pageSize) {
+        checkPageSize(pageSize);
+        int after = PageCursor.decodeInt(cursor);
+        VerseSearchIndex index = getSearchIndex();
+        if (index != null) {
+            long timeout = regexTimeoutMillis();
+            try {
+                return RegexSearch.searchPage(index, pattern, after, pageSize, timeout);
+            } catch (PatternSyntaxException e) {
+                logger.error("Invalid regex pattern '{}': {}", pattern, e.getDescription());
+                return new PageDTO<>(new ArrayList<>(), null, 0);
+            } catch (RegexSearch.TimeoutException e) {
+                logger.warn("Regex search for '{}' stopped after {} ms", pattern, timeout);
+                throw new IllegalStateException("Regex search timed out after " + timeout
+                        + " ms; try a more specific pattern", e);
+            }
+        }
+        return searchPageBySql("txt REGEXP ?", pattern, after, pageSize, cursor == null);
+    }
+
+    /**
+     * Keyset page over the verses matching a condition, in verse id order. The
+     * total is only known when the first page is also the last.
+     */
+    private PageDTO<VerseDTO> searchPageBySql(String condition, String value, int after, int pageSize,
+            boolean firstPage) {
+        List<VerseDTO> rows = new ArrayList<>();
+        String sql = "SELECT * FROM verse WHERE " + condition + " AND verse_id > ? ORDER BY verse_id LIMIT ?";
+
+        try (Connection con = dbConnection.getConnection();
+                PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, value);
+            ps.setInt(2, after);
+            ps.setInt(3, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error in paged search: {}", e.getMessage(), e);
+        }
+        PageDTO<VerseDTO> page = toPage(rows, pageSize, -1);
+        if (firstPage && !page.hasNext()) {
+            page.setTotalEstimate(page.getItems().size());
+        }
+        return page;
+    }
+
+    /** Trims the one look-ahead row and turns it into the next cursor. */
+    private static PageDTO<VerseDTO> toPage(List<VerseDTO> rows, int pageSize, long total) {
+        if (rows.size() <= pageSize) {
+            return new PageDTO<>(rows, null, total);
+        }
+        List<VerseDTO> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new PageDTO<>(items, PageCursor.encode(items.get(pageSize - 1).getVerseId()), total);
+    }
+
+    /** Index of the first verse with an id above {@code after} in a list ordered by verse id. */
+    private static int firstAfter(List<VerseDTO> verses, int after) {
+        int low = 0;
+        int high = verses.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (verses.get(mid).getVerseId() <= after) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+    }
+
+    private static long regexTimeoutMillis() {
+        String configured = System.getProperty(REGEX_TIMEOUT_PROPERTY);
+        if (configured != null) {
+            try {
+                return Long.parseLong(configured.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using default", REGEX_TIMEOUT_PROPERTY, configured);
+            }
+        }
+        return DEFAULT_REGEX_TIMEOUT_MILLIS;
+    }
 }
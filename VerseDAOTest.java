@@ -1,7 +1,13 @@
 package dal;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,7 +16,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +28,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import dto.AnnotationType;
+import dto.PageDTO;
 import dto.VerseDTO;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,11 +57,18 @@ public class VerseDAOTest {
     @Test
     public void testCreateVerse() throws SQLException {
         when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
-        when(connectionMock.prepareStatement(anyString())).thenReturn(preparedStatementMock);
+        when(connectionMock.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
+                .thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeUpdate()).thenReturn(1);
+        when(preparedStatementMock.getGeneratedKeys()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true);
+        when(resultSetMock.getInt(1)).thenReturn(42);
 
         VerseDTO verse = new VerseDTO(0, 1, 1, "Text", "Diacritized", "Trans", "Notes");
         verseDAO.createVerse(verse);
 
+        assertEquals(42, verse.getVerseId());
+
         verify(preparedStatementMock).setInt(1, 1); // poem_id
         verify(preparedStatementMock).setInt(2, 1); // verse_no
         verify(preparedStatementMock).setString(3, "Text");
@@ -59,6 +78,87 @@ public class VerseDAOTest {
         verify(preparedStatementMock).executeUpdate();
     }
 
+    @Test
+    public void testStreamVersesDeliversChunksWithFetchSize() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(1, 2, 3);
+
+        List<List<VerseDTO>> chunks = new ArrayList<>();
+        int total = verseDAO.streamVerses(2, chunks::add);
+
+        assertEquals(3, total);
+        assertEquals(2, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(3, chunks.get(1).get(0).getVerseId());
+        verify(preparedStatementMock).setFetchSize(2);
+    }
+
+    @Test
+    public void testStreamUnprocessedVersesUsesSingleSetBasedQuery() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("NOT EXISTS (SELECT 1 FROM token"), anyInt(), anyInt()))
+                .thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(7);
+
+        List<VerseDTO> seen = new ArrayList<>();
+        int total = verseDAO.streamUnprocessedVerses(EnumSet.of(AnnotationType.TOKEN), 10, seen::addAll);
+
+        assertEquals(1, total);
+        assertEquals(7, seen.get(0).getVerseId());
+        verify(dbConnectionMock, times(1)).getConnection();
+    }
+
+    @Test
+    public void testStreamVersesFailsInsteadOfEndingEarly() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true).thenThrow(new SQLException("Query execution was interrupted"));
+        when(resultSetMock.getInt("verse_id")).thenReturn(1, 2);
+
+        List<List<VerseDTO>> chunks = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> verseDAO.streamVerses(2, chunks::add));
+
+        assertEquals(1, chunks.size());
+    }
+
+    @Test
+    public void testFindAnnotatedVerseIds() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(contains("FROM lemma WHERE verse_id IN (?,?)"))).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(2);
+
+        Set<Integer> annotated = verseDAO.findAnnotatedVerseIds(AnnotationType.LEMMA, List.of(1, 2));
+
+        assertEquals(1, annotated.size());
+        assertTrue(annotated.contains(2));
+        verify(preparedStatementMock).setInt(1, 1);
+        verify(preparedStatementMock).setInt(2, 2);
+    }
+
+    @Test
+    public void testGetVersesByIdsFailsInsteadOfReturningFewer() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> verseDAO.getVersesByIds(List.of(41, 42)));
+    }
+
+    @Test
+    public void testFindAnnotatedVerseIdsFailsInsteadOfReportingNone() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(anyString())).thenThrow(new SQLException("Lock wait timeout"));
+
+        assertThrows(IllegalStateException.class,
+                () -> verseDAO.findAnnotatedVerseIds(AnnotationType.TOKEN, List.of(1, 2)));
+    }
+
     @Test
     public void testGetAllVerses() throws SQLException {
         when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
@@ -122,4 +222,52 @@ public class VerseDAOTest {
         verify(preparedStatementMock).setInt(1, 1);
         verify(preparedStatementMock).executeUpdate();
     }
+
+    @Test
+    public void testSearchExactStringUsesIndexAndFollowsUpdates() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(eq("SELECT * FROM verse"), anyInt(), anyInt()))
+                .thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(1, 2);
+        when(resultSetMock.getInt("poem_id")).thenReturn(1, 1);
+        when(resultSetMock.getInt("verse_no")).thenReturn(1, 2);
+        when(resultSetMock.getString("txt")).thenReturn("قِفا نَبكِ مِن ذِكرى حَبيبٍ", "بِسِقطِ اللِوى بَينَ الدَخولِ");
+
+        List<VerseDTO> found = verseDAO.searchExactString("ذكري حبيب");
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getVerseId());
+
+        PreparedStatement updateMock = org.mockito.Mockito.mock(PreparedStatement.class);
+        when(connectionMock.prepareStatement(contains("UPDATE verse"))).thenReturn(updateMock);
+        when(updateMock.executeUpdate()).thenReturn(1);
+        verseDAO.updateVerse(new VerseDTO(2, 1, 2, "ذكرى حبيب ومنزل", null, null, null));
+
+        List<String> texts = new ArrayList<>();
+        verseDAO.searchExactString("ذكرى حبيب").forEach(v -> texts.add(v.getText()));
+        assertEquals(List.of("قِفا نَبكِ مِن ذِكرى حَبيبٍ", "ذكرى حبيب ومنزل"), texts);
+        // The index was kept in sync, so the table was read only once.
+        verify(preparedStatementMock, times(1)).executeQuery();
+    }
+
+    @Test
+    public void testSearchExactStringPageSlicesIndexResults() throws SQLException {
+        when(dbConnectionMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement(eq("SELECT * FROM verse"), anyInt(), anyInt()))
+                .thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeQuery()).thenReturn(resultSetMock);
+        when(resultSetMock.next()).thenReturn(true, true, true, false);
+        when(resultSetMock.getInt("verse_id")).thenReturn(5, 6, 7);
+        when(resultSetMock.getString("txt")).thenReturn("قلب", "في القلب", "قلبي");
+
+        PageDTO<VerseDTO> first = verseDAO.searchExactStringPage("قلب", null, 2);
+        assertEquals(List.of(5, 6), List.of(first.getItems().get(0).getVerseId(), first.getItems().get(1).getVerseId()));
+        assertEquals(3, first.getTotalEstimate());
+
+        PageDTO<VerseDTO> second = verseDAO.searchExactStringPage("قلب", first.getNextCursor(), 2);
+        assertEquals(1, second.getItems().size());
+        assertEquals(7, second.getItems().get(0).getVerseId());
+        assertFalse(second.hasNext());
+    }
 }
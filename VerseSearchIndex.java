@@ -0,0 +1,393 @@
+package dal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import dto.VerseDTO;
+
+/**
+ * In-memory full-text index over verse text with positional postings.
+ *
+ * Text is normalised before indexing and before querying: diacritics and
+ * tatweel are dropped, alef forms (أ إ آ ٱ) fold to ا, ى to ي and ة to ه.
+ * The normalised text is split on whitespace and every term keeps the
+ * (verse slot, word position) pairs it occurs at.
+ *
+ * A query matches where {@code LIKE '%query%'} would match the normalised
+ * text: a single word may occur anywhere inside a term, and for a phrase the
+ * first word must end a term, the inner words must equal the following terms
+ * and the last word must start the term after them.
+ *
+ * Terms are kept sorted, so exact and prefix matches are range lookups, and
+ * each distinct term is listed under its own trigrams, so a word of three or
+ * more characters only tests the terms that contain all of its trigrams. The
+ * last query's result is kept until the next change, so paging through it
+ * does not search again.
+ *
+ * For regex search each verse is also listed under every character trigram
+ * of its raw text, so {@link #regexCandidates} can narrow a pattern down to
+ * the verses containing all of its required literals.
+ *
+ * The index is built at a {@link DataVersion}. Changes made through
+ * {@link VerseDAO} are applied in place and move the index to the new version;
+ * any other change leaves it stale so the owner rebuilds it.
+ */
+public class VerseSearchIndex {
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private final List<VerseDTO> verses = new ArrayList<>();
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    private final List<String> termsById = new ArrayList<>();
+    private final Map<Long, IntList> termTrigrams = new HashMap<>();
+    private final Map<Long, IntList> trigrams = new HashMap<>();
+    private String lastQuery;
+    private List<VerseDTO> lastResults;
+    private long version;
+    private int removed;
+
+    public VerseSearchIndex(long version) {
+        this.version = version;
+    }
+
+    /** Indexes a verse while the index is being built. */
+    public synchronized void add(VerseDTO verse) {
+        String text = verse.getText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        lastQuery = null;
+        lastResults = null;
+        int slot = verses.size();
+        verses.add(verse);
+        slotsById.put(verse.getVerseId(), slot);
+        String[] terms = terms(text);
+        for (int position = 0; position < terms.length; position++) {
+            IntList list = postingsFor(terms[position]);
+            list.add(slot);
+            list.add(position);
+        }
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long key = trigram(text, i);
+            if (seen.add(key)) {
+                trigrams.computeIfAbsent(key, k -> new IntList()).add(slot);
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a verse after the change that produced
+     * {@code newVersion}. Ignored if the index missed an earlier change.
+     */
+    public synchronized void put(VerseDTO verse, long newVersion) {
+        if (version != newVersion - 1) {
+            return;
+        }
+        drop(verse.getVerseId());
+        add(verse);
+        version = newVersion;
+    }
+
+    /**
+     * Removes a verse after the change that produced {@code newVersion}.
+     * Ignored if the index missed an earlier change.
+     */
+    public synchronized void remove(int verseId, long newVersion) {
+        if (version != newVersion - 1) {
+            return;
+        }
+        drop(verseId);
+        version = newVersion;
+    }
+
+    private IntList postingsFor(String term) {
+        IntList list = postings.get(term);
+        if (list == null) {
+            list = new IntList();
+            postings.put(term, list);
+            int id = termsById.size();
+            termsById.add(term);
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                IntList ids = termTrigrams.computeIfAbsent(trigram(term, i), k -> new IntList());
+                // Ids are handed out in order, so a repeated trigram of this term is the last entry.
+                if (ids.size == 0 || ids.values[ids.size - 1] != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        return list;
+    }
+
+    private void drop(int verseId) {
+        lastQuery = null;
+        lastResults = null;
+        Integer slot = slotsById.remove(verseId);
+        if (slot != null) {
+            // Postings of the old slot stay behind and are skipped at query time.
+            verses.set(slot, null);
+            removed++;
+        }
+    }
+
+    /**
+     * Verses matching the query, ordered by verse id, or {@code null} when the
+     * query has no searchable characters left after normalisation. The list is
+     * read-only.
+     */
+    public synchronized List<VerseDTO> search(String query) {
+        String[] words = terms(query);
+        if (words.length == 0) {
+            return null;
+        }
+        String key = String.join(" ", words);
+        if (key.equals(lastQuery)) {
+            return lastResults;
+        }
+
+        boolean[] matched = new boolean[verses.size()];
+        if (words.length == 1) {
+            for (IntList list : matchingTerms(words, 0)) {
+                for (int i = 0; i < list.size; i += 2) {
+                    matched[list.values[i]] = true;
+                }
+            }
+        } else {
+            long[] starts = null;
+            for (int i = 0; i < words.length && (starts == null || starts.length > 0); i++) {
+                long[] candidates = phraseStarts(matchingTerms(words, i), i);
+                starts = starts == null ? candidates : intersect(starts, candidates);
+            }
+            for (long start : starts) {
+                matched[(int) (start >>> 32)] = true;
+            }
+        }
+
+        List<VerseDTO> results = new ArrayList<>();
+        for (int slot = 0; slot < matched.length; slot++) {
+            if (matched[slot] && verses.get(slot) != null) {
+                results.add(verses.get(slot));
+            }
+        }
+        results.sort((a, b) -> Integer.compare(a.getVerseId(), b.getVerseId()));
+        lastQuery = key;
+        lastResults = Collections.unmodifiableList(results);
+        return lastResults;
+    }
+
+    /**
+     * Verses whose raw text contains every trigram of every given literal,
+     * ordered by verse id. With no literal of three or more characters every
+     * verse is a candidate.
+     */
+    public synchronized List<VerseDTO> regexCandidates(List<String> literals) {
+        int[] slots = null;
+        for (String literal : literals) {
+            for (int i = 0; i + 3 <= literal.length() && (slots == null || slots.length > 0); i++) {
+                IntList list = trigrams.get(trigram(literal, i));
+                int[] posting = list == null ? new int[0] : Arrays.copyOf(list.values, list.size);
+                slots = slots == null ? posting : intersect(slots, posting);
+            }
+        }
+
+        List<VerseDTO> candidates = new ArrayList<>();
+        if (slots == null) {
+            for (VerseDTO verse : verses) {
+                if (verse != null) {
+                    candidates.add(verse);
+                }
+            }
+        } else {
+            for (int slot : slots) {
+                if (verses.get(slot) != null) {
+                    candidates.add(verses.get(slot));
+                }
+            }
+        }
+        candidates.sort((a, b) -> Integer.compare(a.getVerseId(), b.getVerseId()));
+        return candidates;
+    }
+
+    private static long trigram(CharSequence text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /** Postings of the terms word {@code i} of the query may match. */
+    private Collection<IntList> matchingTerms(String[] words, int i) {
+        String word = words[i];
+        if (words.length == 1) {
+            return containing(word, term -> term.contains(word));
+        }
+        if (i == 0) {
+            return containing(word, term -> term.endsWith(word));
+        }
+        if (i == words.length - 1) {
+            return postings.subMap(word, true, word + Character.MAX_VALUE, false).values();
+        }
+        IntList list = postings.get(word);
+        return list == null ? List.of() : List.of(list);
+    }
+
+    /**
+     * Postings of the terms that contain {@code word} and pass the matcher.
+     * Words shorter than a trigram test every term.
+     */
+    private List<IntList> containing(String word, Predicate<String> matcher) {
+        List<IntList> lists = new ArrayList<>();
+        if (word.length() < 3) {
+            for (Map.Entry<String, IntList> entry : postings.entrySet()) {
+                if (matcher.test(entry.getKey())) {
+                    lists.add(entry.getValue());
+                }
+            }
+            return lists;
+        }
+        int[] ids = null;
+        for (int i = 0; i + 3 <= word.length() && (ids == null || ids.length > 0); i++) {
+            IntList list = termTrigrams.get(trigram(word, i));
+            int[] posting = list == null ? new int[0] : Arrays.copyOf(list.values, list.size);
+            ids = ids == null ? posting : intersect(ids, posting);
+        }
+        for (int id : ids) {
+            String term = termsById.get(id);
+            if (matcher.test(term)) {
+                lists.add(postings.get(term));
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Sorted, distinct (slot, phrase start) keys for every occurrence of the
+     * given terms, taken as word {@code offset} of the phrase.
+     */
+    private long[] phraseStarts(Collection<IntList> lists, int offset) {
+        int total = 0;
+        for (IntList list : lists) {
+            total += list.size / 2;
+        }
+        long[] keys = new long[total];
+        int size = 0;
+        for (IntList list : lists) {
+            for (int i = 0; i < list.size; i += 2) {
+                int start = list.values[i + 1] - offset;
+                if (start >= 0) {
+                    keys[size++] = ((long) list.values[i] << 32) | start;
+                }
+            }
+        }
+        keys = Arrays.copyOf(keys, size);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                if (size == 0 || result[size - 1] != a[i]) {
+                    result[size++] = a[i];
+                }
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /** Intersection of two ascending slot lists. */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                result[size++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Whether verses changed behind the index's back, or enough verses were
+     * replaced or removed that a rebuild is worth it to drop dead postings.
+     */
+    public synchronized boolean isStale() {
+        return version != DataVersion.current()
+                || (removed > COMPACT_THRESHOLD && removed > slotsById.size());
+    }
+
+    public synchronized int size() {
+        return slotsById.size();
+    }
+
+    public synchronized int termCount() {
+        return postings.size();
+    }
+
+    static String[] terms(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = normalize(text).trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split("\\s+");
+    }
+
+    /**
+     * Folds Arabic spelling variants and strips diacritics (harakat, tanween,
+     * shadda, sukun, dagger alef, Quranic marks) and tatweel.
+     */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670' || c == '\u0640'
+                    || (c >= '\u06D6' && c <= '\u06ED')) {
+                continue;
+            }
+            switch (c) {
+                case 'أ', 'إ', 'آ', 'ٱ' -> sb.append('ا');
+                case 'ى' -> sb.append('ي');
+                case 'ة' -> sb.append('ه');
+                default -> sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dto.VerseDTO;
+
+public class VerseSearchIndexTest {
+
+    private VerseSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new VerseSearchIndex(DataVersion.current());
+        index.add(new VerseDTO(3, 1, 3, "أَلا هُبّي بِصَحنِكِ فَاِصبَحينا", null, null, null));
+        index.add(new VerseDTO(1, 1, 1, "قِفا نَبكِ مِن ذِكرى حَبيبٍ وَمَنزِلِ", null, null, null));
+        index.add(new VerseDTO(2, 1, 2, "بِسِقطِ اللِوى بَينَ الدَخولِ فَحَومَلِ", null, null, null));
+    }
+
+    private static List<Integer> ids(List<VerseDTO> verses) {
+        List<Integer> ids = new ArrayList<>();
+        verses.forEach(v -> ids.add(v.getVerseId()));
+        return ids;
+    }
+
+    @Test
+    public void testNormalizeFoldsVariantsAndDropsDiacritics() {
+        assertEquals("الا", VerseSearchIndex.normalize("أَلا"));
+        assertEquals("اسلام", VerseSearchIndex.normalize("إسلام"));
+        assertEquals("ذكري", VerseSearchIndex.normalize("ذِكرى"));
+        assertEquals("مدرسه", VerseSearchIndex.normalize("مدرسـة"));
+    }
+
+    @Test
+    public void testSingleWordMatchesInsideTerms() {
+        assertEquals(List.of(1, 2, 3), ids(index.search("ب")));
+        assertEquals(List.of(3), ids(index.search("ألا")));
+        assertTrue(index.search("غائب").isEmpty());
+    }
+
+    @Test
+    public void testPhraseMatchesLikeSubstring() {
+        assertEquals(List.of(1), ids(index.search("ذكرى حبيب")));
+        // First word may end a term and the last may start one.
+        assertEquals(List.of(1), ids(index.search("كرى حبيب ومن")));
+        // Words must be adjacent and in order.
+        assertTrue(index.search("حبيب ذكرى").isEmpty());
+        assertTrue(index.search("نبك ذكرى").isEmpty());
+    }
+
+    @Test
+    public void testLongWordsAreNarrowedByTermTrigrams() {
+        // "منزل" lies inside "ومنزل"; "نزلو" shares trigrams with it but is not in any term.
+        assertEquals(List.of(1), ids(index.search("منزل")));
+        assertTrue(index.search("نزلو").isEmpty());
+        assertEquals(List.of(2), ids(index.search("اللوي بين الدخ")));
+        assertTrue(index.search("اللوي بين خول").isEmpty());
+    }
+
+    @Test
+    public void testLastResultIsReusedUntilNextChange() {
+        List<VerseDTO> first = index.search("ذِكرى");
+        assertSame(first, index.search("ذكرى"));
+
+        index.put(new VerseDTO(2, 1, 2, "ذكرى منزل", null, null, null), DataVersion.bump());
+        assertEquals(List.of(1, 2), ids(index.search("ذكرى")));
+    }
+
+    @Test
+    public void testQueryWithoutSearchableCharactersReturnsNull() {
+        assertNull(index.search("   "));
+        assertNull(index.search("َ"));
+    }
+
+    @Test
+    public void testPutAndRemoveFollowVersion() {
+        long version = DataVersion.bump();
+        index.put(new VerseDTO(2, 1, 2, "ذكرى منزل", null, null, null), version);
+        assertEquals(List.of(1, 2), ids(index.search("ذكرى")));
+        assertTrue(index.search("الدخول").isEmpty());
+
+        version = DataVersion.bump();
+        index.remove(1, version);
+        assertEquals(List.of(2), ids(index.search("ذكرى")));
+        assertFalse(index.isStale());
+    }
+
+    @Test
+    public void testMissedChangeLeavesIndexStale() {
+        DataVersion.bump();
+        long version = DataVersion.bump();
+        index.remove(1, version);
+        assertTrue(index.isStale());
+        assertEquals(List.of(1), ids(index.search("ذكرى")));
+    }
+}